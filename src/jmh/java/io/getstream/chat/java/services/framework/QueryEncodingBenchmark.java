@@ -0,0 +1,66 @@
+package io.getstream.chat.java.services.framework;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.getstream.chat.java.models.Sort;
+import io.getstream.chat.java.models.User;
+import io.getstream.chat.java.models.User.UserListRequestData;
+import io.getstream.chat.java.services.UserService;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import retrofit2.Converter;
+
+/**
+ * Compares the encoding of a {@code @ToJson} list payload with a new {@link ObjectMapper} per call
+ * (previous behavior) and with the shared {@link JsonCodec} of {@link QueryConverterFactory}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class QueryEncodingBenchmark {
+  private UserListRequestData payload;
+  private Converter<Object, String> converter;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setup() throws NoSuchMethodException {
+    payload =
+        User.list()
+            .filterCondition("id", Map.of("$in", List.of("john", "jane", "jack", "jill")))
+            .filterCondition("role", "user")
+            .sort(Sort.builder().field("created_at").direction(Sort.Direction.DESC).build())
+            .presence(true)
+            .limit(100)
+            .offset(200)
+            .internalBuild();
+    Annotation[] annotations =
+        UserService.class.getMethod("list", UserListRequestData.class)
+            .getParameterAnnotations()[0];
+    converter =
+        (Converter<Object, String>)
+            QueryConverterFactory.create(new JsonCodec(false))
+                .stringConverter(UserListRequestData.class, annotations, null);
+  }
+
+  @Benchmark
+  public String mapperPerCall() throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    new ObjectMapper().writeValue(baos, payload);
+    return baos.toString("UTF-8");
+  }
+
+  @Benchmark
+  public String sharedCodec() throws IOException {
+    return converter.convert(payload);
+  }
+}
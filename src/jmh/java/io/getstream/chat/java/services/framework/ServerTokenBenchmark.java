@@ -0,0 +1,39 @@
+package io.getstream.chat.java.services.framework;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the per-request cost of the Authorization header when the server token is signed for
+ * every call (previous behavior) and when it is served from {@link ServerTokenManager}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ServerTokenBenchmark {
+  private static final String API_SECRET =
+      "benchmark-secret-benchmark-secret-benchmark-secret-benchmark";
+
+  private ServerTokenManager serverTokenManager;
+
+  @Setup
+  public void setup() {
+    serverTokenManager = new ServerTokenManager(API_SECRET);
+  }
+
+  @Benchmark
+  public String signPerRequest() {
+    return new ServerTokenManager(API_SECRET).getToken();
+  }
+
+  @Benchmark
+  public String cachedToken() {
+    return serverTokenManager.getToken();
+  }
+}
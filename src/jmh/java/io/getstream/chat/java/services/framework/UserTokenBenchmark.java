@@ -0,0 +1,45 @@
+package io.getstream.chat.java.services.framework;
+
+import io.getstream.chat.java.models.User;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+/**
+ * Compares the tokens per second of a single core with {@link User#createToken(String, String,
+ * Date, Date)} and with a shared {@link UserTokenFactory}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1)
+public class UserTokenBenchmark {
+  private static final String API_SECRET = "benchmark-secret-benchmark-secret-0123456789";
+
+  private final String userId = "benchmark-user";
+  private final Date expiresAt = new Date(1700000000000L);
+  private final Date issuedAt = new Date(1690000000000L);
+  private UserTokenFactory tokenFactory;
+
+  @Setup
+  public void setup() {
+    tokenFactory = new UserTokenFactory(API_SECRET);
+  }
+
+  @Benchmark
+  public String createToken() {
+    return User.createToken(API_SECRET, userId, expiresAt, issuedAt);
+  }
+
+  @Benchmark
+  public String tokenFactory() {
+    return tokenFactory.createToken(userId, expiresAt, issuedAt);
+  }
+}
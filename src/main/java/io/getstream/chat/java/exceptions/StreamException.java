@@ -1,9 +1,11 @@
 package io.getstream.chat.java.exceptions;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.getstream.chat.java.models.RateLimit;
+import io.getstream.chat.java.services.framework.JsonCodec;
 import java.io.IOException;
 import java.util.Map;
 import lombok.Data;
@@ -13,6 +15,8 @@ import retrofit2.Response;
 
 public class StreamException extends Exception {
   private static final long serialVersionUID = 1L;
+  private static final ObjectReader RESPONSE_DATA_READER =
+      JsonCodec.getDefault().readerFor(ResponseData.class);
 
   @Getter private ResponseData responseData;
 
@@ -47,12 +51,10 @@ public class StreamException extends Exception {
    */
   @Deprecated
   public static StreamException build(ResponseBody responseBody) {
-    ObjectMapper objectMapper = new ObjectMapper();
-    objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
     try {
       String responseBodyString = responseBody.string();
       try {
-        ResponseData responseData = objectMapper.readValue(responseBodyString, ResponseData.class);
+        ResponseData responseData = RESPONSE_DATA_READER.readValue(responseBodyString);
         return new StreamException(responseData.getMessage(), responseData);
       } catch (JsonProcessingException e) {
         return new StreamException(responseBodyString, e);
@@ -118,5 +120,8 @@ public class StreamException extends Exception {
 
     @JsonProperty("more_info")
     private String moreInfo;
+
+    /** The rate limit headers of the response, if any */
+    @JsonIgnore private RateLimit rateLimit;
   }
 }
@@ -26,6 +26,7 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
 import java.security.Key;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Date;
@@ -1282,6 +1283,8 @@ public class App extends StreamResponseObject {
    * @param body raw body from http request converted to a string.
    * @param signature the signature provided in X-Signature header
    * @return true if the signature is valid
+   * @see io.getstream.chat.java.services.framework.WebhookVerifier to verify raw bodies at high
+   *     volume
    */
   public static boolean verifyWebhookSignature(
       @NotNull String apiSecret, @NotNull String body, @NotNull String signature) {
@@ -1290,7 +1293,9 @@ public class App extends StreamResponseObject {
       Mac mac = Mac.getInstance(sk.getAlgorithm());
       mac.init(sk);
       final byte[] hmac = mac.doFinal(body.getBytes(StandardCharsets.UTF_8));
-      return bytesToHex(hmac).equals(signature);
+      return MessageDigest.isEqual(
+          bytesToHex(hmac).getBytes(StandardCharsets.UTF_8),
+          signature.getBytes(StandardCharsets.UTF_8));
     } catch (NoSuchAlgorithmException e) {
       throw new IllegalStateException("Should not happen. Could not find HmacSHA256", e);
     } catch (InvalidKeyException e) {
@@ -22,6 +22,7 @@ import io.getstream.chat.java.models.Message.MessageRequestObject;
 import io.getstream.chat.java.models.User.ChannelMute;
 import io.getstream.chat.java.models.User.OwnUser;
 import io.getstream.chat.java.models.User.UserRequestObject;
+import io.getstream.chat.java.models.framework.PageIterator;
 import io.getstream.chat.java.models.framework.RequestObjectBuilder;
 import io.getstream.chat.java.models.framework.StreamRequest;
 import io.getstream.chat.java.models.framework.StreamResponseObject;
@@ -31,6 +32,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 import lombok.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -673,10 +675,49 @@ public class Channel {
     private String connectionId;
 
     public static class ChannelListRequest extends StreamRequest<ChannelListResponse> {
+      private static final int DEFAULT_PAGE_SIZE = 30;
+
       @Override
       protected Call<ChannelListResponse> generateCall(Client client) {
         return client.create(ChannelService.class).list(this.internalBuild());
       }
+
+      /**
+       * Lazily iterates over all the matching channels, fetching the next page while the current
+       * one is consumed. The request offset and limit are overwritten for every page. The API only
+       * offers offset paging here, which caps how deep the iteration can go and may skip or repeat
+       * channels that change meanwhile.
+       *
+       * @param pageSize the number of channels per page
+       * @param readAhead the number of pages fetched ahead
+       * @return the iterator
+       */
+      @NotNull
+      public PageIterator<ChannelGetResponse> iterator(int pageSize, int readAhead) {
+        return new PageIterator<>(
+            (offset, limit) ->
+                offset(offset)
+                    .limit(limit)
+                    .requestFuture()
+                    .thenApply(ChannelListResponse::getChannels),
+            pageSize,
+            readAhead);
+      }
+
+      @NotNull
+      public PageIterator<ChannelGetResponse> iterator() {
+        return iterator(DEFAULT_PAGE_SIZE, 1);
+      }
+
+      @NotNull
+      public Stream<ChannelGetResponse> stream(int pageSize, int readAhead) {
+        return iterator(pageSize, readAhead).stream();
+      }
+
+      @NotNull
+      public Stream<ChannelGetResponse> stream() {
+        return iterator().stream();
+      }
     }
   }
 
@@ -806,10 +847,52 @@ public class Channel {
 
     public static class ChannelQueryMembersRequest
         extends StreamRequest<ChannelQueryMembersResponse> {
+      private static final int DEFAULT_PAGE_SIZE = 100;
+
       @Override
       protected Call<ChannelQueryMembersResponse> generateCall(Client client) {
         return client.create(ChannelService.class).queryMembers(this.internalBuild());
       }
+
+      /**
+       * Lazily iterates over all the matching members, fetching the next page while the current one
+       * is consumed. Members are returned by ascending user id: every page is requested with
+       * {@code user_id_gt} set to the last user id of the previous one, so deep pages stay
+       * reachable and no member is skipped or repeated when members join or leave meanwhile. The
+       * request sort, offset, limit and {@code user_id_gt} are overwritten.
+       *
+       * @param pageSize the number of members per page
+       * @param readAhead the number of pages fetched ahead
+       * @return the iterator
+       */
+      @NotNull
+      public PageIterator<ChannelMember> iterator(int pageSize, int readAhead) {
+        clearSorts().sort(Sort.builder().field("user_id").direction(Sort.Direction.ASC).build());
+        return PageIterator.cursor(
+            (after, limit) ->
+                userIdGt(after != null ? after.getUserId() : null)
+                    .offset(null)
+                    .limit(limit)
+                    .requestFuture()
+                    .thenApply(ChannelQueryMembersResponse::getMembers),
+            pageSize,
+            readAhead);
+      }
+
+      @NotNull
+      public PageIterator<ChannelMember> iterator() {
+        return iterator(DEFAULT_PAGE_SIZE, 1);
+      }
+
+      @NotNull
+      public Stream<ChannelMember> stream(int pageSize, int readAhead) {
+        return iterator(pageSize, readAhead).stream();
+      }
+
+      @NotNull
+      public Stream<ChannelMember> stream() {
+        return iterator().stream();
+      }
     }
   }
 
@@ -124,7 +124,7 @@ public class Event {
     this.additionalFields.put(name, value);
   }
 
-  @Builder
+  @Builder(toBuilder = true)
   @Setter
   public static class EventRequestObject {
     @Nullable
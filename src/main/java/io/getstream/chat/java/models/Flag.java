@@ -9,6 +9,7 @@ import io.getstream.chat.java.models.Flag.QueryFlagReportsRequestData.QueryFlagR
 import io.getstream.chat.java.models.Flag.ReviewFlagReportRequestData.ReviewFlagReportRequest;
 import io.getstream.chat.java.models.Message.Moderation;
 import io.getstream.chat.java.models.User.UserRequestObject;
+import io.getstream.chat.java.models.framework.PageIterator;
 import io.getstream.chat.java.models.framework.StreamRequest;
 import io.getstream.chat.java.models.framework.StreamResponseObject;
 import io.getstream.chat.java.services.FlagService;
@@ -16,6 +17,7 @@ import io.getstream.chat.java.services.framework.Client;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 import lombok.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -326,10 +328,49 @@ public class Flag {
     private UserRequestObject user;
 
     public static class QueryFlagReportsRequest extends StreamRequest<QueryFlagReportsResponse> {
+      private static final int DEFAULT_PAGE_SIZE = 50;
+
       @Override
       protected Call<QueryFlagReportsResponse> generateCall(Client client) {
         return client.create(FlagService.class).queryFlagReports(this.internalBuild());
       }
+
+      /**
+       * Lazily iterates over all the flag reports, fetching the next page while the current one is
+       * consumed. The request offset and limit are overwritten for every page. The API only offers
+       * offset paging here, which caps how deep the iteration can go and may skip or repeat reports
+       * that change meanwhile.
+       *
+       * @param pageSize the number of flag reports per page
+       * @param readAhead the number of pages fetched ahead
+       * @return the iterator
+       */
+      @NotNull
+      public PageIterator<FlagReport> iterator(int pageSize, int readAhead) {
+        return new PageIterator<>(
+            (offset, limit) ->
+                offset(offset)
+                    .limit(limit)
+                    .requestFuture()
+                    .thenApply(QueryFlagReportsResponse::getFlagReports),
+            pageSize,
+            readAhead);
+      }
+
+      @NotNull
+      public PageIterator<FlagReport> iterator() {
+        return iterator(DEFAULT_PAGE_SIZE, 1);
+      }
+
+      @NotNull
+      public Stream<FlagReport> stream(int pageSize, int readAhead) {
+        return iterator(pageSize, readAhead).stream();
+      }
+
+      @NotNull
+      public Stream<FlagReport> stream() {
+        return iterator().stream();
+      }
     }
   }
 
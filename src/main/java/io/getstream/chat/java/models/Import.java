@@ -2,12 +2,14 @@ package io.getstream.chat.java.models;
 
 import com.fasterxml.jackson.annotation.JsonEnumDefaultValue;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import io.getstream.chat.java.models.framework.PageIterator;
 import io.getstream.chat.java.models.framework.StreamRequest;
 import io.getstream.chat.java.models.framework.StreamResponseObject;
 import io.getstream.chat.java.services.ImportService;
 import io.getstream.chat.java.services.framework.Client;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -152,6 +154,8 @@ public class Import {
   }
 
   public static class ListImportsRequest extends StreamRequest<Import.ListImportsResponse> {
+    private static final int DEFAULT_PAGE_SIZE = 25;
+
     private final Integer limit;
     private final Integer offset;
 
@@ -164,6 +168,42 @@ public class Import {
     protected Call<Import.ListImportsResponse> generateCall(Client client) {
       return client.create(ImportService.class).listImports(this.limit, this.offset);
     }
+
+    /**
+     * Lazily iterates over all the import tasks, fetching the next page while the current one is
+     * consumed. Iteration starts from the first import task, whatever the limit and offset of this
+     * request. The endpoint only offers offset paging, which caps how deep the iteration can go.
+     *
+     * @param pageSize the number of import tasks per page
+     * @param readAhead the number of pages fetched ahead
+     * @return the iterator
+     */
+    @NotNull
+    public PageIterator<Import> iterator(int pageSize, int readAhead) {
+      return new PageIterator<>(
+          (offset, limit) ->
+              new ListImportsRequest(limit, offset)
+                  .withClient(getClient())
+                  .requestFuture()
+                  .thenApply(ListImportsResponse::getImportTasks),
+          pageSize,
+          readAhead);
+    }
+
+    @NotNull
+    public PageIterator<Import> iterator() {
+      return iterator(DEFAULT_PAGE_SIZE, 1);
+    }
+
+    @NotNull
+    public Stream<Import> stream(int pageSize, int readAhead) {
+      return iterator(pageSize, readAhead).stream();
+    }
+
+    @NotNull
+    public Stream<Import> stream() {
+      return iterator().stream();
+    }
   }
 
   public static class GetImportResponse extends CreateImportResponse {}
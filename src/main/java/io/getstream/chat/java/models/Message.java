@@ -18,11 +18,15 @@ import io.getstream.chat.java.models.framework.*;
 import io.getstream.chat.java.services.MessageService;
 import io.getstream.chat.java.services.framework.Client;
 import java.io.File;
+import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import lombok.*;
 import org.jetbrains.annotations.NotNull;
@@ -884,15 +888,16 @@ public class Message {
 
     public abstract TResponse request() throws StreamException;
 
+    /**
+     * Executes the request asynchronously, through the asynchronous methods of the file handler
+     *
+     * @param onSuccess executed when the request is successful
+     * @param onError executed when IO problem occurs or the stream API return an error
+     */
     public void requestAsync(
         @Nullable Consumer<TResponse> onSuccess, @Nullable Consumer<StreamException> onError) {
       try {
-        var response = request();
-        if (onSuccess == null) {
-          return;
-        }
-
-        onSuccess.accept(response);
+        handleAsync(getFileHandler(), onSuccess, onError);
       } catch (StreamException ex) {
         if (onError != null) {
           onError.accept(ex);
@@ -900,6 +905,40 @@ public class Message {
       }
     }
 
+    /**
+     * Executes the request asynchronously and returns a future of its response. The future
+     * completes exceptionally with a StreamException when IO problem occurs or the stream API
+     * return an error.
+     *
+     * @return the future response
+     */
+    @NotNull
+    public CompletableFuture<TResponse> requestFuture() {
+      var future = new CompletableFuture<TResponse>();
+      requestAsync(future::complete, future::completeExceptionally);
+      return future;
+    }
+
+    /**
+     * Sends the request through the asynchronous methods of the file handler. Runs the blocking
+     * {@link #request()} on the calling thread by default, the built-in requests override it.
+     *
+     * @param fileHandler the file handler of the request
+     * @param onSuccess executed when the request is successful
+     * @param onError executed when IO problem occurs or the stream API return an error
+     * @throws StreamException if the request fails before reaching the file handler
+     */
+    protected void handleAsync(
+        @NotNull FileHandler fileHandler,
+        @Nullable Consumer<TResponse> onSuccess,
+        @Nullable Consumer<StreamException> onError)
+        throws StreamException {
+      var response = request();
+      if (onSuccess != null) {
+        onSuccess.accept(response);
+      }
+    }
+
     @NotNull
     protected FileHandler getFileHandler() throws StreamException {
       var fh = fileHandler;
@@ -928,6 +967,10 @@ public class Message {
 
     @Nullable private File file;
 
+    @Nullable private UploadSource source;
+
+    @Nullable private UploadSource.ProgressListener progressListener;
+
     @Nullable private String contentType;
 
     private MessageUploadFileRequest(
@@ -944,13 +987,98 @@ public class Message {
     @NotNull
     public MessageUploadFileRequest file(@NotNull File file) {
       this.file = file;
+      this.source = null;
+      return this;
+    }
+
+    /**
+     * Streams the file from a memory mapping
+     *
+     * @param path the file to upload
+     * @return the request
+     */
+    @NotNull
+    public MessageUploadFileRequest file(@NotNull Path path) {
+      return source(UploadSource.of(path));
+    }
+
+    /**
+     * Streams the file from a buffer, see {@link UploadSource#of(ByteBuffer, String)}
+     *
+     * @param buffer the content of the file
+     * @param fileName the name of the file
+     * @return the request
+     */
+    @NotNull
+    public MessageUploadFileRequest file(@NotNull ByteBuffer buffer, @NotNull String fileName) {
+      return source(UploadSource.of(buffer, fileName));
+    }
+
+    /**
+     * Streams the file from an input stream, see {@link UploadSource#of(InputStream, long,
+     * String)}
+     *
+     * @param inputStream the content of the file
+     * @param length the size of the file
+     * @param fileName the name of the file
+     * @return the request
+     */
+    @NotNull
+    public MessageUploadFileRequest file(
+        @NotNull InputStream inputStream, long length, @NotNull String fileName) {
+      return source(UploadSource.of(inputStream, length, fileName));
+    }
+
+    @NotNull
+    public MessageUploadFileRequest source(@NotNull UploadSource source) {
+      this.source = source;
+      this.file = null;
+      return this;
+    }
+
+    /**
+     * Listens to the progress of a streamed upload. A {@link File} goes through the file handler
+     * as is, without progress: set the file with {@link #file(Path)} to follow it.
+     *
+     * @param progressListener the listener notified as the file is sent
+     * @return the request
+     */
+    @NotNull
+    public MessageUploadFileRequest progressListener(
+        @NotNull UploadSource.ProgressListener progressListener) {
+      this.progressListener = progressListener;
       return this;
     }
 
     @NotNull
     public MessageUploadFileResponse request() throws StreamException {
+      if (source != null) {
+        return getFileHandler()
+            .uploadFile(channelType, channelId, userId, source, contentType, progressListener);
+      }
       return getFileHandler().uploadFile(channelType, channelId, userId, file, contentType);
     }
+
+    @Override
+    protected void handleAsync(
+        @NotNull FileHandler fileHandler,
+        @Nullable Consumer<MessageUploadFileResponse> onSuccess,
+        @Nullable Consumer<StreamException> onError) {
+      if (source != null) {
+        fileHandler.uploadFileAsync(
+            channelType,
+            channelId,
+            userId,
+            source,
+            contentType,
+            progressListener,
+            onSuccess,
+            onError);
+        return;
+      }
+      fileHandler.uploadFileAsync(
+          channelType, channelId, userId, file, contentType, onSuccess, onError);
+    }
   }
 
   @RequiredArgsConstructor
@@ -967,9 +1095,73 @@ public class Message {
 
     @Nullable private List<ImageSizeRequestObject> uploadSizes;
 
+    @Nullable private UploadSource source;
+
+    @Nullable private UploadSource.ProgressListener progressListener;
+
     @NotNull
     public MessageUploadImageRequest file(@NotNull File file) {
       this.file = file;
+      this.source = null;
+      return this;
+    }
+
+    /**
+     * Streams the image from a memory mapping
+     *
+     * @param path the image to upload
+     * @return the request
+     */
+    @NotNull
+    public MessageUploadImageRequest file(@NotNull Path path) {
+      return source(UploadSource.of(path));
+    }
+
+    /**
+     * Streams the image from a buffer, see {@link UploadSource#of(ByteBuffer, String)}
+     *
+     * @param buffer the content of the image
+     * @param fileName the name of the image
+     * @return the request
+     */
+    @NotNull
+    public MessageUploadImageRequest file(@NotNull ByteBuffer buffer, @NotNull String fileName) {
+      return source(UploadSource.of(buffer, fileName));
+    }
+
+    /**
+     * Streams the image from an input stream, see {@link UploadSource#of(InputStream, long,
+     * String)}
+     *
+     * @param inputStream the content of the image
+     * @param length the size of the image
+     * @param fileName the name of the image
+     * @return the request
+     */
+    @NotNull
+    public MessageUploadImageRequest file(
+        @NotNull InputStream inputStream, long length, @NotNull String fileName) {
+      return source(UploadSource.of(inputStream, length, fileName));
+    }
+
+    @NotNull
+    public MessageUploadImageRequest source(@NotNull UploadSource source) {
+      this.source = source;
+      this.file = null;
+      return this;
+    }
+
+    /**
+     * Listens to the progress of a streamed upload. A {@link File} goes through the file handler
+     * as is, without progress: set the image with {@link #file(Path)} to follow it.
+     *
+     * @param progressListener the listener notified as the image is sent
+     * @return the request
+     */
+    @NotNull
+    public MessageUploadImageRequest progressListener(
+        @NotNull UploadSource.ProgressListener progressListener) {
+      this.progressListener = progressListener;
       return this;
     }
 
@@ -982,9 +1174,42 @@ public class Message {
 
     @NotNull
     public MessageUploadImageResponse request() throws StreamException {
+      if (source != null) {
+        return getFileHandler()
+            .uploadImage(
+                channelType,
+                channelId,
+                userId,
+                source,
+                contentType,
+                uploadSizes,
+                progressListener);
+      }
       return getFileHandler()
           .uploadImage(channelType, channelId, userId, file, contentType, uploadSizes);
     }
+
+    @Override
+    protected void handleAsync(
+        @NotNull FileHandler fileHandler,
+        @Nullable Consumer<MessageUploadImageResponse> onSuccess,
+        @Nullable Consumer<StreamException> onError) {
+      if (source != null) {
+        fileHandler.uploadImageAsync(
+            channelType,
+            channelId,
+            userId,
+            source,
+            contentType,
+            uploadSizes,
+            progressListener,
+            onSuccess,
+            onError);
+        return;
+      }
+      fileHandler.uploadImageAsync(
+          channelType, channelId, userId, file, contentType, uploadSizes, onSuccess, onError);
+    }
   }
 
   @RequiredArgsConstructor
@@ -999,6 +1224,14 @@ public class Message {
     public StreamResponseObject request() throws StreamException {
       return getFileHandler().deleteFile(channelType, channelId, url);
     }
+
+    @Override
+    protected void handleAsync(
+        @NotNull FileHandler fileHandler,
+        @Nullable Consumer<StreamResponseObject> onSuccess,
+        @Nullable Consumer<StreamException> onError) {
+      fileHandler.deleteFileAsync(channelType, channelId, url, onSuccess, onError);
+    }
   }
 
   @RequiredArgsConstructor
@@ -1013,6 +1246,14 @@ public class Message {
     public StreamResponseObject request() throws StreamException {
       return getFileHandler().deleteImage(channelType, channelId, url);
     }
+
+    @Override
+    protected void handleAsync(
+        @NotNull FileHandler fileHandler,
+        @Nullable Consumer<StreamResponseObject> onSuccess,
+        @Nullable Consumer<StreamException> onError) {
+      fileHandler.deleteImageAsync(channelType, channelId, url, onSuccess, onError);
+    }
   }
 
   @RequiredArgsConstructor
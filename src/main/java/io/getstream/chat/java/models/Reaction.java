@@ -6,6 +6,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.getstream.chat.java.models.Reaction.ReactionSendRequestData.ReactionSendRequest;
 import io.getstream.chat.java.models.User.UserRequestObject;
+import io.getstream.chat.java.models.framework.PageIterator;
 import io.getstream.chat.java.models.framework.RequestObjectBuilder;
 import io.getstream.chat.java.models.framework.StreamRequest;
 import io.getstream.chat.java.models.framework.StreamResponseObject;
@@ -15,6 +16,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 import lombok.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -152,6 +154,8 @@ public class Reaction {
 
   @RequiredArgsConstructor
   public static class ReactionListRequest extends StreamRequest<ReactionListResponse> {
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
     @NotNull private String messageId;
 
     @Nullable private Integer limit;
@@ -172,7 +176,44 @@ public class Reaction {
 
     @Override
     protected Call<ReactionListResponse> generateCall(Client client) {
-      return client.create(ReactionService.class).list(messageId);
+      return client.create(ReactionService.class).list(messageId, limit, offset);
+    }
+
+    /**
+     * Lazily iterates over all the reactions, fetching the next page while the current one is
+     * consumed. The request offset and limit are overwritten for every page. The endpoint only
+     * accepts an offset and a limit, which caps how deep the iteration can go and may skip or
+     * repeat reactions added or removed meanwhile.
+     *
+     * @param pageSize the number of reactions per page
+     * @param readAhead the number of pages fetched ahead
+     * @return the iterator
+     */
+    @NotNull
+    public PageIterator<Reaction> iterator(int pageSize, int readAhead) {
+      return new PageIterator<>(
+          (offset, limit) ->
+              offset(offset)
+                  .limit(limit)
+                  .requestFuture()
+                  .thenApply(ReactionListResponse::getReactions),
+          pageSize,
+          readAhead);
+    }
+
+    @NotNull
+    public PageIterator<Reaction> iterator() {
+      return iterator(DEFAULT_PAGE_SIZE, 1);
+    }
+
+    @NotNull
+    public Stream<Reaction> stream(int pageSize, int readAhead) {
+      return iterator(pageSize, readAhead).stream();
+    }
+
+    @NotNull
+    public Stream<Reaction> stream() {
+      return iterator().stream();
     }
   }
 
@@ -18,6 +18,7 @@ import io.getstream.chat.java.models.User.UserQueryBannedRequestData.UserQueryBa
 import io.getstream.chat.java.models.User.UserReactivateRequestData.UserReactivateRequest;
 import io.getstream.chat.java.models.User.UserUnmuteRequestData.UserUnmuteRequest;
 import io.getstream.chat.java.models.User.UserUpsertRequestData.UserUpsertRequest;
+import io.getstream.chat.java.models.framework.PageIterator;
 import io.getstream.chat.java.models.framework.RequestObjectBuilder;
 import io.getstream.chat.java.models.framework.StreamRequest;
 import io.getstream.chat.java.models.framework.StreamResponseObject;
@@ -29,7 +30,9 @@ import java.nio.charset.StandardCharsets;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.crypto.spec.SecretKeySpec;
 import lombok.*;
 import org.jetbrains.annotations.NotNull;
@@ -624,10 +627,64 @@ public class User {
     private String connectionId;
 
     public static class UserListRequest extends StreamRequest<UserListResponse> {
+      private static final int DEFAULT_PAGE_SIZE = 100;
+
       @Override
       protected Call<UserListResponse> generateCall(Client client) {
         return client.create(UserService.class).list(this.internalBuild());
       }
+
+      /**
+       * Lazily iterates over all the matching users, fetching the next page while the current one
+       * is consumed. Users are returned by ascending id: every page is requested after the last id
+       * of the previous one, so deep pages stay reachable and no user is skipped or repeated when
+       * users are added or removed meanwhile. The request sort, offset and limit are overwritten,
+       * its filter conditions are left as they were.
+       *
+       * @param pageSize the number of users per page
+       * @param readAhead the number of pages fetched ahead
+       * @return the iterator
+       */
+      @NotNull
+      public PageIterator<User> iterator(int pageSize, int readAhead) {
+        Map<String, Object> filterConditions = this.internalBuild().filterConditions;
+        clearSorts().sort(Sort.builder().field("id").direction(Sort.Direction.ASC).build());
+        return PageIterator.cursor(
+            (after, limit) -> {
+              if (after != null) {
+                clearFilterConditions();
+                if (filterConditions.isEmpty()) {
+                  filterConditions(FilterCondition.greaterThan("id", after.getId()));
+                } else {
+                  filterConditions(
+                      FilterCondition.and(
+                          filterConditions, FilterCondition.greaterThan("id", after.getId())));
+                }
+              }
+              CompletableFuture<List<User>> page =
+                  offset(null).limit(limit).requestFuture().thenApply(UserListResponse::getUsers);
+              // The call is built by now: give the request its own filter conditions back
+              clearFilterConditions().filterConditions(filterConditions);
+              return page;
+            },
+            pageSize,
+            readAhead);
+      }
+
+      @NotNull
+      public PageIterator<User> iterator() {
+        return iterator(DEFAULT_PAGE_SIZE, 1);
+      }
+
+      @NotNull
+      public Stream<User> stream(int pageSize, int readAhead) {
+        return iterator(pageSize, readAhead).stream();
+      }
+
+      @NotNull
+      public Stream<User> stream() {
+        return iterator().stream();
+      }
     }
   }
 
@@ -0,0 +1,420 @@
+package io.getstream.chat.java.models.framework;
+
+import io.getstream.chat.java.models.Message;
+import io.getstream.chat.java.models.User;
+import io.getstream.chat.java.services.framework.Client;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Collects single lookups by key, coming from any number of threads, and loads them with one
+ * request per batch, the way DataLoader does.
+ *
+ * <p>A batch is sent once it reaches {@code maxBatchSize} keys, or {@code window} after its first
+ * key. Keys are grouped by partition, a batch only contains keys of the same partition: the
+ * channel for messages for instance. Lookups of a key already pending or in flight share its
+ * result. Keys missing from the batch result complete with null.
+ *
+ * <pre>{@code
+ * var userLoader = BatchLoader.users().window(Duration.ofMillis(5)).build();
+ * CompletableFuture<User> user = userLoader.load(userId);
+ *
+ * var messageLoader = BatchLoader.messages().build();
+ * CompletableFuture<Message> message =
+ *     messageLoader.load(new MessageKey(channelType, channelId, messageId));
+ * }</pre>
+ *
+ * @param <K> the key type
+ * @param <V> the loaded value type
+ */
+public class BatchLoader<K, V> implements AutoCloseable {
+  /** The maximum number of users or messages requested at once */
+  public static final int MAX_BATCH_SIZE = 100;
+
+  /** Loads the values of a batch of keys, all from the same partition */
+  @FunctionalInterface
+  public interface BatchFunction<K, V> {
+    /**
+     * @param keys the distinct keys to load
+     * @return a future completing with the found values by key
+     */
+    @NotNull
+    CompletableFuture<Map<K, V>> load(@NotNull List<K> keys);
+  }
+
+  @NotNull private final BatchFunction<K, V> batchFunction;
+  @NotNull private final Function<? super K, ?> partitioner;
+  private final int maxBatchSize;
+  private final long windowNanos;
+  @NotNull private final ScheduledExecutorService scheduler;
+
+  private final Object lock = new Object();
+  @NotNull private final Map<Object, PendingBatch<K, V>> pendingBatches = new HashMap<>();
+  @NotNull private final Map<K, CompletableFuture<V>> inFlight = new HashMap<>();
+  private boolean closed;
+
+  private final LongAdder requestedKeys = new LongAdder();
+  private final LongAdder sharedKeys = new LongAdder();
+  private final LongAdder sentBatches = new LongAdder();
+  private final LongAdder failedBatches = new LongAdder();
+
+  private BatchLoader(@NotNull Builder<K, V> builder) {
+    this.batchFunction = builder.batchFunction;
+    this.partitioner = builder.partitioner;
+    this.maxBatchSize = builder.maxBatchSize;
+    this.windowNanos = builder.window.toNanos();
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "stream-chat-batch-loader");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Creates a builder for a custom loader
+   *
+   * @param batchFunction loads a batch of keys
+   * @return the builder
+   */
+  @NotNull
+  public static <K, V> Builder<K, V> builder(@NotNull BatchFunction<K, V> batchFunction) {
+    return new Builder<>(batchFunction, Integer.MAX_VALUE);
+  }
+
+  /** @return a builder for a loader of users by id, using one {@link User#list()} per batch */
+  @NotNull
+  public static Builder<String, User> users() {
+    return users(null);
+  }
+
+  /**
+   * Creates a builder for a loader of users by id, using one {@link User#list()} with an {@code
+   * $in} filter per batch
+   *
+   * @param client the client sending the requests, or null for the default one
+   * @return the builder
+   */
+  @NotNull
+  public static Builder<String, User> users(@Nullable Client client) {
+    return new Builder<>(
+        (List<String> userIds) -> {
+          StreamRequest<User.UserListResponse> request =
+              User.list()
+                  .filterCondition("id", Map.of("$in", userIds))
+                  .limit(userIds.size());
+          if (client != null) {
+            request.withClient(client);
+          }
+          return request
+              .requestFuture()
+              .thenApply(
+                  response -> {
+                    Map<String, User> users = new HashMap<>();
+                    response.getUsers().forEach(user -> users.put(user.getId(), user));
+                    return users;
+                  });
+        },
+        MAX_BATCH_SIZE);
+  }
+
+  /**
+   * @return a builder for a loader of messages by channel and id, using one {@link
+   *     Message#getMany(String, String, List)} per channel and batch
+   */
+  @NotNull
+  public static Builder<MessageKey, Message> messages() {
+    return messages(null);
+  }
+
+  /**
+   * Creates a builder for a loader of messages by channel and id, using one {@link
+   * Message#getMany(String, String, List)} per channel and batch
+   *
+   * @param client the client sending the requests, or null for the default one
+   * @return the builder
+   */
+  @NotNull
+  public static Builder<MessageKey, Message> messages(@Nullable Client client) {
+    return new Builder<MessageKey, Message>(
+            (List<MessageKey> keys) -> {
+              MessageKey first = keys.get(0);
+              List<String> messageIds = new ArrayList<>(keys.size());
+              keys.forEach(key -> messageIds.add(key.getMessageId()));
+              StreamRequest<Message.MessageGetManyResponse> request =
+                  Message.getMany(first.getChannelType(), first.getChannelId(), messageIds);
+              if (client != null) {
+                request.withClient(client);
+              }
+              return request
+                  .requestFuture()
+                  .thenApply(
+                      response -> {
+                        Map<MessageKey, Message> messages = new HashMap<>();
+                        response
+                            .getMessages()
+                            .forEach(
+                                message ->
+                                    messages.put(
+                                        new MessageKey(
+                                            first.getChannelType(),
+                                            first.getChannelId(),
+                                            message.getId()),
+                                        message));
+                        return messages;
+                      });
+            },
+            MAX_BATCH_SIZE)
+        .partitionBy(key -> key.getChannelType() + ":" + key.getChannelId());
+  }
+
+  /**
+   * Loads the value of a key
+   *
+   * @param key the key
+   * @return a future completing with the value, null when the batch result does not contain the
+   *     key, or failing with the error of the batch
+   */
+  @NotNull
+  public CompletableFuture<V> load(@NotNull K key) {
+    PendingBatch<K, V> fullBatch = null;
+    CompletableFuture<V> future;
+    synchronized (lock) {
+      if (closed) {
+        throw new IllegalStateException("The loader is closed");
+      }
+      requestedKeys.increment();
+      future = inFlight.get(key);
+      if (future != null) {
+        sharedKeys.increment();
+        // Copies keep a caller cancelling its future from failing the other callers
+        return future.copy();
+      }
+      Object partition = partitioner.apply(key);
+      PendingBatch<K, V> batch = pendingBatches.get(partition);
+      if (batch == null) {
+        batch = new PendingBatch<>(partition);
+        pendingBatches.put(partition, batch);
+        PendingBatch<K, V> scheduledBatch = batch;
+        batch.scheduledFlush =
+            scheduler.schedule(() -> flush(scheduledBatch), windowNanos, TimeUnit.NANOSECONDS);
+      }
+      future = new CompletableFuture<>();
+      batch.futures.put(key, future);
+      inFlight.put(key, future);
+      if (batch.futures.size() >= maxBatchSize) {
+        pendingBatches.remove(partition);
+        batch.scheduledFlush.cancel(false);
+        fullBatch = batch;
+      }
+    }
+    if (fullBatch != null) {
+      send(fullBatch);
+    }
+    return future.copy();
+  }
+
+  /** Sends all the pending batches without waiting for their window to end */
+  public void flush() {
+    List<PendingBatch<K, V>> batches;
+    synchronized (lock) {
+      batches = new ArrayList<>(pendingBatches.values());
+      pendingBatches.clear();
+    }
+    for (PendingBatch<K, V> batch : batches) {
+      batch.scheduledFlush.cancel(false);
+      send(batch);
+    }
+  }
+
+  /** Rejects new lookups and sends the pending batches */
+  @Override
+  public void close() {
+    synchronized (lock) {
+      closed = true;
+    }
+    flush();
+    scheduler.shutdown();
+  }
+
+  /** @return the number of lookups */
+  public long getRequestedCount() {
+    return requestedKeys.sum();
+  }
+
+  /** @return the number of lookups sharing the result of a pending or in flight lookup */
+  public long getSharedCount() {
+    return sharedKeys.sum();
+  }
+
+  /** @return the number of requests sent */
+  public long getBatchCount() {
+    return sentBatches.sum();
+  }
+
+  /** @return the number of requests that failed, failing all of their lookups */
+  public long getFailedBatchCount() {
+    return failedBatches.sum();
+  }
+
+  private void flush(@NotNull PendingBatch<K, V> batch) {
+    synchronized (lock) {
+      // The batch may have been sent in the meantime because it was full
+      if (!pendingBatches.remove(batch.partition, batch)) {
+        return;
+      }
+    }
+    send(batch);
+  }
+
+  private void send(@NotNull PendingBatch<K, V> batch) {
+    List<K> keys = new ArrayList<>(batch.futures.keySet());
+    CompletableFuture<Map<K, V>> result;
+    try {
+      result = batchFunction.load(keys);
+    } catch (RuntimeException e) {
+      result = CompletableFuture.failedFuture(e);
+    }
+    sentBatches.increment();
+    result.whenComplete(
+        (values, error) -> {
+          synchronized (lock) {
+            batch.futures.forEach(inFlight::remove);
+          }
+          if (error != null) {
+            failedBatches.increment();
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            batch.futures.values().forEach(future -> future.completeExceptionally(cause));
+          } else {
+            batch.futures.forEach((key, future) -> future.complete(values.get(key)));
+          }
+        });
+  }
+
+  /** Identifies a message for {@link #messages()} loaders */
+  public static final class MessageKey {
+    @NotNull private final String channelType;
+    @NotNull private final String channelId;
+    @NotNull private final String messageId;
+
+    public MessageKey(
+        @NotNull String channelType, @NotNull String channelId, @NotNull String messageId) {
+      this.channelType = channelType;
+      this.channelId = channelId;
+      this.messageId = messageId;
+    }
+
+    @NotNull
+    public String getChannelType() {
+      return channelType;
+    }
+
+    @NotNull
+    public String getChannelId() {
+      return channelId;
+    }
+
+    @NotNull
+    public String getMessageId() {
+      return messageId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof MessageKey)) {
+        return false;
+      }
+      MessageKey other = (MessageKey) o;
+      return messageId.equals(other.messageId)
+          && channelId.equals(other.channelId)
+          && channelType.equals(other.channelType);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(channelType, channelId, messageId);
+    }
+
+    @Override
+    public String toString() {
+      return channelType + ":" + channelId + "/" + messageId;
+    }
+  }
+
+  private static class PendingBatch<K, V> {
+    @NotNull private final Object partition;
+    @NotNull private final Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    PendingBatch(@NotNull Object partition) {
+      this.partition = partition;
+    }
+  }
+
+  public static class Builder<K, V> {
+    @NotNull private final BatchFunction<K, V> batchFunction;
+    @NotNull private Function<? super K, ?> partitioner = key -> Boolean.TRUE;
+    private final int batchSizeLimit;
+    private int maxBatchSize = MAX_BATCH_SIZE;
+    @NotNull private Duration window = Duration.ofMillis(5);
+
+    private Builder(@NotNull BatchFunction<K, V> batchFunction, int batchSizeLimit) {
+      this.batchFunction = batchFunction;
+      this.batchSizeLimit = batchSizeLimit;
+    }
+
+    /** Only batches together keys of the same partition, all keys share one by default */
+    @NotNull
+    public Builder<K, V> partitionBy(@NotNull Function<? super K, ?> partitioner) {
+      this.partitioner = partitioner;
+      return this;
+    }
+
+    /**
+     * The maximum number of keys per batch, {@link #MAX_BATCH_SIZE} by default. The built-in users
+     * and messages loaders cap it to {@link #MAX_BATCH_SIZE}, the most the API returns at once.
+     */
+    @NotNull
+    public Builder<K, V> maxBatchSize(int maxBatchSize) {
+      if (maxBatchSize <= 0) {
+        throw new IllegalArgumentException("maxBatchSize should be positive");
+      }
+      this.maxBatchSize = Math.min(maxBatchSize, batchSizeLimit);
+      return this;
+    }
+
+    /** How long a batch waits for more keys after its first one, 5ms by default */
+    @NotNull
+    public Builder<K, V> window(@NotNull Duration window) {
+      if (window.isNegative()) {
+        throw new IllegalArgumentException("window cannot be negative");
+      }
+      this.window = window;
+      return this;
+    }
+
+    @NotNull
+    public BatchLoader<K, V> build() {
+      return new BatchLoader<>(this);
+    }
+  }
+}
@@ -0,0 +1,539 @@
+package io.getstream.chat.java.models.framework;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.getstream.chat.java.exceptions.StreamException;
+import io.getstream.chat.java.models.Event.EventUserCustomRequestObject;
+import io.getstream.chat.java.models.Message;
+import io.getstream.chat.java.models.Message.MessageRequestObject;
+import io.getstream.chat.java.models.Message.MessageSendRequestData;
+import io.getstream.chat.java.models.Message.MessageSendRequestData.MessageSendRequest;
+import io.getstream.chat.java.models.Message.MessageSendResponse;
+import io.getstream.chat.java.models.RateLimit;
+import io.getstream.chat.java.services.EventService;
+import io.getstream.chat.java.services.MessageService;
+import io.getstream.chat.java.services.framework.Client;
+import io.getstream.chat.java.services.framework.JsonCodec;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.ByteString;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import retrofit2.Call;
+
+/**
+ * Sends the same message to many channels, or the same custom event to many users.
+ *
+ * <p>The message or event is serialized once, into an immutable buffer shared by all the
+ * requests, so the serialization cost does not grow with the number of targets. At most {@code
+ * maxConcurrentRequests} requests run at a time, across all the broadcasts of the broadcaster.
+ * Requests go through the client rate limiter, when it has one. A request rejected with a 429
+ * pauses the broadcasts until the rate limit resets, plus jitter, then is sent again, at most
+ * {@code maxRateLimitedAttempts} times. Without a reset time, the pause follows an exponential
+ * backoff, which grows once per pause rather than once per rejected request.
+ *
+ * <pre>{@code
+ * var broadcaster = Broadcaster.builder().maxConcurrentRequests(32).build();
+ * broadcaster
+ *     .sendMessage(cids, MessageRequestObject.builder().text(text).userId(botId).build(), true)
+ *     .thenAccept(result -> result.getFailures().forEach(this::logFailure));
+ * }</pre>
+ */
+public class Broadcaster {
+  private static final MediaType JSON = MediaType.parse("application/json; charset=UTF-8");
+  private static final ByteString EVENT_PREFIX = ByteString.encodeUtf8("{\"event\":");
+  private static final long MIN_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+  // Stream API rate limits are enforced over one minute windows
+  private static final long MAX_BACKOFF_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  @Nullable private final Client client;
+  private final int maxConcurrentRequests;
+  private final int maxRateLimitedAttempts;
+
+  private final Object lock = new Object();
+  // Guarded by the lock
+  @NotNull private final ArrayDeque<Target<?>> pendingTargets = new ArrayDeque<>();
+  private int runningCount;
+  private long backoffNanos;
+  private long pauseStartedNanos = System.nanoTime();
+  private long pausedUntilNanos = pauseStartedNanos;
+  private boolean resumeScheduled;
+
+  private final LongAdder sent = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder rateLimited = new LongAdder();
+
+  private Broadcaster(@NotNull Builder builder) {
+    this.client = builder.client;
+    this.maxConcurrentRequests = builder.maxConcurrentRequests;
+    this.maxRateLimitedAttempts = builder.maxRateLimitedAttempts;
+  }
+
+  @NotNull
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Sends a message to every channel. Duplicate cids are sent the message once.
+   *
+   * @param cids the cids of the channels, like messaging:general
+   * @param message the message
+   * @param skipPush whether to skip push notifications
+   * @return a future result, completing once every channel got its response
+   */
+  @NotNull
+  public CompletableFuture<BroadcastResult<MessageSendResponse>> sendMessage(
+      @NotNull Collection<String> cids, @NotNull MessageRequestObject message, boolean skipPush) {
+    var channels = new LinkedHashSet<>(cids);
+    if (channels.isEmpty()) {
+      return CompletableFuture.completedFuture(new BroadcastResult<>(Map.of(), Map.of()));
+    }
+    for (String cid : channels) {
+      checkCid(cid);
+    }
+    ByteString body;
+    try {
+      String firstCid = channels.iterator().next();
+      int separator = firstCid.indexOf(':');
+      MessageSendRequest request =
+          Message.send(firstCid.substring(0, separator), firstCid.substring(separator + 1))
+              .message(message);
+      if (skipPush) {
+        request.skipPush(true);
+      }
+      body = serialize(MessageSendRequestData.class, request.internalBuild());
+    } catch (JsonProcessingException e) {
+      return CompletableFuture.failedFuture(StreamException.build(e));
+    }
+    var sharedBody = new SharedJsonBody(body);
+    return broadcast(
+        channels,
+        cid -> {
+          int separator = cid.indexOf(':');
+          return new SerializedRequest<>(
+              client ->
+                  client
+                      .create(MessageService.class)
+                      .send(cid.substring(0, separator), cid.substring(separator + 1), sharedBody));
+        });
+  }
+
+  /**
+   * Sends a custom event to every user. Duplicate ids are sent the event once.
+   *
+   * @param userIds the ids of the users
+   * @param event the event
+   * @return a future result, completing once every user got its response
+   */
+  @NotNull
+  public CompletableFuture<BroadcastResult<StreamResponseObject>> sendUserCustomEvent(
+      @NotNull Collection<String> userIds, @NotNull EventUserCustomRequestObject event) {
+    var users = new LinkedHashSet<>(userIds);
+    if (users.isEmpty()) {
+      return CompletableFuture.completedFuture(new BroadcastResult<>(Map.of(), Map.of()));
+    }
+    // The event is shared, only the target user id is written for every request
+    ByteString serializedEvent;
+    try {
+      serializedEvent = serialize(EventUserCustomRequestObject.class, event);
+    } catch (JsonProcessingException e) {
+      return CompletableFuture.failedFuture(StreamException.build(e));
+    }
+    JsonCodec jsonCodec = getClient().getJsonCodec();
+    return broadcast(
+        users,
+        userId -> {
+          ByteString suffix;
+          try {
+            suffix =
+                ByteString.encodeUtf8(
+                    ",\"target_user_id\":" + jsonCodec.writeValueAsString(userId) + "}");
+          } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid user id: " + userId, e);
+          }
+          var body = new SharedJsonBody(EVENT_PREFIX, serializedEvent, suffix);
+          return new SerializedRequest<>(
+              client -> client.create(EventService.class).sendUserCustom(userId, body));
+        });
+  }
+
+  /** @return the number of requests waiting for a slot, or for the end of a rate limit pause */
+  public int getQueuedCount() {
+    synchronized (lock) {
+      return pendingTargets.size();
+    }
+  }
+
+  /** @return the number of requests running */
+  public int getRunningCount() {
+    synchronized (lock) {
+      return runningCount;
+    }
+  }
+
+  /** @return the number of successful requests */
+  public long getSentCount() {
+    return sent.sum();
+  }
+
+  /** @return the number of targets that failed */
+  public long getFailedCount() {
+    return failed.sum();
+  }
+
+  /** @return the number of requests rejected with a 429, sent again or not */
+  public long getRateLimitedCount() {
+    return rateLimited.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "Broadcaster(running="
+        + getRunningCount()
+        + ", queued="
+        + getQueuedCount()
+        + ", sent="
+        + getSentCount()
+        + ", failed="
+        + getFailedCount()
+        + ", rateLimited="
+        + getRateLimitedCount()
+        + ")";
+  }
+
+  @NotNull
+  private <T extends StreamResponse> CompletableFuture<BroadcastResult<T>> broadcast(
+      @NotNull Collection<String> keys,
+      @NotNull Function<String, SerializedRequest<T>> requestFactory) {
+    var broadcast = new Broadcast<T>(keys.size());
+    List<Runnable> started;
+    synchronized (lock) {
+      for (String key : keys) {
+        pendingTargets.add(new Target<>(key, broadcast, requestFactory));
+      }
+      started = drain();
+    }
+    started.forEach(Runnable::run);
+    return broadcast.future;
+  }
+
+  private <T extends StreamResponse> void start(@NotNull Target<T> target) {
+    CompletableFuture<T> response;
+    try {
+      SerializedRequest<T> request = target.requestFactory.apply(target.key);
+      if (client != null) {
+        request.withClient(client);
+      }
+      response = request.requestFuture();
+    } catch (RuntimeException e) {
+      response = CompletableFuture.failedFuture(StreamException.build(e));
+    }
+    response.whenComplete((value, throwable) -> complete(target, value, throwable));
+  }
+
+  private <T extends StreamResponse> void complete(
+      @NotNull Target<T> target, @Nullable T response, @Nullable Throwable throwable) {
+    boolean retried = false;
+    List<Runnable> started;
+    synchronized (lock) {
+      runningCount--;
+      if (throwable == null) {
+        backoffNanos = 0;
+      } else if (isRateLimited(throwable)) {
+        rateLimited.increment();
+        long now = System.nanoTime();
+        // The requests sent before the current pause hit the same limit, only a request sent
+        // since then grows the backoff
+        boolean escalated = backoffNanos == 0 || target.startedNanos - pauseStartedNanos >= 0;
+        if (escalated) {
+          backoffNanos =
+              backoffNanos == 0 ? MIN_BACKOFF_NANOS : Math.min(MAX_BACKOFF_NANOS, backoffNanos * 2);
+          pauseStartedNanos = now;
+        }
+        // The other requests would hit the same limit: all of them wait
+        Long untilResetNanos = getUntilResetNanos(throwable);
+        if (untilResetNanos != null) {
+          pausedUntilNanos = Math.max(pausedUntilNanos, now + untilResetNanos);
+        } else if (escalated) {
+          pausedUntilNanos = Math.max(pausedUntilNanos, now + backoffNanos);
+        }
+        if (++target.rateLimitedAttempts < maxRateLimitedAttempts) {
+          pendingTargets.addFirst(target);
+          retried = true;
+        }
+      }
+      started = drain();
+    }
+    if (!retried) {
+      (throwable == null ? sent : failed).increment();
+      target.broadcast.complete(target.key, response, throwable);
+    }
+    started.forEach(Runnable::run);
+  }
+
+  /** Takes the targets to send, while not paused. They are started out of the lock. */
+  @NotNull
+  private List<Runnable> drain() {
+    if (pendingTargets.isEmpty()) {
+      return Collections.emptyList();
+    }
+    long pauseNanos = pausedUntilNanos - System.nanoTime();
+    if (pauseNanos > 0) {
+      if (!resumeScheduled) {
+        resumeScheduled = true;
+        CompletableFuture.runAsync(
+            this::resume, CompletableFuture.delayedExecutor(pauseNanos, TimeUnit.NANOSECONDS));
+      }
+      return Collections.emptyList();
+    }
+    List<Runnable> started = new ArrayList<>();
+    long now = System.nanoTime();
+    while (runningCount < maxConcurrentRequests && !pendingTargets.isEmpty()) {
+      Target<?> target = pendingTargets.poll();
+      target.startedNanos = now;
+      runningCount++;
+      started.add(() -> start(target));
+    }
+    return started;
+  }
+
+  private void resume() {
+    List<Runnable> started;
+    synchronized (lock) {
+      resumeScheduled = false;
+      started = drain();
+    }
+    started.forEach(Runnable::run);
+  }
+
+  @NotNull
+  private ByteString serialize(@NotNull Class<?> type, @NotNull Object value)
+      throws JsonProcessingException {
+    return ByteString.of(getClient().getJsonCodec().writerFor(type).writeValueAsBytes(value));
+  }
+
+  @NotNull
+  private Client getClient() {
+    return client != null ? client : Client.getInstance();
+  }
+
+  private static boolean isRateLimited(@NotNull Throwable throwable) {
+    StreamException.ResponseData responseData = getResponseData(throwable);
+    return responseData != null && Integer.valueOf(429).equals(responseData.getStatusCode());
+  }
+
+  /** @return the time until the rate limit of a 429 resets, plus jitter, or null when unknown */
+  @Nullable
+  private static Long getUntilResetNanos(@NotNull Throwable throwable) {
+    StreamException.ResponseData responseData = getResponseData(throwable);
+    RateLimit rateLimit = responseData != null ? responseData.getRateLimit() : null;
+    if (rateLimit == null || rateLimit.getReset() == null) {
+      return null;
+    }
+    long untilResetMillis = rateLimit.getReset().getTime() - System.currentTimeMillis();
+    // The reset is rounded to the second, the jitter keeps the clients from resuming all at once
+    long jitterNanos = ThreadLocalRandom.current().nextLong(MIN_BACKOFF_NANOS);
+    return Math.min(
+        MAX_BACKOFF_NANOS,
+        TimeUnit.MILLISECONDS.toNanos(Math.max(0, untilResetMillis)) + jitterNanos);
+  }
+
+  @Nullable
+  private static StreamException.ResponseData getResponseData(@NotNull Throwable throwable) {
+    Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+    return cause instanceof StreamException ? ((StreamException) cause).getResponseData() : null;
+  }
+
+  private static void checkCid(@NotNull String cid) {
+    int separator = cid.indexOf(':');
+    if (separator <= 0 || separator == cid.length() - 1) {
+      throw new IllegalArgumentException("Invalid cid: " + cid);
+    }
+  }
+
+  /** The outcome of a broadcast, by target */
+  public static class BroadcastResult<T> {
+    @NotNull private final Map<String, T> responses;
+    @NotNull private final Map<String, StreamException> failures;
+
+    private BroadcastResult(
+        @NotNull Map<String, T> responses, @NotNull Map<String, StreamException> failures) {
+      this.responses = Collections.unmodifiableMap(responses);
+      this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /** @return the responses of the successful targets, by cid or user id */
+    @NotNull
+    public Map<String, T> getResponses() {
+      return responses;
+    }
+
+    /** @return the errors of the failed targets, by cid or user id */
+    @NotNull
+    public Map<String, StreamException> getFailures() {
+      return failures;
+    }
+
+    public boolean isSuccessful() {
+      return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+      return "BroadcastResult(sent=" + responses.size() + ", failed=" + failures.size() + ")";
+    }
+  }
+
+  /** A JSON body made of shared immutable parts, written as is for every request */
+  private static class SharedJsonBody extends RequestBody {
+    @NotNull private final ByteString[] parts;
+    private final long contentLength;
+
+    SharedJsonBody(@NotNull ByteString... parts) {
+      this.parts = parts;
+      long length = 0;
+      for (ByteString part : parts) {
+        length += part.size();
+      }
+      this.contentLength = length;
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+      return JSON;
+    }
+
+    @Override
+    public long contentLength() {
+      return contentLength;
+    }
+
+    @Override
+    public void writeTo(@NotNull BufferedSink sink) throws IOException {
+      for (ByteString part : parts) {
+        sink.write(part);
+      }
+    }
+  }
+
+  private static class SerializedRequest<T extends StreamResponse> extends StreamRequest<T> {
+    @NotNull private final Function<Client, Call<T>> callFactory;
+
+    SerializedRequest(@NotNull Function<Client, Call<T>> callFactory) {
+      this.callFactory = callFactory;
+    }
+
+    @Override
+    protected Call<T> generateCall(Client client) {
+      return callFactory.apply(client);
+    }
+  }
+
+  private static class Broadcast<T> {
+    @NotNull private final Map<String, T> responses = new ConcurrentHashMap<>();
+    @NotNull private final Map<String, StreamException> failures = new ConcurrentHashMap<>();
+    @NotNull private final AtomicInteger remaining;
+    @NotNull private final CompletableFuture<BroadcastResult<T>> future = new CompletableFuture<>();
+
+    Broadcast(int targetCount) {
+      this.remaining = new AtomicInteger(targetCount);
+    }
+
+    void complete(@NotNull String key, @Nullable T response, @Nullable Throwable throwable) {
+      if (throwable != null) {
+        Throwable cause =
+            throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause()
+                : throwable;
+        failures.put(
+            key,
+            cause instanceof StreamException
+                ? (StreamException) cause
+                : StreamException.build(cause));
+      } else if (response != null) {
+        responses.put(key, response);
+      }
+      if (remaining.decrementAndGet() == 0) {
+        future.complete(new BroadcastResult<>(responses, failures));
+      }
+    }
+  }
+
+  private static class Target<T extends StreamResponse> {
+    @NotNull private final String key;
+    @NotNull private final Broadcast<T> broadcast;
+    @NotNull private final Function<String, SerializedRequest<T>> requestFactory;
+    private int rateLimitedAttempts;
+    private long startedNanos;
+
+    Target(
+        @NotNull String key,
+        @NotNull Broadcast<T> broadcast,
+        @NotNull Function<String, SerializedRequest<T>> requestFactory) {
+      this.key = key;
+      this.broadcast = broadcast;
+      this.requestFactory = requestFactory;
+    }
+  }
+
+  public static class Builder {
+    @Nullable private Client client;
+    private int maxConcurrentRequests = 16;
+    private int maxRateLimitedAttempts = 3;
+
+    private Builder() {}
+
+    @NotNull
+    public Builder client(@NotNull Client client) {
+      this.client = client;
+      return this;
+    }
+
+    @NotNull
+    public Builder maxConcurrentRequests(int maxConcurrentRequests) {
+      if (maxConcurrentRequests <= 0) {
+        throw new IllegalArgumentException("maxConcurrentRequests should be positive");
+      }
+      this.maxConcurrentRequests = maxConcurrentRequests;
+      return this;
+    }
+
+    /**
+     * Sets how many times a target is sent when rejected with a 429, 3 by default
+     *
+     * @param maxRateLimitedAttempts the number of attempts, 1 to never send again
+     * @return the builder
+     */
+    @NotNull
+    public Builder maxRateLimitedAttempts(int maxRateLimitedAttempts) {
+      if (maxRateLimitedAttempts <= 0) {
+        throw new IllegalArgumentException("maxRateLimitedAttempts should be positive");
+      }
+      this.maxRateLimitedAttempts = maxRateLimitedAttempts;
+      return this;
+    }
+
+    @NotNull
+    public Broadcaster build() {
+      return new Broadcaster(this);
+    }
+  }
+}
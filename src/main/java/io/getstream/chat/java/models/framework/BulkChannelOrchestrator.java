@@ -0,0 +1,530 @@
+package io.getstream.chat.java.models.framework;
+
+import io.getstream.chat.java.exceptions.StreamException;
+import io.getstream.chat.java.models.Channel;
+import io.getstream.chat.java.models.DeleteStrategy;
+import io.getstream.chat.java.models.TaskStatus;
+import io.getstream.chat.java.models.TaskStatus.TaskStatusGetResponse;
+import io.getstream.chat.java.services.framework.Client;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Deletes or truncates many channels.
+ *
+ * <p>Deletions are sent in chunks of {@code chunkSize} cids, each chunk creating an asynchronous
+ * task on the API. At most {@code maxRunningTasks} tasks run at a time, the other chunks wait.
+ * The status of the running tasks is polled on a single shared thread: a task is polled after
+ * {@code minPollInterval}, then less and less often while it keeps running, up to {@code
+ * maxPollInterval}.
+ *
+ * <p>The API has no bulk truncation, so channels are truncated one request at a time, with at
+ * most {@code maxConcurrentTruncations} requests running.
+ *
+ * <p>Both return a future completing once every channel is processed, with the failures by cid.
+ *
+ * <pre>{@code
+ * var orchestrator = BulkChannelOrchestrator.builder().maxRunningTasks(4).build();
+ * orchestrator
+ *     .delete(cidsToPurge, DeleteStrategy.HARD)
+ *     .thenAccept(result -> result.getFailures().forEach(this::logFailure));
+ * }</pre>
+ */
+public class BulkChannelOrchestrator implements AutoCloseable {
+  // Transient failures of a status request tolerated before giving up on the task
+  private static final int MAX_POLL_FAILURES = 5;
+  private static final double POLL_BACKOFF_MULTIPLIER = 1.5;
+
+  @Nullable private final Client client;
+  private final int chunkSize;
+  private final long minPollIntervalNanos;
+  private final long maxPollIntervalNanos;
+  @NotNull private final ScheduledExecutorService scheduler;
+  @NotNull private final Slots taskSlots;
+  @NotNull private final Slots truncationSlots;
+
+  private final Object lock = new Object();
+  // Guarded by the lock
+  private int runningOperations;
+
+  private final LongAdder completedTasks = new LongAdder();
+  private final LongAdder failedTasks = new LongAdder();
+  private final LongAdder polls = new LongAdder();
+
+  private BulkChannelOrchestrator(@NotNull Builder builder) {
+    this.client = builder.client;
+    this.chunkSize = builder.chunkSize;
+    this.minPollIntervalNanos = builder.minPollInterval.toNanos();
+    this.maxPollIntervalNanos = Math.max(minPollIntervalNanos, builder.maxPollInterval.toNanos());
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "stream-chat-bulk-channels");
+              thread.setDaemon(true);
+              return thread;
+            });
+    this.taskSlots = new Slots(builder.maxRunningTasks);
+    this.truncationSlots = new Slots(builder.maxConcurrentTruncations);
+  }
+
+  @NotNull
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Deletes channels, chunk by chunk. Duplicate cids are deleted once.
+   *
+   * @param cids the cids of the channels
+   * @param deleteStrategy whether to soft or hard delete the channels
+   * @return a future result, completing once every task has completed or failed
+   */
+  @NotNull
+  public CompletableFuture<BulkResult> delete(
+      @NotNull Collection<String> cids, @NotNull DeleteStrategy deleteStrategy) {
+    List<String> distinctCids = new ArrayList<>(new LinkedHashSet<>(cids));
+    var operation = startOperation(distinctCids.size());
+    for (int start = 0; start < distinctCids.size(); start += chunkSize) {
+      List<String> chunk =
+          distinctCids.subList(start, Math.min(distinctCids.size(), start + chunkSize));
+      taskSlots.submit(() -> startTask(operation, chunk, deleteStrategy));
+    }
+    return operation.future;
+  }
+
+  /**
+   * Truncates channels. Duplicate cids are truncated once.
+   *
+   * @param cids the cids of the channels
+   * @param hardDelete whether to hard delete the messages
+   * @param skipPush whether to skip the push notifications of the truncation
+   * @return a future result, completing once every channel got its response
+   */
+  @NotNull
+  public CompletableFuture<BulkResult> truncate(
+      @NotNull Collection<String> cids, boolean hardDelete, boolean skipPush) {
+    var distinctCids = new LinkedHashSet<>(cids);
+    var operation = startOperation(distinctCids.size());
+    for (String cid : distinctCids) {
+      truncationSlots.submit(() -> startTruncation(operation, cid, hardDelete, skipPush));
+    }
+    return operation.future;
+  }
+
+  /** @return the number of deletion tasks created and not completed yet */
+  public int getRunningTaskCount() {
+    return taskSlots.getRunningCount();
+  }
+
+  /** @return the number of chunks waiting for a task slot */
+  public int getQueuedChunkCount() {
+    return taskSlots.getWaitingCount();
+  }
+
+  public long getCompletedTaskCount() {
+    return completedTasks.sum();
+  }
+
+  public long getFailedTaskCount() {
+    return failedTasks.sum();
+  }
+
+  /** @return the number of task status requests sent */
+  public long getPollCount() {
+    return polls.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "BulkChannelOrchestrator(runningTasks="
+        + getRunningTaskCount()
+        + ", queuedChunks="
+        + getQueuedChunkCount()
+        + ", completedTasks="
+        + getCompletedTaskCount()
+        + ", failedTasks="
+        + getFailedTaskCount()
+        + ", polls="
+        + getPollCount()
+        + ")";
+  }
+
+  /**
+   * Waits for the running deletions and truncations, then stops the polling thread
+   *
+   * @throws InterruptedException if interrupted while waiting
+   */
+  @Override
+  public void close() throws InterruptedException {
+    synchronized (lock) {
+      while (runningOperations > 0) {
+        lock.wait();
+      }
+    }
+    scheduler.shutdown();
+  }
+
+  @NotNull
+  private Operation startOperation(int cidCount) {
+    synchronized (lock) {
+      runningOperations++;
+    }
+    var operation = new Operation(cidCount);
+    operation.future.whenComplete(
+        (result, throwable) -> {
+          synchronized (lock) {
+            runningOperations--;
+            lock.notifyAll();
+          }
+        });
+    if (cidCount == 0) {
+      operation.future.complete(new BulkResult(0, Map.of()));
+    }
+    return operation;
+  }
+
+  private void startTask(
+      @NotNull Operation operation,
+      @NotNull List<String> chunk,
+      @NotNull DeleteStrategy deleteStrategy) {
+    requestFuture(
+            () -> Channel.deleteMany(new ArrayList<>(chunk)).setDeleteStrategy(deleteStrategy))
+        .whenComplete(
+            (response, throwable) -> {
+              if (throwable != null) {
+                finishTask(operation, chunk, toStreamException(throwable));
+              } else if (response.getTaskId() == null) {
+                finishTask(operation, chunk, StreamException.build("No task id was returned"));
+              } else {
+                var task = new Task(operation, chunk, response.getTaskId());
+                schedulePoll(task, minPollIntervalNanos);
+              }
+            });
+  }
+
+  private void schedulePoll(@NotNull Task task, long delayNanos) {
+    task.pollIntervalNanos = delayNanos;
+    scheduler.schedule(() -> poll(task), delayNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private void poll(@NotNull Task task) {
+    polls.increment();
+    requestFuture(() -> TaskStatus.get(task.taskId))
+        .whenComplete(
+            (response, throwable) -> {
+              long nextIntervalNanos =
+                  Math.min(
+                      maxPollIntervalNanos,
+                      (long) (task.pollIntervalNanos * POLL_BACKOFF_MULTIPLIER));
+              if (throwable != null) {
+                if (++task.pollFailures >= MAX_POLL_FAILURES) {
+                  finishTask(task.operation, task.cids, toStreamException(throwable));
+                } else {
+                  schedulePoll(task, nextIntervalNanos);
+                }
+                return;
+              }
+              task.pollFailures = 0;
+              String status = response.getStatus();
+              if ("completed".equals(status) || "ok".equals(status)) {
+                completedTasks.increment();
+                task.operation.complete(task.cids, getCidFailures(task.cids, response));
+                taskSlots.release();
+              } else if ("failed".equals(status) || "error".equals(status)) {
+                finishTask(
+                    task.operation,
+                    task.cids,
+                    StreamException.build(
+                        String.format(
+                            "Task %s failed: %s", task.taskId, response.getResult())));
+              } else {
+                schedulePoll(task, nextIntervalNanos);
+              }
+            });
+  }
+
+  /** Fails every cid of a chunk whose task could not be created or failed */
+  private void finishTask(
+      @NotNull Operation operation, @NotNull List<String> cids, @NotNull StreamException e) {
+    failedTasks.increment();
+    Map<String, StreamException> failures = new ConcurrentHashMap<>();
+    for (String cid : cids) {
+      failures.put(cid, e);
+    }
+    operation.complete(cids, failures);
+    taskSlots.release();
+  }
+
+  /** Reads the cids reported with an error in the result of a completed task */
+  @NotNull
+  private static Map<String, StreamException> getCidFailures(
+      @NotNull List<String> cids, @NotNull TaskStatusGetResponse response) {
+    Map<String, StreamException> failures = new ConcurrentHashMap<>();
+    Map<String, Object> result = response.getResult();
+    if (result == null) {
+      return failures;
+    }
+    for (String cid : cids) {
+      if (!(result.get(cid) instanceof Map)) {
+        continue;
+      }
+      Map<?, ?> outcome = (Map<?, ?>) result.get(cid);
+      Object status = outcome.get("status");
+      Object error = outcome.get("error");
+      if (error != null || (status != null && !"ok".equals(status))) {
+        failures.put(cid, StreamException.build(String.valueOf(error != null ? error : status)));
+      }
+    }
+    return failures;
+  }
+
+  private void startTruncation(
+      @NotNull Operation operation, @NotNull String cid, boolean hardDelete, boolean skipPush) {
+    int separator = cid.indexOf(':');
+    if (separator <= 0) {
+      operation.complete(
+          List.of(cid), Map.of(cid, StreamException.build("Invalid cid: " + cid)));
+      truncationSlots.release();
+      return;
+    }
+    requestFuture(
+            () ->
+                Channel.truncate(cid.substring(0, separator), cid.substring(separator + 1))
+                    .hardDelete(hardDelete)
+                    .skipPush(skipPush))
+        .whenComplete(
+            (response, throwable) -> {
+              operation.complete(
+                  List.of(cid),
+                  throwable != null ? Map.of(cid, toStreamException(throwable)) : Map.of());
+              truncationSlots.release();
+            });
+  }
+
+  /**
+   * Sends a request. Jobs run on the scheduler thread, which would swallow an exception thrown
+   * while building the request, so it fails the future instead.
+   */
+  @NotNull
+  private <T extends StreamResponse> CompletableFuture<T> requestFuture(
+      @NotNull Supplier<StreamRequest<T>> requestFactory) {
+    try {
+      StreamRequest<T> request = requestFactory.get();
+      return (client != null ? request.withClient(client) : request).requestFuture();
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(StreamException.build(e));
+    }
+  }
+
+  @NotNull
+  private static StreamException toStreamException(@NotNull Throwable throwable) {
+    Throwable cause =
+        throwable instanceof CompletionException && throwable.getCause() != null
+            ? throwable.getCause()
+            : throwable;
+    return cause instanceof StreamException
+        ? (StreamException) cause
+        : StreamException.build(cause);
+  }
+
+  /** The outcome of a bulk deletion or truncation */
+  public static class BulkResult {
+    private final int channelCount;
+    @NotNull private final Map<String, StreamException> failures;
+
+    private BulkResult(int channelCount, @NotNull Map<String, StreamException> failures) {
+      this.channelCount = channelCount;
+      this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /** @return the number of distinct channels processed */
+    public int getChannelCount() {
+      return channelCount;
+    }
+
+    /** @return the errors of the failed channels, by cid */
+    @NotNull
+    public Map<String, StreamException> getFailures() {
+      return failures;
+    }
+
+    public boolean isSuccessful() {
+      return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+      return "BulkResult(channels=" + channelCount + ", failed=" + failures.size() + ")";
+    }
+  }
+
+  /**
+   * Bounds the number of running jobs. Waiting jobs are started on the scheduler thread, so that
+   * jobs failing right away do not chain up on the stack.
+   */
+  private class Slots {
+    private final int maxRunning;
+    @NotNull private final ArrayDeque<Runnable> waiting = new ArrayDeque<>();
+    private int running;
+
+    Slots(int maxRunning) {
+      this.maxRunning = maxRunning;
+    }
+
+    void submit(@NotNull Runnable job) {
+      synchronized (this) {
+        if (running >= maxRunning) {
+          waiting.add(job);
+          return;
+        }
+        running++;
+      }
+      job.run();
+    }
+
+    void release() {
+      Runnable next;
+      synchronized (this) {
+        next = waiting.poll();
+        if (next == null) {
+          running--;
+          return;
+        }
+      }
+      scheduler.execute(next);
+    }
+
+    synchronized int getRunningCount() {
+      return running;
+    }
+
+    synchronized int getWaitingCount() {
+      return waiting.size();
+    }
+  }
+
+  private static class Operation {
+    @NotNull private final AtomicInteger remainingCids;
+    private final int cidCount;
+    @NotNull private final Map<String, StreamException> failures = new ConcurrentHashMap<>();
+    @NotNull private final CompletableFuture<BulkResult> future = new CompletableFuture<>();
+
+    Operation(int cidCount) {
+      this.cidCount = cidCount;
+      this.remainingCids = new AtomicInteger(cidCount);
+    }
+
+    void complete(@NotNull List<String> cids, @NotNull Map<String, StreamException> failures) {
+      this.failures.putAll(failures);
+      if (remainingCids.addAndGet(-cids.size()) == 0) {
+        future.complete(new BulkResult(cidCount, this.failures));
+      }
+    }
+  }
+
+  private static class Task {
+    @NotNull private final Operation operation;
+    @NotNull private final List<String> cids;
+    @NotNull private final String taskId;
+    // Only accessed by the poll of the task, one at a time
+    private long pollIntervalNanos;
+    private int pollFailures;
+
+    Task(@NotNull Operation operation, @NotNull List<String> cids, @NotNull String taskId) {
+      this.operation = operation;
+      this.cids = cids;
+      this.taskId = taskId;
+    }
+  }
+
+  public static class Builder {
+    @Nullable private Client client;
+    private int chunkSize = 100;
+    private int maxRunningTasks = 4;
+    private int maxConcurrentTruncations = 8;
+    @NotNull private Duration minPollInterval = Duration.ofMillis(500);
+    @NotNull private Duration maxPollInterval = Duration.ofSeconds(10);
+
+    private Builder() {}
+
+    @NotNull
+    public Builder client(@NotNull Client client) {
+      this.client = client;
+      return this;
+    }
+
+    /**
+     * Sets the number of cids deleted by a task, 100 by default, the maximum of the API
+     *
+     * @param chunkSize the number of cids
+     * @return the builder
+     */
+    @NotNull
+    public Builder chunkSize(int chunkSize) {
+      if (chunkSize <= 0) {
+        throw new IllegalArgumentException("chunkSize should be positive");
+      }
+      this.chunkSize = chunkSize;
+      return this;
+    }
+
+    @NotNull
+    public Builder maxRunningTasks(int maxRunningTasks) {
+      if (maxRunningTasks <= 0) {
+        throw new IllegalArgumentException("maxRunningTasks should be positive");
+      }
+      this.maxRunningTasks = maxRunningTasks;
+      return this;
+    }
+
+    @NotNull
+    public Builder maxConcurrentTruncations(int maxConcurrentTruncations) {
+      if (maxConcurrentTruncations <= 0) {
+        throw new IllegalArgumentException("maxConcurrentTruncations should be positive");
+      }
+      this.maxConcurrentTruncations = maxConcurrentTruncations;
+      return this;
+    }
+
+    /**
+     * Sets the bounds of the interval between two polls of a task, 500 milliseconds and 10
+     * seconds by default
+     *
+     * @param minPollInterval the delay of the first poll
+     * @param maxPollInterval the longest interval between two polls
+     * @return the builder
+     */
+    @NotNull
+    public Builder pollInterval(
+        @NotNull Duration minPollInterval, @NotNull Duration maxPollInterval) {
+      if (minPollInterval.isNegative() || minPollInterval.isZero()) {
+        throw new IllegalArgumentException("minPollInterval should be positive");
+      }
+      this.minPollInterval = minPollInterval;
+      this.maxPollInterval = maxPollInterval;
+      return this;
+    }
+
+    @NotNull
+    public BulkChannelOrchestrator build() {
+      return new BulkChannelOrchestrator(this);
+    }
+  }
+}
@@ -0,0 +1,488 @@
+package io.getstream.chat.java.models.framework;
+
+import io.getstream.chat.java.models.Channel;
+import io.getstream.chat.java.models.Channel.ChannelGetRequestData.ChannelGetRequest;
+import io.getstream.chat.java.models.Message;
+import io.getstream.chat.java.models.MessagePaginationParameters;
+import io.getstream.chat.java.services.framework.Client;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Mirrors the messages of many channels incrementally. Every channel has a checkpoint, the id of
+ * the last message synced, and each run only fetches the messages created after it, page by page
+ * with the {@code id_gt} cursor. Channels without a checkpoint are synced from their first
+ * message.
+ *
+ * <p>The pages of a channel are handed to the {@link MessageHandler} in order, oldest first, and
+ * the checkpoint moves past a page once the handler returns. A run interrupted by a crash resumes
+ * from the last handled page, without fetching the previous ones again. While a page is handled,
+ * the next one is already being fetched.
+ *
+ * <p>At most {@code maxConcurrentChannels} channels are synced at a time, shared by all the runs,
+ * and requests are paced to at most {@code maxRequestsPerSecond}. A channel should not be part of
+ * two runs at the same time. Thread replies are not part of the channel messages, only the
+ * messages shown in the channel are synced.
+ *
+ * <pre>{@code
+ * try (var checkpoints = new CheckpointFile(Path.of("sync-checkpoints.tsv"));
+ *     var sync =
+ *         ChannelMessageSync.builder(checkpoints)
+ *             .maxConcurrentChannels(16)
+ *             .maxRequestsPerSecond(50)
+ *             .build()) {
+ *   SyncResult result = sync.sync(cids, (cid, messages) -> archive.write(cid, messages)).join();
+ * }
+ * }</pre>
+ */
+public class ChannelMessageSync implements AutoCloseable {
+  /** Receives the new messages of the channels */
+  @FunctionalInterface
+  public interface MessageHandler {
+    /**
+     * Handles a page of new messages. The pages of a channel are handled one at a time, in order.
+     *
+     * @param cid the channel cid, like {@code messaging:general}
+     * @param messages the messages, oldest first
+     * @throws Exception to stop the sync of the channel, without moving its checkpoint
+     */
+    void onMessages(@NotNull String cid, @NotNull List<Message> messages) throws Exception;
+  }
+
+  @NotNull private final CheckpointFile checkpointFile;
+  @Nullable private final Client client;
+  private final int pageSize;
+  private final int maxConcurrentChannels;
+  private final long requestIntervalNanos;
+  @NotNull private final Executor executor;
+  @Nullable private final ExecutorService ownedExecutor;
+
+  private final Object lock = new Object();
+  @NotNull private final ArrayDeque<ChannelTask> pendingChannels = new ArrayDeque<>();
+  private int runningChannels;
+  private boolean closed;
+  private long nextRequestNanos = System.nanoTime();
+
+  private ChannelMessageSync(@NotNull Builder builder) {
+    this.checkpointFile = builder.checkpointFile;
+    this.client = builder.client;
+    this.pageSize = builder.pageSize;
+    this.maxConcurrentChannels = builder.maxConcurrentChannels;
+    this.requestIntervalNanos =
+        builder.maxRequestsPerSecond > 0
+            ? (long) (TimeUnit.SECONDS.toNanos(1) / builder.maxRequestsPerSecond)
+            : 0;
+    if (builder.executor != null) {
+      this.executor = builder.executor;
+      this.ownedExecutor = null;
+    } else {
+      AtomicInteger threadCount = new AtomicInteger();
+      this.ownedExecutor =
+          Executors.newFixedThreadPool(
+              maxConcurrentChannels,
+              runnable -> {
+                Thread thread =
+                    new Thread(
+                        runnable, "stream-chat-message-sync-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+              });
+      this.executor = ownedExecutor;
+    }
+  }
+
+  /**
+   * @param checkpointFile the checkpoints of the channels, closed by the caller
+   * @return a builder
+   */
+  @NotNull
+  public static Builder builder(@NotNull CheckpointFile checkpointFile) {
+    return new Builder(checkpointFile);
+  }
+
+  /**
+   * Syncs the new messages of channels
+   *
+   * @param cids the channel cids, like {@code messaging:general}
+   * @param messageHandler receives the new messages
+   * @return a future completing once all the channels are synced or failed
+   * @throws IllegalStateException if the sync is closed
+   */
+  @NotNull
+  public CompletableFuture<SyncResult> sync(
+      @NotNull Collection<String> cids, @NotNull MessageHandler messageHandler) {
+    var distinctCids = new LinkedHashSet<>(cids);
+    var run = new SyncRun(messageHandler, distinctCids.size());
+    var tasks = new ArrayList<ChannelTask>(distinctCids.size());
+    for (String cid : distinctCids) {
+      tasks.add(new ChannelTask(run, cid));
+    }
+    if (tasks.isEmpty()) {
+      run.future.complete(run.toResult());
+      return run.future;
+    }
+    List<ChannelTask> started;
+    synchronized (lock) {
+      if (closed) {
+        throw new IllegalStateException("The sync is closed");
+      }
+      pendingChannels.addAll(tasks);
+      started = drain();
+    }
+    started.forEach(this::start);
+    return run.future;
+  }
+
+  /** @return the number of channels being synced */
+  public int getRunningCount() {
+    synchronized (lock) {
+      return runningChannels;
+    }
+  }
+
+  /** @return the number of channels waiting for their turn */
+  public int getQueuedCount() {
+    synchronized (lock) {
+      return pendingChannels.size();
+    }
+  }
+
+  /**
+   * Waits for the running syncs to complete, then stops the threads of the default executor. The
+   * checkpoint file is left open.
+   */
+  @Override
+  public void close() {
+    boolean interrupted = false;
+    synchronized (lock) {
+      closed = true;
+      while (runningChannels > 0 || !pendingChannels.isEmpty()) {
+        try {
+          lock.wait();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    }
+    if (ownedExecutor != null) {
+      ownedExecutor.shutdown();
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void start(@NotNull ChannelTask task) {
+    fetch(task, checkpointFile.get(task.cid))
+        .whenCompleteAsync(
+            (messages, throwable) -> {
+              if (throwable != null) {
+                finish(task, throwable);
+              } else {
+                onPage(task, messages);
+              }
+            },
+            executor);
+  }
+
+  /** Handles a page while the next one is fetched, then moves the checkpoint */
+  private void onPage(@NotNull ChannelTask task, @NotNull List<Message> messages) {
+    CompletableFuture<List<Message>> nextPage =
+        messages.size() >= pageSize ? fetch(task, lastId(messages)) : null;
+    try {
+      if (!messages.isEmpty()) {
+        task.run.messageHandler.onMessages(task.cid, messages);
+        checkpointFile.put(task.cid, lastId(messages));
+        task.run.messageCount.add(messages.size());
+      }
+    } catch (Exception e) {
+      if (nextPage != null) {
+        nextPage.cancel(false);
+      }
+      finish(task, e);
+      return;
+    }
+    if (nextPage == null) {
+      finish(task, null);
+      return;
+    }
+    nextPage.whenCompleteAsync(
+        (page, throwable) -> {
+          if (throwable != null) {
+            finish(task, throwable);
+          } else {
+            onPage(task, page);
+          }
+        },
+        executor);
+  }
+
+  @NotNull
+  private CompletableFuture<List<Message>> fetch(
+      @NotNull ChannelTask task, @Nullable String afterMessageId) {
+    var pagination = MessagePaginationParameters.builder().limit(pageSize);
+    if (afterMessageId != null) {
+      pagination.idGt(afterMessageId);
+    } else {
+      pagination.createdAtAfter(new Date(0));
+    }
+    ChannelGetRequest request =
+        Channel.getOrCreate(task.channelType, task.channelId)
+            .state(true)
+            .messages(pagination.build());
+    if (client != null) {
+      request.withClient(client);
+    }
+    return acquireRequestSlot()
+        .thenCompose(
+            ignored -> {
+              task.run.requestCount.increment();
+              return request.requestFuture();
+            })
+        .thenApply(
+            response ->
+                response.getMessages() != null ? response.getMessages() : List.<Message>of());
+  }
+
+  /** Completes when the request budget allows one more request */
+  @NotNull
+  private CompletableFuture<Void> acquireRequestSlot() {
+    if (requestIntervalNanos == 0) {
+      return CompletableFuture.completedFuture(null);
+    }
+    long delayNanos;
+    synchronized (lock) {
+      long now = System.nanoTime();
+      long slot = Math.max(now, nextRequestNanos);
+      nextRequestNanos = slot + requestIntervalNanos;
+      delayNanos = slot - now;
+    }
+    if (delayNanos <= 0) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return CompletableFuture.runAsync(
+        () -> {}, CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, executor));
+  }
+
+  private void finish(@NotNull ChannelTask task, @Nullable Throwable throwable) {
+    if (throwable != null) {
+      task.run.failures.put(
+          task.cid, throwable instanceof CompletionException ? throwable.getCause() : throwable);
+    }
+    List<ChannelTask> started;
+    synchronized (lock) {
+      runningChannels--;
+      started = drain();
+      if (runningChannels == 0) {
+        lock.notifyAll();
+      }
+    }
+    started.forEach(this::start);
+    if (task.run.remaining.decrementAndGet() == 0) {
+      task.run.future.complete(task.run.toResult());
+    }
+  }
+
+  @NotNull
+  private List<ChannelTask> drain() {
+    List<ChannelTask> started = new ArrayList<>();
+    while (runningChannels < maxConcurrentChannels && !pendingChannels.isEmpty()) {
+      started.add(pendingChannels.poll());
+      runningChannels++;
+    }
+    return started;
+  }
+
+  @NotNull
+  private static String lastId(@NotNull List<Message> messages) {
+    return messages.get(messages.size() - 1).getId();
+  }
+
+  /** The outcome of a run */
+  public static class SyncResult {
+    private final int channelCount;
+    private final long messageCount;
+    private final long requestCount;
+    @NotNull private final Map<String, Throwable> failures;
+
+    private SyncResult(
+        int channelCount,
+        long messageCount,
+        long requestCount,
+        @NotNull Map<String, Throwable> failures) {
+      this.channelCount = channelCount;
+      this.messageCount = messageCount;
+      this.requestCount = requestCount;
+      this.failures = failures;
+    }
+
+    /** @return the number of channels of the run */
+    public int getChannelCount() {
+      return channelCount;
+    }
+
+    /** @return the number of new messages handled */
+    public long getMessageCount() {
+      return messageCount;
+    }
+
+    /** @return the number of requests sent */
+    public long getRequestCount() {
+      return requestCount;
+    }
+
+    /** @return the error that stopped the sync of each failed channel, by cid */
+    @NotNull
+    public Map<String, Throwable> getFailures() {
+      return failures;
+    }
+
+    public boolean isSuccessful() {
+      return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+      return "SyncResult(channels="
+          + channelCount
+          + ", messages="
+          + messageCount
+          + ", requests="
+          + requestCount
+          + ", failures="
+          + failures.size()
+          + ")";
+    }
+  }
+
+  private static class SyncRun {
+    @NotNull private final MessageHandler messageHandler;
+    private final int channelCount;
+    @NotNull private final AtomicInteger remaining;
+    @NotNull private final CompletableFuture<SyncResult> future = new CompletableFuture<>();
+    private final LongAdder messageCount = new LongAdder();
+    private final LongAdder requestCount = new LongAdder();
+    @NotNull private final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+
+    SyncRun(@NotNull MessageHandler messageHandler, int channelCount) {
+      this.messageHandler = messageHandler;
+      this.channelCount = channelCount;
+      this.remaining = new AtomicInteger(channelCount);
+    }
+
+    @NotNull
+    SyncResult toResult() {
+      return new SyncResult(
+          channelCount,
+          messageCount.sum(),
+          requestCount.sum(),
+          Collections.unmodifiableMap(new HashMap<>(failures)));
+    }
+  }
+
+  private static class ChannelTask {
+    @NotNull private final SyncRun run;
+    @NotNull private final String cid;
+    @NotNull private final String channelType;
+    @NotNull private final String channelId;
+
+    ChannelTask(@NotNull SyncRun run, @NotNull String cid) {
+      int separator = cid.indexOf(':');
+      if (separator <= 0 || separator == cid.length() - 1) {
+        throw new IllegalArgumentException("Invalid cid: " + cid);
+      }
+      this.run = run;
+      this.cid = cid;
+      this.channelType = cid.substring(0, separator);
+      this.channelId = cid.substring(separator + 1);
+    }
+  }
+
+  public static class Builder {
+    @NotNull private final CheckpointFile checkpointFile;
+    @Nullable private Client client;
+    @Nullable private Executor executor;
+    private int pageSize = 100;
+    private int maxConcurrentChannels = 8;
+    private double maxRequestsPerSecond;
+
+    private Builder(@NotNull CheckpointFile checkpointFile) {
+      this.checkpointFile = checkpointFile;
+    }
+
+    @NotNull
+    public Builder client(@NotNull Client client) {
+      this.client = client;
+      return this;
+    }
+
+    /**
+     * Sets the executor handling the pages, a pool of {@code maxConcurrentChannels} threads by
+     * default
+     *
+     * @param executor the executor
+     * @return the builder
+     */
+    @NotNull
+    public Builder executor(@NotNull Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    @NotNull
+    public Builder pageSize(int pageSize) {
+      if (pageSize <= 0) {
+        throw new IllegalArgumentException("pageSize should be positive");
+      }
+      this.pageSize = pageSize;
+      return this;
+    }
+
+    @NotNull
+    public Builder maxConcurrentChannels(int maxConcurrentChannels) {
+      if (maxConcurrentChannels <= 0) {
+        throw new IllegalArgumentException("maxConcurrentChannels should be positive");
+      }
+      this.maxConcurrentChannels = maxConcurrentChannels;
+      return this;
+    }
+
+    /**
+     * Paces the requests of all the runs, unlimited by default
+     *
+     * @param maxRequestsPerSecond the maximum number of requests per second
+     * @return the builder
+     */
+    @NotNull
+    public Builder maxRequestsPerSecond(double maxRequestsPerSecond) {
+      if (maxRequestsPerSecond <= 0) {
+        throw new IllegalArgumentException("maxRequestsPerSecond should be positive");
+      }
+      this.maxRequestsPerSecond = maxRequestsPerSecond;
+      return this;
+    }
+
+    @NotNull
+    public ChannelMessageSync build() {
+      return new ChannelMessageSync(this);
+    }
+  }
+}
@@ -0,0 +1,157 @@
+package io.getstream.chat.java.models.framework;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A durable map of checkpoints, like the last synced message of every channel, kept in a local
+ * file.
+ *
+ * <p>The file is an append-only log of {@code key<TAB>value} lines, the last line of a key wins.
+ * Every update appends one line, written straight to the file, so a checkpoint survives a crash
+ * of the process as soon as {@link #put(String, String)} returns. An incomplete last line, left
+ * by a crash during a write, is ignored. The log is compacted to one line per key when it is
+ * opened, and whenever it holds more than twice as many lines as keys. Instances are thread safe.
+ */
+public class CheckpointFile implements AutoCloseable {
+  private static final int MIN_COMPACTION_LINES = 1024;
+
+  @NotNull private final Path path;
+  @NotNull private final Map<String, String> checkpoints = new HashMap<>();
+  @NotNull private FileChannel channel;
+  private int lineCount;
+
+  /**
+   * Opens a checkpoint file, creating it if needed
+   *
+   * @param path the file
+   * @throws IOException if the file cannot be read or written
+   */
+  public CheckpointFile(@NotNull Path path) throws IOException {
+    this.path = path;
+    if (Files.exists(path)) {
+      load(Files.readAllBytes(path));
+    }
+    this.channel = rewrite();
+  }
+
+  /**
+   * @param key the key, a channel cid for instance
+   * @return the checkpoint of the key, or null if it has none
+   */
+  @Nullable
+  public synchronized String get(@NotNull String key) {
+    return checkpoints.get(key);
+  }
+
+  /** @return a copy of all the checkpoints */
+  @NotNull
+  public synchronized Map<String, String> getAll() {
+    return Collections.unmodifiableMap(new HashMap<>(checkpoints));
+  }
+
+  /**
+   * Stores a checkpoint and writes it to the file
+   *
+   * @param key the key, a channel cid for instance
+   * @param value the checkpoint, a message id for instance
+   * @throws UncheckedIOException if the file cannot be written
+   */
+  public synchronized void put(@NotNull String key, @NotNull String value) {
+    checkLine(key);
+    checkLine(value);
+    if (key.indexOf('\t') >= 0) {
+      throw new IllegalArgumentException("Checkpoint keys should not contain tabs");
+    }
+    if (value.equals(checkpoints.get(key))) {
+      return;
+    }
+    try {
+      append(key, value);
+      checkpoints.put(key, value);
+      lineCount++;
+      if (lineCount > MIN_COMPACTION_LINES && lineCount > 2 * checkpoints.size()) {
+        channel.close();
+        channel = rewrite();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public synchronized int size() {
+    return checkpoints.size();
+  }
+
+  /** Forces the file to the storage device and closes it */
+  @Override
+  public synchronized void close() throws IOException {
+    if (channel.isOpen()) {
+      channel.force(false);
+      channel.close();
+    }
+  }
+
+  private void load(@NotNull byte[] content) {
+    int lineStart = 0;
+    for (int i = 0; i < content.length; i++) {
+      if (content[i] != '\n') {
+        continue;
+      }
+      String line = new String(content, lineStart, i - lineStart, StandardCharsets.UTF_8);
+      int separator = line.indexOf('\t');
+      if (separator > 0) {
+        checkpoints.put(line.substring(0, separator), line.substring(separator + 1));
+      }
+      lineStart = i + 1;
+    }
+  }
+
+  /** Writes all the checkpoints to a new file, then atomically replaces the log with it */
+  @NotNull
+  private FileChannel rewrite() throws IOException {
+    Path compacted = path.resolveSibling(path.getFileName() + ".tmp");
+    try (Writer writer = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+      for (Map.Entry<String, String> checkpoint : checkpoints.entrySet()) {
+        writer.write(checkpoint.getKey());
+        writer.write('\t');
+        writer.write(checkpoint.getValue());
+        writer.write('\n');
+      }
+    }
+    try (FileChannel compactedChannel = FileChannel.open(compacted, StandardOpenOption.WRITE)) {
+      compactedChannel.force(true);
+    }
+    Files.move(
+        compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    lineCount = checkpoints.size();
+    return FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+  }
+
+  private void append(@NotNull String key, @NotNull String value) throws IOException {
+    byte[] bytes = (key + '\t' + value + '\n').getBytes(StandardCharsets.UTF_8);
+    ByteBuffer line = ByteBuffer.wrap(bytes);
+    while (line.hasRemaining()) {
+      channel.write(line);
+    }
+  }
+
+  private static void checkLine(@NotNull String text) {
+    if (text.isEmpty() || text.indexOf('\n') >= 0) {
+      throw new IllegalArgumentException("Checkpoints should be non empty single lines");
+    }
+  }
+}
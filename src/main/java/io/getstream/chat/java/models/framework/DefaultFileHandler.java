@@ -1,6 +1,5 @@
 package io.getstream.chat.java.models.framework;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.getstream.chat.java.exceptions.StreamException;
 import io.getstream.chat.java.models.Message.ImageSizeRequestObject;
 import io.getstream.chat.java.models.Message.MessageUploadFileResponse;
@@ -9,10 +8,11 @@ import io.getstream.chat.java.models.User.UserRequestObject;
 import io.getstream.chat.java.services.MessageService;
 import io.getstream.chat.java.services.framework.Client;
 import io.getstream.chat.java.services.framework.StreamServiceHandler;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 import lombok.extern.java.Log;
@@ -25,8 +25,13 @@ import retrofit2.Call;
 
 @Log
 public class DefaultFileHandler implements FileHandler {
+  private static final int MAX_USER_PARTS = 1000;
+
   private final Client client;
 
+  // The user part of the uploads, serialized once per user
+  private final Map<String, RequestBody> userRequestBodies = new ConcurrentHashMap<>();
+
   public DefaultFileHandler() {
     this(Client.getInstance());
   }
@@ -43,7 +48,7 @@ public class DefaultFileHandler implements FileHandler {
       @Nullable File file,
       @Nullable String contentType)
       throws StreamException {
-    return new StreamServiceHandler()
+    return new StreamServiceHandler(client)
         .handle(generateUploadFileCall(channelType, channelId, userId, file, contentType));
   }
 
@@ -56,24 +61,57 @@ public class DefaultFileHandler implements FileHandler {
       @Nullable String contentType,
       @Nullable List<ImageSizeRequestObject> uploadSizes)
       throws StreamException {
-    return new StreamServiceHandler()
+    return new StreamServiceHandler(client)
         .handle(
             generateUploadImageCall(
                 channelType, channelId, userId, file, contentType, uploadSizes));
   }
 
+  @Override
+  public MessageUploadFileResponse uploadFile(
+      @NotNull String channelType,
+      @NotNull String channelId,
+      @NotNull String userId,
+      @NotNull UploadSource source,
+      @Nullable String contentType,
+      @Nullable UploadSource.ProgressListener progressListener)
+      throws StreamException {
+    MultipartBody.Part multipartFile =
+        createMultipartFile(source, resolveContentType(contentType), progressListener);
+    return new StreamServiceHandler(client)
+        .handle(generateUploadFileCall(channelType, channelId, userId, multipartFile));
+  }
+
+  @Override
+  public MessageUploadImageResponse uploadImage(
+      @NotNull String channelType,
+      @NotNull String channelId,
+      @NotNull String userId,
+      @NotNull UploadSource source,
+      @Nullable String contentType,
+      @Nullable List<ImageSizeRequestObject> uploadSizes,
+      @Nullable UploadSource.ProgressListener progressListener)
+      throws StreamException {
+    MultipartBody.Part multipartFile = createMultipartFile(source, contentType, progressListener);
+    return new StreamServiceHandler(client)
+        .handle(
+            generateUploadImageCall(channelType, channelId, userId, multipartFile, uploadSizes));
+  }
+
   @Override
   public StreamResponseObject deleteFile(
       @NotNull String channelType, @NotNull String channelId, @NotNull String url)
       throws StreamException {
-    return new StreamServiceHandler().handle(generateDeleteFileCall(channelType, channelId, url));
+    return new StreamServiceHandler(client)
+        .handle(generateDeleteFileCall(channelType, channelId, url));
   }
 
   @Override
   public StreamResponseObject deleteImage(
       @NotNull String channelType, @NotNull String channelId, @NotNull String url)
       throws StreamException {
-    return new StreamServiceHandler().handle(generateDeleteImageCall(channelType, channelId, url));
+    return new StreamServiceHandler(client)
+        .handle(generateDeleteImageCall(channelType, channelId, url));
   }
 
   @Override
@@ -86,7 +124,7 @@ public class DefaultFileHandler implements FileHandler {
       @Nullable Consumer<MessageUploadFileResponse> onSuccess,
       @Nullable Consumer<StreamException> onError) {
     try {
-      new StreamServiceHandler()
+      new StreamServiceHandler(client)
           .handleAsync(
               generateUploadFileCall(channelType, channelId, userId, file, contentType),
               onSuccess,
@@ -109,7 +147,7 @@ public class DefaultFileHandler implements FileHandler {
       @Nullable Consumer<MessageUploadImageResponse> onSuccess,
       @Nullable Consumer<StreamException> onError) {
     try {
-      new StreamServiceHandler()
+      new StreamServiceHandler(client)
           .handleAsync(
               generateUploadImageCall(
                   channelType, channelId, userId, file, contentType, uploadSizes),
@@ -122,6 +160,44 @@ public class DefaultFileHandler implements FileHandler {
     }
   }
 
+  @Override
+  public void uploadFileAsync(
+      @NotNull String channelType,
+      @NotNull String channelId,
+      @NotNull String userId,
+      @NotNull UploadSource source,
+      @Nullable String contentType,
+      @Nullable UploadSource.ProgressListener progressListener,
+      @Nullable Consumer<MessageUploadFileResponse> onSuccess,
+      @Nullable Consumer<StreamException> onError) {
+    MultipartBody.Part multipartFile =
+        createMultipartFile(source, resolveContentType(contentType), progressListener);
+    new StreamServiceHandler(client)
+        .handleAsync(
+            generateUploadFileCall(channelType, channelId, userId, multipartFile),
+            onSuccess,
+            onError);
+  }
+
+  @Override
+  public void uploadImageAsync(
+      @NotNull String channelType,
+      @NotNull String channelId,
+      @NotNull String userId,
+      @NotNull UploadSource source,
+      @Nullable String contentType,
+      @Nullable List<ImageSizeRequestObject> uploadSizes,
+      @Nullable UploadSource.ProgressListener progressListener,
+      @Nullable Consumer<MessageUploadImageResponse> onSuccess,
+      @Nullable Consumer<StreamException> onError) {
+    MultipartBody.Part multipartFile = createMultipartFile(source, contentType, progressListener);
+    new StreamServiceHandler(client)
+        .handleAsync(
+            generateUploadImageCall(channelType, channelId, userId, multipartFile, uploadSizes),
+            onSuccess,
+            onError);
+  }
+
   @Override
   public void deleteFileAsync(
       @NotNull String channelType,
@@ -129,7 +205,7 @@ public class DefaultFileHandler implements FileHandler {
       @NotNull String url,
       @Nullable Consumer<StreamResponseObject> onSuccess,
       @Nullable Consumer<StreamException> onError) {
-    new StreamServiceHandler()
+    new StreamServiceHandler(client)
         .handleAsync(generateDeleteFileCall(channelType, channelId, url), onSuccess, onError);
   }
 
@@ -140,7 +216,7 @@ public class DefaultFileHandler implements FileHandler {
       @NotNull String url,
       @Nullable Consumer<StreamResponseObject> onSuccess,
       @Nullable Consumer<StreamException> onError) {
-    new StreamServiceHandler()
+    new StreamServiceHandler(client)
         .handleAsync(generateDeleteImageCall(channelType, channelId, url), onSuccess, onError);
   }
 
@@ -151,21 +227,25 @@ public class DefaultFileHandler implements FileHandler {
       @Nullable File file,
       @Nullable String contentType)
       throws StreamException {
+    if (file == null) {
+      throw StreamException.build("You should specify the file");
+    }
+    RequestBody fileRequestBody =
+        RequestBody.create(MediaType.parse(resolveContentType(contentType)), file);
+    MultipartBody.Part multipartFile =
+        MultipartBody.Part.createFormData("file", file.getName(), fileRequestBody);
+    return generateUploadFileCall(channelType, channelId, userId, multipartFile);
+  }
+
+  private Call<MessageUploadFileResponse> generateUploadFileCall(
+      @NotNull String channelType,
+      @NotNull String channelId,
+      @NotNull String userId,
+      @NotNull MultipartBody.Part multipartFile) {
     try {
-      if (file == null) {
-        throw StreamException.build("You should specify the file");
-      }
-      String resolvedContentType = contentType != null ? contentType : "application/octet-stream";
-      RequestBody fileRequestBody = RequestBody.create(MediaType.parse(resolvedContentType), file);
-      MultipartBody.Part multipartFile =
-          MultipartBody.Part.createFormData("file", file.getName(), fileRequestBody);
-      UserRequestObject user = UserRequestObject.builder().id(userId).build();
-      ByteArrayOutputStream baos = new ByteArrayOutputStream();
-      new ObjectMapper().writeValue(baos, user);
-      RequestBody userRequestBody = RequestBody.create(MultipartBody.FORM, baos.toString("UTF-8"));
       return client
           .create(MessageService.class)
-          .uploadFile(channelType, channelId, userRequestBody, multipartFile);
+          .uploadFile(channelType, channelId, getUserRequestBody(userId), multipartFile);
     } catch (IOException e) {
       // This should not happen, can only be a development error
       log.log(
@@ -184,25 +264,33 @@ public class DefaultFileHandler implements FileHandler {
       @Nullable String contentType,
       @Nullable List<ImageSizeRequestObject> uploadSizes)
       throws StreamException {
+    if (file == null) {
+      throw StreamException.build("You should specify the file");
+    }
+    RequestBody fileRequestBody = RequestBody.create(MediaType.parse(contentType), file);
+    MultipartBody.Part multipartFile =
+        MultipartBody.Part.createFormData("file", file.getName(), fileRequestBody);
+    return generateUploadImageCall(channelType, channelId, userId, multipartFile, uploadSizes);
+  }
+
+  private Call<MessageUploadImageResponse> generateUploadImageCall(
+      @NotNull String channelType,
+      @NotNull String channelId,
+      @NotNull String userId,
+      @NotNull MultipartBody.Part multipartFile,
+      @Nullable List<ImageSizeRequestObject> uploadSizes) {
     try {
-      if (file == null) {
-        throw StreamException.build("You should specify the file");
-      }
-      RequestBody fileRequestBody = RequestBody.create(MediaType.parse(contentType), file);
-      MultipartBody.Part multipartFile =
-          MultipartBody.Part.createFormData("file", file.getName(), fileRequestBody);
-      UserRequestObject user = UserRequestObject.builder().id(userId).build();
-      ByteArrayOutputStream baos = new ByteArrayOutputStream();
-      new ObjectMapper().writeValue(baos, user);
-      RequestBody userRequestBody = RequestBody.create(MultipartBody.FORM, baos.toString("UTF-8"));
-      baos = new ByteArrayOutputStream();
-      new ObjectMapper().writeValue(baos, uploadSizes);
       RequestBody uploadSizesRequestBody =
-          RequestBody.create(MultipartBody.FORM, baos.toString("UTF-8"));
+          RequestBody.create(
+              MultipartBody.FORM, client.getJsonCodec().writeValueAsString(uploadSizes));
       return client
           .create(MessageService.class)
           .uploadImage(
-              channelType, channelId, userRequestBody, multipartFile, uploadSizesRequestBody);
+              channelType,
+              channelId,
+              getUserRequestBody(userId),
+              multipartFile,
+              uploadSizesRequestBody);
     } catch (IOException e) {
       // This should not happen, can only be a development error
       log.log(
@@ -214,6 +302,36 @@ public class DefaultFileHandler implements FileHandler {
     }
   }
 
+  @NotNull
+  private RequestBody getUserRequestBody(@NotNull String userId) throws IOException {
+    RequestBody userRequestBody = userRequestBodies.get(userId);
+    if (userRequestBody == null) {
+      UserRequestObject user = UserRequestObject.builder().id(userId).build();
+      userRequestBody =
+          RequestBody.create(MultipartBody.FORM, client.getJsonCodec().writeValueAsString(user));
+      if (userRequestBodies.size() >= MAX_USER_PARTS) {
+        userRequestBodies.clear();
+      }
+      userRequestBodies.put(userId, userRequestBody);
+    }
+    return userRequestBody;
+  }
+
+  @NotNull
+  private static MultipartBody.Part createMultipartFile(
+      @NotNull UploadSource source,
+      @Nullable String contentType,
+      @Nullable UploadSource.ProgressListener progressListener) {
+    MediaType mediaType = contentType != null ? MediaType.parse(contentType) : null;
+    RequestBody fileRequestBody = source.toRequestBody(mediaType, progressListener);
+    return MultipartBody.Part.createFormData("file", source.getFileName(), fileRequestBody);
+  }
+
+  @NotNull
+  private static String resolveContentType(@Nullable String contentType) {
+    return contentType != null ? contentType : "application/octet-stream";
+  }
+
   private Call<StreamResponseObject> generateDeleteFileCall(
       @NotNull String channelType, @NotNull String channelId, @NotNull String url) {
     return client.create(MessageService.class).deleteFile(channelType, channelId, url);
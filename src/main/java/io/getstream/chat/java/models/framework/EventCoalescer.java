@@ -0,0 +1,376 @@
+package io.getstream.chat.java.models.framework;
+
+import io.getstream.chat.java.exceptions.StreamException;
+import io.getstream.chat.java.models.Event;
+import io.getstream.chat.java.models.Event.EventRequestObject;
+import io.getstream.chat.java.models.Event.EventSendRequestData.EventSendRequest;
+import io.getstream.chat.java.models.Event.EventSendResponse;
+import io.getstream.chat.java.services.framework.Client;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Sends channel events, like typing indicators, collapsing the repeated ones.
+ *
+ * <p>Events are keyed by channel, type and user. The first event of a key is sent right away,
+ * then the key is quiet for a {@code window}: the events of the key sent during the window
+ * replace each other, and only the latest one is sent when the window ends. Within a channel,
+ * events are sent at most {@code maxEventsPerSecondPerChannel} times per second, the events
+ * waiting for their turn still being collapsed.
+ *
+ * <p>The future of a collapsed event completes with the response of the event sent in its place.
+ *
+ * <pre>{@code
+ * var coalescer = EventCoalescer.builder().window(Duration.ofSeconds(2)).build();
+ * // Sends one typing.start event every 2 seconds at most, however often it is called
+ * coalescer.send("messaging", channelId, "typing.start", botUserId);
+ * }</pre>
+ */
+public class EventCoalescer implements AutoCloseable {
+  @Nullable private final Client client;
+  private final long windowNanos;
+  private final long sendIntervalNanos;
+  @NotNull private final ScheduledExecutorService scheduler;
+
+  private final Object lock = new Object();
+  // Guarded by the lock
+  @NotNull private final Map<String, ChannelState> channels = new HashMap<>();
+  private int pendingCount;
+  private boolean closed;
+
+  private final LongAdder submitted = new LongAdder();
+  private final LongAdder sent = new LongAdder();
+  private final LongAdder suppressed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  @NotNull private final Map<String, LongAdder> suppressedByType = new ConcurrentHashMap<>();
+
+  private EventCoalescer(@NotNull Builder builder) {
+    this.client = builder.client;
+    this.windowNanos = builder.window.toNanos();
+    this.sendIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / builder.maxEventsPerSecond);
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "stream-chat-event-coalescer");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  @NotNull
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Sends an event with no other field than its type and user
+   *
+   * @param channelType the channel type
+   * @param channelId the channel id
+   * @param eventType the event type, typing.start for instance
+   * @param userId the id of the user sending the event
+   * @return the future response
+   */
+  @NotNull
+  public CompletableFuture<EventSendResponse> send(
+      @NotNull String channelType,
+      @NotNull String channelId,
+      @NotNull String eventType,
+      @NotNull String userId) {
+    return send(channelType, channelId, eventType, userId, EventRequestObject.builder().build());
+  }
+
+  /**
+   * Sends an event, unless a later event of the same type and user replaces it. A copy of the event
+   * is sent, with its type and user set to {@code eventType} and {@code userId}, so the event can
+   * be reused for the next call.
+   *
+   * @param channelType the channel type
+   * @param channelId the channel id
+   * @param eventType the event type
+   * @param userId the id of the user sending the event
+   * @param event the event
+   * @return the future response
+   */
+  @NotNull
+  public CompletableFuture<EventSendResponse> send(
+      @NotNull String channelType,
+      @NotNull String channelId,
+      @NotNull String eventType,
+      @NotNull String userId,
+      @NotNull EventRequestObject event) {
+    EventRequestObject copy = event.toBuilder().type(eventType).userId(userId).build();
+    var future = new CompletableFuture<EventSendResponse>();
+    submitted.increment();
+    synchronized (lock) {
+      if (closed) {
+        throw new IllegalStateException("The coalescer is closed");
+      }
+      String cid = channelType + ":" + channelId;
+      ChannelState channel =
+          channels.computeIfAbsent(cid, key -> new ChannelState(cid, channelType, channelId));
+      String key = eventType + "\n" + userId;
+      KeyState keyState = channel.keys.get(key);
+      if (keyState == null) {
+        // Leading edge: sent as soon as the channel rate allows
+        keyState = new KeyState(key);
+        channel.keys.put(key, keyState);
+        keyState.pending = new PendingEvent(copy, future);
+        pendingCount++;
+        markReady(channel, keyState);
+      } else if (keyState.pending == null) {
+        // Trailing edge: sent at the end of the window
+        keyState.pending = new PendingEvent(copy, future);
+        pendingCount++;
+      } else {
+        keyState.pending.event = copy;
+        keyState.pending.futures.add(future);
+        suppressed.increment();
+        suppressedByType.computeIfAbsent(eventType, type -> new LongAdder()).increment();
+      }
+    }
+    return future;
+  }
+
+  /** @return the number of events submitted */
+  public long getSubmittedCount() {
+    return submitted.sum();
+  }
+
+  /** @return the number of events sent successfully */
+  public long getSentCount() {
+    return sent.sum();
+  }
+
+  /** @return the number of events replaced by a later one and not sent */
+  public long getSuppressedCount() {
+    return suppressed.sum();
+  }
+
+  /** @return the number of suppressed events, by event type */
+  @NotNull
+  public Map<String, Long> getSuppressedCountByType() {
+    var counts = new HashMap<String, Long>();
+    suppressedByType.forEach((type, count) -> counts.put(type, count.sum()));
+    return counts;
+  }
+
+  /** @return the number of events that failed to be sent */
+  public long getFailedCount() {
+    return failed.sum();
+  }
+
+  /** @return the number of events waiting for their window or their turn in the channel */
+  public int getPendingCount() {
+    synchronized (lock) {
+      return pendingCount;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "EventCoalescer(submitted="
+        + getSubmittedCount()
+        + ", sent="
+        + getSentCount()
+        + ", suppressed="
+        + getSuppressedCount()
+        + ", failed="
+        + getFailedCount()
+        + ", pending="
+        + getPendingCount()
+        + ")";
+  }
+
+  /**
+   * Rejects new events and waits for the pending ones to be sent, at the end of their window
+   *
+   * @throws InterruptedException if interrupted while waiting
+   */
+  @Override
+  public void close() throws InterruptedException {
+    synchronized (lock) {
+      closed = true;
+      while (pendingCount > 0) {
+        lock.wait();
+      }
+    }
+    // Only the ends of windows without pending events are left
+    scheduler.shutdownNow();
+  }
+
+  /** Queues the key for its turn in the channel, and schedules the channel if needed */
+  private void markReady(@NotNull ChannelState channel, @NotNull KeyState keyState) {
+    channel.readyKeys.add(keyState);
+    if (!channel.scheduled) {
+      channel.scheduled = true;
+      long delay = Math.max(0, channel.nextSendNanos - System.nanoTime());
+      scheduler.schedule(() -> sendNext(channel), delay, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  private void sendNext(@NotNull ChannelState channel) {
+    KeyState keyState;
+    PendingEvent pendingEvent;
+    synchronized (lock) {
+      keyState = channel.readyKeys.poll();
+      pendingEvent = keyState.pending;
+      keyState.pending = null;
+      pendingCount--;
+      channel.nextSendNanos = System.nanoTime() + sendIntervalNanos;
+      if (channel.readyKeys.isEmpty()) {
+        channel.scheduled = false;
+      } else {
+        scheduler.schedule(() -> sendNext(channel), sendIntervalNanos, TimeUnit.NANOSECONDS);
+      }
+      // Not before the next turn of the channel either, so that a removed channel does not
+      // forget its rate
+      scheduler.schedule(
+          () -> endWindow(channel, keyState),
+          Math.max(windowNanos, sendIntervalNanos),
+          TimeUnit.NANOSECONDS);
+      if (pendingCount == 0) {
+        lock.notifyAll();
+      }
+    }
+    send(channel, pendingEvent);
+  }
+
+  private void endWindow(@NotNull ChannelState channel, @NotNull KeyState keyState) {
+    synchronized (lock) {
+      if (keyState.pending != null) {
+        markReady(channel, keyState);
+      } else {
+        channel.keys.remove(keyState.key);
+        if (channel.keys.isEmpty()) {
+          channels.remove(channel.cid);
+        }
+      }
+    }
+  }
+
+  private void send(@NotNull ChannelState channel, @NotNull PendingEvent pendingEvent) {
+    CompletableFuture<EventSendResponse> sendFuture;
+    try {
+      EventSendRequest request =
+          Event.send(channel.channelType, channel.channelId).event(pendingEvent.event);
+      if (client != null) {
+        request.withClient(client);
+      }
+      sendFuture = request.requestFuture();
+    } catch (RuntimeException e) {
+      sendFuture = CompletableFuture.failedFuture(StreamException.build(e));
+    }
+    sendFuture.whenComplete(
+        (response, throwable) -> {
+          if (throwable != null) {
+            failed.increment();
+            pendingEvent.futures.forEach(future -> future.completeExceptionally(throwable));
+          } else {
+            sent.increment();
+            pendingEvent.futures.forEach(future -> future.complete(response));
+          }
+        });
+  }
+
+  private static class PendingEvent {
+    // Guarded by the lock until sent
+    @NotNull private EventRequestObject event;
+
+    @NotNull
+    private final List<CompletableFuture<EventSendResponse>> futures = new ArrayList<>(1);
+
+    PendingEvent(
+        @NotNull EventRequestObject event, @NotNull CompletableFuture<EventSendResponse> future) {
+      this.event = event;
+      this.futures.add(future);
+    }
+  }
+
+  private static class KeyState {
+    @NotNull private final String key;
+    @Nullable private PendingEvent pending;
+
+    KeyState(@NotNull String key) {
+      this.key = key;
+    }
+  }
+
+  private static class ChannelState {
+    @NotNull private final String cid;
+    @NotNull private final String channelType;
+    @NotNull private final String channelId;
+    @NotNull private final Map<String, KeyState> keys = new HashMap<>();
+    @NotNull private final ArrayDeque<KeyState> readyKeys = new ArrayDeque<>();
+    private long nextSendNanos = System.nanoTime();
+    private boolean scheduled;
+
+    ChannelState(@NotNull String cid, @NotNull String channelType, @NotNull String channelId) {
+      this.cid = cid;
+      this.channelType = channelType;
+      this.channelId = channelId;
+    }
+  }
+
+  public static class Builder {
+    @Nullable private Client client;
+    @NotNull private Duration window = Duration.ofSeconds(1);
+    private double maxEventsPerSecond = 5;
+
+    private Builder() {}
+
+    @NotNull
+    public Builder client(@NotNull Client client) {
+      this.client = client;
+      return this;
+    }
+
+    /**
+     * Sets how long a key stays quiet after sending an event, 1 second by default
+     *
+     * @param window the window
+     * @return the builder
+     */
+    @NotNull
+    public Builder window(@NotNull Duration window) {
+      if (window.isNegative()) {
+        throw new IllegalArgumentException("window should not be negative");
+      }
+      this.window = window;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of events sent per second in a channel, all types and users
+     * together, 5 by default
+     *
+     * @param maxEventsPerSecond the rate
+     * @return the builder
+     */
+    @NotNull
+    public Builder maxEventsPerSecondPerChannel(double maxEventsPerSecond) {
+      if (!(maxEventsPerSecond > 0)) {
+        throw new IllegalArgumentException("maxEventsPerSecond should be positive");
+      }
+      this.maxEventsPerSecond = maxEventsPerSecond;
+      return this;
+    }
+
+    @NotNull
+    public EventCoalescer build() {
+      return new EventCoalescer(this);
+    }
+  }
+}
@@ -29,6 +29,56 @@ public interface FileHandler {
       @Nullable List<ImageSizeRequestObject> uploadSizes)
       throws StreamException;
 
+  /**
+   * Uploads a file streamed from a source. File handlers that only upload {@link File}s do not
+   * override this method, and fail.
+   *
+   * @param channelType the channel type
+   * @param channelId the channel id
+   * @param userId the id of the user sending this file
+   * @param source the content of the file
+   * @param contentType the content type of the file
+   * @param progressListener the listener notified as the file is sent, or null
+   * @return the response
+   * @throws StreamException if the upload fails or sources are not supported
+   */
+  default MessageUploadFileResponse uploadFile(
+      @NotNull String channelType,
+      @NotNull String channelId,
+      @NotNull String userId,
+      @NotNull UploadSource source,
+      @Nullable String contentType,
+      @Nullable UploadSource.ProgressListener progressListener)
+      throws StreamException {
+    throw StreamException.build(getClass().getSimpleName() + " does not support upload sources");
+  }
+
+  /**
+   * Uploads an image streamed from a source. File handlers that only upload {@link File}s do not
+   * override this method, and fail.
+   *
+   * @param channelType the channel type
+   * @param channelId the channel id
+   * @param userId the id of the user sending this image
+   * @param source the content of the image
+   * @param contentType the content type of the image
+   * @param uploadSizes the sizes to generate
+   * @param progressListener the listener notified as the image is sent, or null
+   * @return the response
+   * @throws StreamException if the upload fails or sources are not supported
+   */
+  default MessageUploadImageResponse uploadImage(
+      @NotNull String channelType,
+      @NotNull String channelId,
+      @NotNull String userId,
+      @NotNull UploadSource source,
+      @Nullable String contentType,
+      @Nullable List<ImageSizeRequestObject> uploadSizes,
+      @Nullable UploadSource.ProgressListener progressListener)
+      throws StreamException {
+    throw StreamException.build(getClass().getSimpleName() + " does not support upload sources");
+  }
+
   StreamResponseObject deleteFile(
       @NotNull String channelType, @NotNull String channelId, @NotNull String url)
       throws StreamException;
@@ -56,6 +106,64 @@ public interface FileHandler {
       @Nullable Consumer<MessageUploadImageResponse> onSuccess,
       @Nullable Consumer<StreamException> onError);
 
+  /**
+   * Uploads a file streamed from a source asynchronously. File handlers that only upload {@link
+   * File}s do not override this method, and fail.
+   *
+   * @param channelType the channel type
+   * @param channelId the channel id
+   * @param userId the id of the user sending this file
+   * @param source the content of the file
+   * @param contentType the content type of the file
+   * @param progressListener the listener notified as the file is sent, or null
+   * @param onSuccess executed when the upload is successful
+   * @param onError executed when the upload fails or sources are not supported
+   */
+  default void uploadFileAsync(
+      @NotNull String channelType,
+      @NotNull String channelId,
+      @NotNull String userId,
+      @NotNull UploadSource source,
+      @Nullable String contentType,
+      @Nullable UploadSource.ProgressListener progressListener,
+      @Nullable Consumer<MessageUploadFileResponse> onSuccess,
+      @Nullable Consumer<StreamException> onError) {
+    if (onError != null) {
+      onError.accept(
+          StreamException.build(getClass().getSimpleName() + " does not support upload sources"));
+    }
+  }
+
+  /**
+   * Uploads an image streamed from a source asynchronously. File handlers that only upload {@link
+   * File}s do not override this method, and fail.
+   *
+   * @param channelType the channel type
+   * @param channelId the channel id
+   * @param userId the id of the user sending this image
+   * @param source the content of the image
+   * @param contentType the content type of the image
+   * @param uploadSizes the sizes to generate
+   * @param progressListener the listener notified as the image is sent, or null
+   * @param onSuccess executed when the upload is successful
+   * @param onError executed when the upload fails or sources are not supported
+   */
+  default void uploadImageAsync(
+      @NotNull String channelType,
+      @NotNull String channelId,
+      @NotNull String userId,
+      @NotNull UploadSource source,
+      @Nullable String contentType,
+      @Nullable List<ImageSizeRequestObject> uploadSizes,
+      @Nullable UploadSource.ProgressListener progressListener,
+      @Nullable Consumer<MessageUploadImageResponse> onSuccess,
+      @Nullable Consumer<StreamException> onError) {
+    if (onError != null) {
+      onError.accept(
+          StreamException.build(getClass().getSimpleName() + " does not support upload sources"));
+    }
+  }
+
   void deleteFileAsync(
       @NotNull String channelType,
       @NotNull String channelId,
@@ -0,0 +1,575 @@
+package io.getstream.chat.java.models.framework;
+
+import io.getstream.chat.java.exceptions.StreamException;
+import io.getstream.chat.java.models.Message;
+import io.getstream.chat.java.models.Message.MessageRequestObject;
+import io.getstream.chat.java.models.Message.MessageSendRequestData.MessageSendRequest;
+import io.getstream.chat.java.models.Message.MessageSendResponse;
+import io.getstream.chat.java.services.framework.Client;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Sends messages in order within each channel and in parallel across channels.
+ *
+ * <p>Every channel has its own queue, and a channel sends its next message only once the previous
+ * one got its response, successful or not: a failed message does not stop the ones after it. Up
+ * to {@code maxConcurrentChannels} channels have a message in flight at a time, the channels with
+ * queued messages taking turns, one message each. Requests are asynchronous, the executor only
+ * runs their completion and starts the next sends.
+ *
+ * <p>At most {@code queueCapacity} messages are queued or in flight, and at most {@code
+ * channelQueueCapacity} per channel. Beyond that, {@link #submit(String, String,
+ * MessageRequestObject)} blocks and {@link #trySubmit(String, String, MessageRequestObject,
+ * Duration)} gives up after its timeout. The lag and throughput of every channel with messages
+ * queued or in flight are available with {@link #getChannelStats(String, String)}. A channel is
+ * forgotten once idle, so relaying to an unbounded set of channels does not grow the pipeline.
+ *
+ * <pre>{@code
+ * var pipeline = MessageSendPipeline.builder().maxConcurrentChannels(64).build();
+ * for (ExternalMessage external : relay) {
+ *   pipeline.submit("messaging", external.channelId, toMessageRequestObject(external));
+ * }
+ * pipeline.close();
+ * }</pre>
+ */
+public class MessageSendPipeline implements AutoCloseable {
+  // The rate of a channel halves in about 7 seconds without messages
+  private static final double RATE_DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+  @Nullable private final Client client;
+  private final boolean skipPush;
+  private final int maxConcurrentChannels;
+  private final int queueCapacity;
+  private final int channelQueueCapacity;
+  @NotNull private final Executor executor;
+  @Nullable private final ExecutorService ownedExecutor;
+  @NotNull private final Semaphore permits;
+
+  private final Object lock = new Object();
+  // Guarded by the lock, only holds the channels with messages queued, in flight or being submitted
+  @NotNull private final Map<String, ChannelQueue> channelQueues = new HashMap<>();
+  @NotNull private final ArrayDeque<ChannelQueue> readyChannels = new ArrayDeque<>();
+  private int sendingChannels;
+  private volatile boolean closed;
+
+  private final LongAdder sentMessages = new LongAdder();
+  private final LongAdder failedMessages = new LongAdder();
+
+  private MessageSendPipeline(@NotNull Builder builder) {
+    this.client = builder.client;
+    this.skipPush = builder.skipPush;
+    this.maxConcurrentChannels = builder.maxConcurrentChannels;
+    this.queueCapacity = builder.queueCapacity;
+    this.channelQueueCapacity = builder.channelQueueCapacity;
+    this.permits = new Semaphore(queueCapacity);
+    if (builder.executor != null) {
+      this.executor = builder.executor;
+      this.ownedExecutor = null;
+    } else {
+      AtomicInteger threadCount = new AtomicInteger();
+      this.ownedExecutor =
+          Executors.newFixedThreadPool(
+              Runtime.getRuntime().availableProcessors(),
+              runnable -> {
+                Thread thread =
+                    new Thread(
+                        runnable, "stream-chat-send-pipeline-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+              });
+      this.executor = ownedExecutor;
+    }
+  }
+
+  @NotNull
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Queues a message, waiting for room in the queues if needed
+   *
+   * @param channelType the channel type
+   * @param channelId the channel id
+   * @param message the message
+   * @return a future completing with the response of the message, or with a StreamException
+   * @throws InterruptedException if interrupted while waiting
+   */
+  @NotNull
+  public CompletableFuture<MessageSendResponse> submit(
+      @NotNull String channelType, @NotNull String channelId, @NotNull MessageRequestObject message)
+      throws InterruptedException {
+    return submit(channelType, channelId, message, -1);
+  }
+
+  /**
+   * Queues a message, waiting at most {@code timeout} for room in the queues
+   *
+   * @param channelType the channel type
+   * @param channelId the channel id
+   * @param message the message
+   * @param timeout how long to wait for room in the queues
+   * @return a future completing with the response of the message, or null if the queues stayed
+   *     full
+   * @throws InterruptedException if interrupted while waiting
+   */
+  @Nullable
+  public CompletableFuture<MessageSendResponse> trySubmit(
+      @NotNull String channelType,
+      @NotNull String channelId,
+      @NotNull MessageRequestObject message,
+      @NotNull Duration timeout)
+      throws InterruptedException {
+    return submit(channelType, channelId, message, Math.max(0, timeout.toNanos()));
+  }
+
+  /**
+   * Returns the statistics of a channel, kept while it has messages queued or in flight
+   *
+   * @param channelType the channel type
+   * @param channelId the channel id
+   * @return the statistics, or null if the channel is idle
+   */
+  @Nullable
+  public ChannelStats getChannelStats(@NotNull String channelType, @NotNull String channelId) {
+    synchronized (lock) {
+      ChannelQueue queue = channelQueues.get(channelType + ":" + channelId);
+      return queue != null ? queue.toStats() : null;
+    }
+  }
+
+  /** @return the statistics of the channels with messages queued or in flight, by cid */
+  @NotNull
+  public Map<String, ChannelStats> getChannelStats() {
+    synchronized (lock) {
+      return channelQueues.values().stream()
+          .collect(Collectors.toMap(queue -> queue.cid, ChannelQueue::toStats));
+    }
+  }
+
+  /** @return the number of messages queued or in flight */
+  public int getQueuedCount() {
+    return queueCapacity - permits.availablePermits();
+  }
+
+  public long getSentCount() {
+    return sentMessages.sum();
+  }
+
+  public long getFailedCount() {
+    return failedMessages.sum();
+  }
+
+  @Override
+  public String toString() {
+    int channelCount;
+    synchronized (lock) {
+      channelCount = channelQueues.size();
+    }
+    return "MessageSendPipeline(channels="
+        + channelCount
+        + ", queued="
+        + getQueuedCount()
+        + ", sent="
+        + getSentCount()
+        + ", failed="
+        + getFailedCount()
+        + ")";
+  }
+
+  /** Rejects new messages and waits for the queued ones to be sent */
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    permits.acquireUninterruptibly(queueCapacity);
+    if (ownedExecutor != null) {
+      ownedExecutor.shutdown();
+    }
+    permits.release(queueCapacity);
+  }
+
+  @Nullable
+  private CompletableFuture<MessageSendResponse> submit(
+      @NotNull String channelType,
+      @NotNull String channelId,
+      @NotNull MessageRequestObject message,
+      long timeoutNanos)
+      throws InterruptedException {
+    if (closed) {
+      throw new IllegalStateException("The pipeline is closed");
+    }
+    ChannelQueue queue;
+    synchronized (lock) {
+      queue =
+          channelQueues.computeIfAbsent(
+              channelType + ":" + channelId,
+              cid -> new ChannelQueue(cid, channelType, channelId, channelQueueCapacity));
+      // Keeps the queue from being evicted while waiting for the permits
+      queue.submitters++;
+    }
+    boolean acquired = false;
+    try {
+      long startNanos = System.nanoTime();
+      if (!acquire(queue.permits, timeoutNanos)) {
+        return null;
+      }
+      long remainingNanos =
+          timeoutNanos < 0 ? -1 : Math.max(0, timeoutNanos - (System.nanoTime() - startNanos));
+      if (!acquire(permits, remainingNanos)) {
+        queue.permits.release();
+        return null;
+      }
+      acquired = true;
+    } finally {
+      if (!acquired) {
+        synchronized (lock) {
+          queue.submitters--;
+          evictIfIdle(queue);
+        }
+      }
+    }
+
+    var pendingMessage = new PendingMessage(message, System.nanoTime());
+    List<Runnable> started;
+    synchronized (lock) {
+      queue.submitters--;
+      // close() may have started while waiting: its executor would reject the completion
+      if (closed) {
+        evictIfIdle(queue);
+        queue.permits.release();
+        permits.release();
+        throw new IllegalStateException("The pipeline is closed");
+      }
+      queue.pendingMessages.add(pendingMessage);
+      markReady(queue);
+      started = drain();
+    }
+    started.forEach(Runnable::run);
+    return pendingMessage.future;
+  }
+
+  private static boolean acquire(@NotNull Semaphore semaphore, long timeoutNanos)
+      throws InterruptedException {
+    if (timeoutNanos < 0) {
+      semaphore.acquire();
+      return true;
+    }
+    return semaphore.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+  }
+
+  private void send(@NotNull ChannelQueue queue, @NotNull PendingMessage pendingMessage) {
+    CompletableFuture<MessageSendResponse> sendFuture;
+    try {
+      MessageSendRequest request =
+          Message.send(queue.channelType, queue.channelId).message(pendingMessage.message);
+      if (skipPush) {
+        request.skipPush(true);
+      }
+      if (client != null) {
+        request.withClient(client);
+      }
+      sendFuture = request.requestFuture();
+    } catch (RuntimeException e) {
+      sendFuture = CompletableFuture.failedFuture(StreamException.build(e));
+    }
+    // Completed on the executor, so that failing sends do not chain up on the stack
+    sendFuture.whenCompleteAsync(
+        (response, throwable) -> {
+          long now = System.nanoTime();
+          queue.record(throwable == null, now, now - pendingMessage.submittedAtNanos);
+          (throwable == null ? sentMessages : failedMessages).increment();
+          List<Runnable> started;
+          synchronized (lock) {
+            queue.sending = false;
+            sendingChannels--;
+            markReady(queue);
+            evictIfIdle(queue);
+            started = drain();
+          }
+          queue.permits.release();
+          permits.release();
+          started.forEach(Runnable::run);
+          if (throwable != null) {
+            pendingMessage.future.completeExceptionally(throwable);
+          } else {
+            pendingMessage.future.complete(response);
+          }
+        },
+        executor);
+  }
+
+  /** Queues the channel for a turn, if it has a message waiting and none in flight */
+  private void markReady(@NotNull ChannelQueue queue) {
+    if (!queue.ready && !queue.sending && !queue.pendingMessages.isEmpty()) {
+      queue.ready = true;
+      readyChannels.add(queue);
+    }
+  }
+
+  /** Forgets the channel once nothing is queued, in flight or being submitted to it */
+  private void evictIfIdle(@NotNull ChannelQueue queue) {
+    if (!queue.sending && queue.submitters == 0 && queue.pendingMessages.isEmpty()) {
+      channelQueues.remove(queue.cid, queue);
+    }
+  }
+
+  /** Takes the messages to send, one per channel. They are sent out of the lock. */
+  @NotNull
+  private List<Runnable> drain() {
+    List<Runnable> started = new ArrayList<>();
+    while (sendingChannels < maxConcurrentChannels && !readyChannels.isEmpty()) {
+      ChannelQueue queue = readyChannels.poll();
+      queue.ready = false;
+      queue.sending = true;
+      sendingChannels++;
+      PendingMessage pendingMessage = queue.pendingMessages.poll();
+      started.add(() -> send(queue, pendingMessage));
+    }
+    return started;
+  }
+
+  /** A snapshot of the statistics of a channel */
+  public static class ChannelStats {
+    private final int queuedCount;
+    private final long sentCount;
+    private final long failedCount;
+    @NotNull private final Duration lag;
+    @NotNull private final Duration lastLatency;
+    private final double throughput;
+
+    private ChannelStats(
+        int queuedCount,
+        long sentCount,
+        long failedCount,
+        @NotNull Duration lag,
+        @NotNull Duration lastLatency,
+        double throughput) {
+      this.queuedCount = queuedCount;
+      this.sentCount = sentCount;
+      this.failedCount = failedCount;
+      this.lag = lag;
+      this.lastLatency = lastLatency;
+      this.throughput = throughput;
+    }
+
+    /** @return the number of messages waiting, the one in flight excluded */
+    public int getQueuedCount() {
+      return queuedCount;
+    }
+
+    public long getSentCount() {
+      return sentCount;
+    }
+
+    public long getFailedCount() {
+      return failedCount;
+    }
+
+    /** @return how long the oldest waiting message has been queued, zero if none is waiting */
+    @NotNull
+    public Duration getLag() {
+      return lag;
+    }
+
+    /** @return the time between the submission and the response of the last message */
+    @NotNull
+    public Duration getLastLatency() {
+      return lastLatency;
+    }
+
+    /** @return the recent number of messages sent per second, exponentially weighted */
+    public double getThroughput() {
+      return throughput;
+    }
+
+    @Override
+    public String toString() {
+      return "ChannelStats(queued="
+          + queuedCount
+          + ", sent="
+          + sentCount
+          + ", failed="
+          + failedCount
+          + ", lag="
+          + lag
+          + ", lastLatency="
+          + lastLatency
+          + ", throughput="
+          + String.format("%.2f", throughput)
+          + "/s)";
+    }
+  }
+
+  private static class PendingMessage {
+    @NotNull private final MessageRequestObject message;
+    private final long submittedAtNanos;
+
+    @NotNull
+    private final CompletableFuture<MessageSendResponse> future = new CompletableFuture<>();
+
+    PendingMessage(@NotNull MessageRequestObject message, long submittedAtNanos) {
+      this.message = message;
+      this.submittedAtNanos = submittedAtNanos;
+    }
+  }
+
+  private class ChannelQueue {
+    @NotNull private final String cid;
+    @NotNull private final String channelType;
+    @NotNull private final String channelId;
+    @NotNull private final Semaphore permits;
+
+    // Guarded by the pipeline lock
+    @NotNull private final ArrayDeque<PendingMessage> pendingMessages = new ArrayDeque<>();
+    private boolean sending;
+    private boolean ready;
+    private int submitters;
+
+    // Guarded by this queue
+    private long sentCount;
+    private long failedCount;
+    private long lastLatencyNanos;
+    private double rate;
+    private long rateUpdatedAtNanos = System.nanoTime();
+
+    ChannelQueue(
+        @NotNull String cid,
+        @NotNull String channelType,
+        @NotNull String channelId,
+        int capacity) {
+      this.cid = cid;
+      this.channelType = channelType;
+      this.channelId = channelId;
+      this.permits = new Semaphore(capacity);
+    }
+
+    synchronized void record(boolean successful, long now, long latencyNanos) {
+      if (successful) {
+        sentCount++;
+        rate = decayedRate(now) + 1e9 / RATE_DECAY_NANOS;
+        rateUpdatedAtNanos = now;
+      } else {
+        failedCount++;
+      }
+      lastLatencyNanos = latencyNanos;
+    }
+
+    private double decayedRate(long now) {
+      return rate * Math.exp(-(now - rateUpdatedAtNanos) / RATE_DECAY_NANOS);
+    }
+
+    @NotNull
+    ChannelStats toStats() {
+      long now = System.nanoTime();
+      int queuedCount;
+      long lagNanos;
+      synchronized (lock) {
+        queuedCount = pendingMessages.size();
+        PendingMessage oldest = pendingMessages.peek();
+        lagNanos = oldest != null ? now - oldest.submittedAtNanos : 0;
+      }
+      synchronized (this) {
+        return new ChannelStats(
+            queuedCount,
+            sentCount,
+            failedCount,
+            Duration.ofNanos(lagNanos),
+            Duration.ofNanos(lastLatencyNanos),
+            decayedRate(now));
+      }
+    }
+  }
+
+  public static class Builder {
+    @Nullable private Client client;
+    @Nullable private Executor executor;
+    private boolean skipPush;
+    private int maxConcurrentChannels = 32;
+    private int queueCapacity = 10_000;
+    private int channelQueueCapacity = 1000;
+
+    private Builder() {}
+
+    @NotNull
+    public Builder client(@NotNull Client client) {
+      this.client = client;
+      return this;
+    }
+
+    /**
+     * Sets the executor completing the sends and starting the next ones, a pool with one thread
+     * per processor by default
+     *
+     * @param executor the executor
+     * @return the builder
+     */
+    @NotNull
+    public Builder executor(@NotNull Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * Sends the messages without push notifications
+     *
+     * @param skipPush whether to skip push notifications
+     * @return the builder
+     */
+    @NotNull
+    public Builder skipPush(boolean skipPush) {
+      this.skipPush = skipPush;
+      return this;
+    }
+
+    @NotNull
+    public Builder maxConcurrentChannels(int maxConcurrentChannels) {
+      if (maxConcurrentChannels <= 0) {
+        throw new IllegalArgumentException("maxConcurrentChannels should be positive");
+      }
+      this.maxConcurrentChannels = maxConcurrentChannels;
+      return this;
+    }
+
+    @NotNull
+    public Builder queueCapacity(int queueCapacity) {
+      if (queueCapacity <= 0) {
+        throw new IllegalArgumentException("queueCapacity should be positive");
+      }
+      this.queueCapacity = queueCapacity;
+      return this;
+    }
+
+    @NotNull
+    public Builder channelQueueCapacity(int channelQueueCapacity) {
+      if (channelQueueCapacity <= 0) {
+        throw new IllegalArgumentException("channelQueueCapacity should be positive");
+      }
+      this.channelQueueCapacity = channelQueueCapacity;
+      return this;
+    }
+
+    @NotNull
+    public MessageSendPipeline build() {
+      return new MessageSendPipeline(this);
+    }
+  }
+}
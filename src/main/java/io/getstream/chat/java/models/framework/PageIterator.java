@@ -0,0 +1,192 @@
+package io.getstream.chat.java.models.framework;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Iterates lazily over all the results of a paginated request. While the consumer works on the
+ * current page, the next {@code readAhead} pages are already being fetched.
+ *
+ * <p>Pages are requested either by offset/limit or, with {@link #cursor}, after the last item of
+ * the previous page. Offset paging is only stable if the underlying data does not change while
+ * iterating, and the API caps the offset it accepts, so it cannot reach deep pages. Cursor paging
+ * has neither limitation, but each page is only requested once the previous one has arrived.
+ *
+ * <p>Iteration stops at the first page holding fewer than {@code pageSize} items.
+ *
+ * <p>This iterator is not thread safe. When a page cannot be fetched, {@link #hasNext()} and
+ * {@link #next()} throw a {@link java.util.concurrent.CompletionException} whose cause is the
+ * {@link io.getstream.chat.java.exceptions.StreamException}.
+ *
+ * @param <T> the type of the items
+ */
+public class PageIterator<T> implements Iterator<T> {
+  @FunctionalInterface
+  public interface PageLoader<T> {
+    /**
+     * Requests a page
+     *
+     * @param offset the number of items to skip
+     * @param limit the maximum number of items to return
+     * @return the future page items
+     */
+    @NotNull
+    CompletableFuture<List<T>> load(int offset, int limit);
+  }
+
+  @FunctionalInterface
+  public interface CursorPageLoader<T> {
+    /**
+     * Requests a page
+     *
+     * @param after the last item of the previous page, or null for the first page
+     * @param limit the maximum number of items to return
+     * @return the future page items
+     */
+    @NotNull
+    CompletableFuture<List<T>> load(@Nullable T after, int limit);
+  }
+
+  @NotNull private final UnaryOperator<CompletableFuture<List<T>>> nextPageLoader;
+  private final int pageSize;
+  private final int readAhead;
+  @NotNull private final Deque<CompletableFuture<List<T>>> pendingPages = new ArrayDeque<>();
+  @NotNull private Iterator<T> currentPage = Collections.emptyIterator();
+  @Nullable private CompletableFuture<List<T>> lastRequestedPage;
+  private boolean lastPageReached;
+
+  /**
+   * Creates a page iterator
+   *
+   * @param pageLoader requests a page
+   * @param pageSize the number of items per page
+   * @param readAhead the number of pages fetched ahead of the one being consumed
+   */
+  public PageIterator(@NotNull PageLoader<T> pageLoader, int pageSize, int readAhead) {
+    this(
+        new UnaryOperator<CompletableFuture<List<T>>>() {
+          private int nextOffset;
+
+          @Override
+          public CompletableFuture<List<T>> apply(CompletableFuture<List<T>> previousPage) {
+            CompletableFuture<List<T>> page = pageLoader.load(nextOffset, pageSize);
+            nextOffset += pageSize;
+            return page;
+          }
+        },
+        pageSize,
+        readAhead);
+  }
+
+  private PageIterator(
+      @NotNull UnaryOperator<CompletableFuture<List<T>>> nextPageLoader,
+      int pageSize,
+      int readAhead) {
+    if (pageSize <= 0) {
+      throw new IllegalArgumentException("pageSize should be positive");
+    }
+    if (readAhead < 0) {
+      throw new IllegalArgumentException("readAhead should not be negative");
+    }
+    this.nextPageLoader = nextPageLoader;
+    this.pageSize = pageSize;
+    this.readAhead = readAhead;
+  }
+
+  /**
+   * Creates a page iterator requesting every page after the last item of the previous one. Pages
+   * fetched ahead are chained: each one is requested as soon as the previous one has arrived.
+   *
+   * @param pageLoader requests a page
+   * @param pageSize the number of items per page
+   * @param readAhead the number of pages fetched ahead of the one being consumed
+   * @param <T> the type of the items
+   * @return the page iterator
+   */
+  @NotNull
+  public static <T> PageIterator<T> cursor(
+      @NotNull CursorPageLoader<T> pageLoader, int pageSize, int readAhead) {
+    return new PageIterator<>(
+        previousPage ->
+            previousPage == null
+                ? pageLoader.load(null, pageSize)
+                : previousPage.thenCompose(
+                    page ->
+                        page == null || page.size() < pageSize
+                            ? CompletableFuture.completedFuture(Collections.<T>emptyList())
+                            : pageLoader.load(page.get(page.size() - 1), pageSize)),
+        pageSize,
+        readAhead);
+  }
+
+  @Override
+  public boolean hasNext() {
+    while (!currentPage.hasNext()) {
+      if (lastPageReached) {
+        return false;
+      }
+      // The page about to be consumed plus the ones fetched ahead
+      fetchAhead(readAhead + 1);
+      List<T> page = pendingPages.remove().join();
+      if (page == null || page.size() < pageSize) {
+        lastPageReached = true;
+        pendingPages.forEach(pendingPage -> pendingPage.cancel(true));
+        pendingPages.clear();
+      }
+      currentPage = page != null ? page.iterator() : Collections.emptyIterator();
+    }
+    return true;
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    T item = currentPage.next();
+    // Keep the read-ahead window full while the consumer works on this item
+    fetchAhead(readAhead);
+    return item;
+  }
+
+  /**
+   * Returns a sequential stream over the remaining items. Closing the stream cancels the pages
+   * fetched ahead.
+   *
+   * @return the stream
+   */
+  @NotNull
+  public Stream<T> stream() {
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL),
+            false)
+        .onClose(this::cancel);
+  }
+
+  /** Stops the iteration and cancels the pages fetched ahead */
+  public void cancel() {
+    lastPageReached = true;
+    currentPage = Collections.emptyIterator();
+    pendingPages.forEach(pendingPage -> pendingPage.cancel(true));
+    pendingPages.clear();
+  }
+
+  private void fetchAhead(int pageCount) {
+    while (!lastPageReached && pendingPages.size() < pageCount) {
+      lastRequestedPage = nextPageLoader.apply(lastRequestedPage);
+      pendingPages.add(lastRequestedPage);
+    }
+  }
+}
@@ -1,19 +1,39 @@
 package io.getstream.chat.java.models.framework;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.lang.reflect.WildcardType;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import lombok.extern.java.Log;
 
 @Log
 public class RequestObjectBuilder {
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+  private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+  private static final MethodType SETTER_TYPE =
+      MethodType.methodType(Object.class, Object.class, Object.class);
+
+  // Plans are computed once per (request object class, model class) pair
+  private static final ClassValue<Map<Class<?>, BuildPlan>> PLANS =
+      new ClassValue<>() {
+        @Override
+        protected Map<Class<?>, BuildPlan> computeValue(Class<?> requestObjectClass) {
+          return new ConcurrentHashMap<>();
+        }
+      };
 
   @SuppressWarnings("unchecked")
   /**
@@ -30,142 +50,228 @@ public class RequestObjectBuilder {
     if (modelObject == null) {
       return null;
     }
-    log.fine("Building instance of " + requestObjectClass.getName());
-    Object resultBuilder;
-    try {
-      resultBuilder = requestObjectClass.getMethod("builder").invoke(requestObjectClass);
-    } catch (IllegalAccessException
-        | IllegalArgumentException
-        | InvocationTargetException
-        | NoSuchMethodException
-        | SecurityException e) {
-      throw new IllegalArgumentException(
-          "Could not find builder method in the request object class "
-              + requestObjectClass.getName(),
-          e);
+    BuildPlan plan =
+        PLANS
+            .get(requestObjectClass)
+            .computeIfAbsent(
+                modelObject.getClass(),
+                modelObjectClass -> BuildPlan.create(requestObjectClass, modelObjectClass));
+    return (U) plan.build(modelObject);
+  }
+
+  /**
+   * The steps copying the fields of a model class into the builder of a request object class,
+   * resolved once with reflection and then executed through method handles
+   */
+  private static class BuildPlan {
+    private final MethodHandle builderFactory;
+    private final MethodHandle buildMethod;
+    private final List<FieldStep> steps;
+
+    private BuildPlan(
+        MethodHandle builderFactory, MethodHandle buildMethod, List<FieldStep> steps) {
+      this.builderFactory = builderFactory;
+      this.buildMethod = buildMethod;
+      this.steps = steps;
+    }
+
+    static BuildPlan create(Class<?> requestObjectClass, Class<?> modelObjectClass) {
+      log.fine(
+          "Building plan from "
+              + modelObjectClass.getName()
+              + " to "
+              + requestObjectClass.getName());
+      MethodHandle builderFactory;
+      Class<?> resultBuilderClass;
+      try {
+        Method builderMethod = requestObjectClass.getMethod("builder");
+        builderMethod.setAccessible(true);
+        builderFactory =
+            LOOKUP.unreflect(builderMethod).asType(MethodType.methodType(Object.class));
+        resultBuilderClass = builderMethod.invoke(requestObjectClass).getClass();
+      } catch (IllegalAccessException
+          | IllegalArgumentException
+          | InvocationTargetException
+          | NoSuchMethodException
+          | SecurityException e) {
+        throw new IllegalArgumentException(
+            "Could not find builder method in the request object class "
+                + requestObjectClass.getName(),
+            e);
+      }
+
+      MethodHandle buildMethod;
+      try {
+        Method method = resultBuilderClass.getMethod("build");
+        method.setAccessible(true);
+        buildMethod = LOOKUP.unreflect(method).asType(GETTER_TYPE);
+      } catch (IllegalAccessException | NoSuchMethodException | SecurityException e) {
+        throw new IllegalArgumentException(
+            "Could not find build method in the request object builder class "
+                + resultBuilderClass.getName(),
+            e);
+      }
+
+      List<FieldStep> steps = new ArrayList<>();
+      for (Field field : getAllFields(modelObjectClass)) {
+        // Find a method with fieldName as method name and single parameter
+        Method resultBuilderMethod = findBuilderMethod(resultBuilderClass, field.getName());
+        if (resultBuilderMethod == null) {
+          continue;
+        }
+        steps.add(FieldStep.create(field, resultBuilderMethod, modelObjectClass));
+      }
+      return new BuildPlan(builderFactory, buildMethod, steps);
+    }
+
+    Object build(Object modelObject) {
+      Object resultBuilder;
+      try {
+        resultBuilder = builderFactory.invokeExact();
+      } catch (Throwable e) {
+        throw new IllegalArgumentException("Could not create the request object builder", e);
+      }
+      for (FieldStep step : steps) {
+        step.apply(resultBuilder, modelObject);
+      }
+      try {
+        return buildMethod.invokeExact(resultBuilder);
+      } catch (Throwable e) {
+        throw new IllegalArgumentException(
+            "Could not build the request object from " + modelObject.getClass().getName(), e);
+      }
+    }
+  }
+
+  private enum Conversion {
+    // The field value is passed as is
+    NONE,
+    // The field is a list whose elements are converted to request objects
+    LIST,
+    // The field value is converted to a request object
+    OBJECT
+  }
+
+  private static class FieldStep {
+    private final String fieldName;
+    private final String modelObjectClassName;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    private final Conversion conversion;
+    private final Class<?> targetClass;
+    private final boolean skipNull;
+
+    private FieldStep(
+        String fieldName,
+        String modelObjectClassName,
+        MethodHandle getter,
+        MethodHandle setter,
+        Conversion conversion,
+        Class<?> targetClass,
+        boolean skipNull) {
+      this.fieldName = fieldName;
+      this.modelObjectClassName = modelObjectClassName;
+      this.getter = getter;
+      this.setter = setter;
+      this.conversion = conversion;
+      this.targetClass = targetClass;
+      this.skipNull = skipNull;
     }
-    Class<?> resultBuilderClass = resultBuilder.getClass();
-    for (Field field : getAllFields(modelObject.getClass())) {
-      log.fine(field.getName() + " - Start treatment");
-      field.setAccessible(true);
+
+    static FieldStep create(Field field, Method resultBuilderMethod, Class<?> modelObjectClass) {
+      MethodHandle getter;
+      MethodHandle setter;
+      try {
+        field.setAccessible(true);
+        getter = LOOKUP.unreflectGetter(field);
+        if (Modifier.isStatic(field.getModifiers())) {
+          getter = MethodHandles.dropArguments(getter, 0, Object.class);
+        }
+        getter = getter.asType(GETTER_TYPE);
+        resultBuilderMethod.setAccessible(true);
+        setter = LOOKUP.unreflect(resultBuilderMethod).asType(SETTER_TYPE);
+      } catch (IllegalAccessException | RuntimeException e) {
+        throw new IllegalArgumentException(
+            "This should not happen. Field is "
+                + field.getName()
+                + " in "
+                + modelObjectClass.getName(),
+            e);
+      }
+
       Class<?> fieldClass = field.getType();
-      // Find a method with fieldName as method name and single parameter
-      Method resultBuilderMethod = findBuilderMethod(resultBuilderClass, field.getName());
-      if (resultBuilderMethod != null) {
-        Class<?> methodParameterClass = resultBuilderMethod.getParameters()[0].getType();
-        log.fine(
-            field.getName()
-                + " - methodParameterClass="
-                + methodParameterClass.getName()
-                + " and fieldClass="
-                + fieldClass.getName());
-        if (Collection.class.isAssignableFrom(methodParameterClass)
-            && List.class.isAssignableFrom(fieldClass)) {
-          try {
-            // If both List
-            ParameterizedType methodParameterParameterizedType =
-                (ParameterizedType) resultBuilderMethod.getGenericParameterTypes()[0];
-            Class<?> methodParameterGenericClass;
-            if (methodParameterParameterizedType.getActualTypeArguments()[0]
-                instanceof WildcardType) {
-              // Lombok builder creates methods like xxx(Collection<? extends YYY>) for singular
-              WildcardType methodParameterWildcardType =
-                  (WildcardType) methodParameterParameterizedType.getActualTypeArguments()[0];
-              methodParameterGenericClass =
-                  (Class<?>) methodParameterWildcardType.getUpperBounds()[0];
-            } else {
-              methodParameterGenericClass =
-                  (Class<?>) methodParameterParameterizedType.getActualTypeArguments()[0];
-            }
-            ParameterizedType fieldParameterizedType = (ParameterizedType) field.getGenericType();
-            Class<?> fieldGenericClass =
-                (Class<?>) fieldParameterizedType.getActualTypeArguments()[0];
-            log.fine(
-                field.getName()
-                    + " - Both lists. methodParameterGenericClass="
-                    + methodParameterGenericClass
-                    + " and fieldGenericClass="
-                    + fieldGenericClass);
-            if (field.get(modelObject) == null) {
-              // Do nothing (cannot call builder method as does not accept null)
-            } else if (methodParameterGenericClass.isAssignableFrom(fieldGenericClass)) {
-              log.fine(field.getName() + " - Both lists and types match. Calling builder method");
-              resultBuilderMethod.invoke(resultBuilder, field.get(modelObject));
-            } else {
-              log.fine(
-                  field.getName() + " - Both lists and RequestObject. RequestObjectBuilder.build");
-              List<?> requestObjectsList =
-                  ((List<?>) field.get(modelObject))
-                      .stream()
-                          .map(
-                              modelFieldValue -> {
-                                return RequestObjectBuilder.build(
-                                    methodParameterGenericClass, modelFieldValue);
-                              })
-                          .collect(Collectors.toList());
-              resultBuilderMethod.invoke(resultBuilder, requestObjectsList);
-            }
-          } catch (IllegalArgumentException
-              | IllegalAccessException
-              | InvocationTargetException e) {
-            throw new IllegalArgumentException(
-                "This should not happen. Field is "
-                    + field.getName()
-                    + " in "
-                    + modelObject.getClass().getName(),
-                e);
-          }
-        } else if (methodParameterClass.isAssignableFrom(fieldClass)) {
-          // If the types match between field and method
-          try {
-            log.fine(field.getName() + " - Types match. Calling builder method");
-            resultBuilderMethod.invoke(resultBuilder, field.get(modelObject));
-          } catch (IllegalAccessException
-              | IllegalArgumentException
-              | InvocationTargetException e) {
-            throw new IllegalArgumentException(
-                "This should not happen. Field is "
-                    + field.getName()
-                    + " in "
-                    + modelObject.getClass().getName(),
-                e);
-          }
+      Class<?> methodParameterClass = resultBuilderMethod.getParameterTypes()[0];
+      Conversion conversion;
+      Class<?> targetClass = methodParameterClass;
+      boolean skipNull = false;
+      if (Collection.class.isAssignableFrom(methodParameterClass)
+          && List.class.isAssignableFrom(fieldClass)) {
+        // Cannot call builder method with null lists
+        skipNull = true;
+        // Lombok builder creates methods like xxx(Collection<? extends YYY>) for singular
+        Class<?> methodParameterGenericClass =
+            rawClass(
+                ((ParameterizedType) resultBuilderMethod.getGenericParameterTypes()[0])
+                    .getActualTypeArguments()[0]);
+        Class<?> fieldGenericClass =
+            rawClass(((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0]);
+        if (methodParameterGenericClass.isAssignableFrom(fieldGenericClass)) {
+          conversion = Conversion.NONE;
         } else {
-          // Type is a RequestObject
-          try {
-            log.fine(field.getName() + " - Types do not match. Calling RequestObjectBuilder.build");
-            resultBuilderMethod.invoke(
-                resultBuilder,
-                RequestObjectBuilder.build(methodParameterClass, field.get(modelObject)));
-          } catch (IllegalAccessException
-              | IllegalArgumentException
-              | InvocationTargetException e) {
-            throw new IllegalArgumentException(
-                "This should not happen. Field is "
-                    + field.getName()
-                    + " in "
-                    + modelObject.getClass().getName(),
-                e);
-          }
+          conversion = Conversion.LIST;
+          targetClass = methodParameterGenericClass;
         }
+      } else if (methodParameterClass.isAssignableFrom(fieldClass)) {
+        conversion = Conversion.NONE;
       } else {
-        log.fine(field.getName() + " - Could not find method in builder");
+        conversion = Conversion.OBJECT;
       }
+      return new FieldStep(
+          field.getName(),
+          modelObjectClass.getName(),
+          getter,
+          setter,
+          conversion,
+          targetClass,
+          skipNull);
+    }
+
+    void apply(Object resultBuilder, Object modelObject) {
+      try {
+        Object value = getter.invokeExact(modelObject);
+        if (value == null && skipNull) {
+          return;
+        }
+        switch (conversion) {
+          case LIST:
+            value =
+                ((List<?>) value)
+                    .stream()
+                        .map(element -> RequestObjectBuilder.build(targetClass, element))
+                        .collect(Collectors.toList());
+            break;
+          case OBJECT:
+            value = RequestObjectBuilder.build(targetClass, value);
+            break;
+          default:
+            break;
+        }
+        Object ignored = setter.invokeExact(resultBuilder, value);
+      } catch (Throwable e) {
+        throw new IllegalArgumentException(
+            "This should not happen. Field is " + fieldName + " in " + modelObjectClassName, e);
+      }
+    }
+  }
+
+  private static Class<?> rawClass(Type type) {
+    if (type instanceof WildcardType) {
+      return rawClass(((WildcardType) type).getUpperBounds()[0]);
     }
-    try {
-      U result = (U) resultBuilderClass.getMethod("build").invoke(resultBuilder);
-      log.fine("Finished instance of " + requestObjectClass.getName());
-      return result;
-    } catch (IllegalAccessException
-        | IllegalArgumentException
-        | InvocationTargetException
-        | NoSuchMethodException
-        | SecurityException e) {
-      throw new IllegalArgumentException(
-          "Could not find build method in the request object builder class "
-              + resultBuilderClass.getName(),
-          e);
+    if (type instanceof ParameterizedType) {
+      return (Class<?>) ((ParameterizedType) type).getRawType();
     }
+    return (Class<?>) type;
   }
 
   /**
@@ -3,6 +3,9 @@ package io.getstream.chat.java.models.framework;
 import io.getstream.chat.java.exceptions.StreamException;
 import io.getstream.chat.java.services.framework.Client;
 import io.getstream.chat.java.services.framework.StreamServiceHandler;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -13,6 +16,8 @@ public abstract class StreamRequest<T extends StreamResponse> {
 
   private Client client;
 
+  @Nullable private Duration timeout;
+
   /**
    * Executes the request
    *
@@ -21,7 +26,8 @@ public abstract class StreamRequest<T extends StreamResponse> {
    */
   @NotNull
   public T request() throws StreamException {
-    return new StreamServiceHandler().handle(generateCall(getClient()));
+    var client = getClient();
+    return new StreamServiceHandler(client).handle(generateCall(client), timeout);
   }
 
   /**
@@ -34,7 +40,8 @@ public abstract class StreamRequest<T extends StreamResponse> {
       @Nullable Consumer<T> onSuccess, @Nullable Consumer<StreamException> onError) {
     try {
       var client = getClient();
-      new StreamServiceHandler().handleAsync(generateCall(client), onSuccess, onError);
+      new StreamServiceHandler(client)
+          .handleAsync(generateCall(client), timeout, onSuccess, onError);
     } catch (StreamException e) {
       if (onError != null) {
         onError.accept(e);
@@ -42,6 +49,52 @@ public abstract class StreamRequest<T extends StreamResponse> {
     }
   }
 
+  /**
+   * Executes the request asynchronously and returns a future of its response. The future
+   * completes exceptionally with a StreamException when IO problem occurs or the stream API return
+   * an error. Cancelling it cancels the HTTP call.
+   *
+   * @return the future response
+   */
+  @NotNull
+  public CompletableFuture<T> requestFuture() {
+    return requestFuture(null, null);
+  }
+
+  /**
+   * Executes the request asynchronously and returns a future of its response
+   *
+   * @param executor the executor completing the future (and running the non-async dependent
+   *     stages), or null to use the HTTP dispatcher thread
+   * @return the future response
+   */
+  @NotNull
+  public CompletableFuture<T> requestFuture(@Nullable Executor executor) {
+    return requestFuture(executor, null);
+  }
+
+  /**
+   * Executes the request asynchronously and returns a future of its response
+   *
+   * @param executor the executor completing the future (and running the non-async dependent
+   *     stages), or null to use the HTTP dispatcher thread
+   * @param timeout the timeout of this call, or null to use the one set with {@link
+   *     #withTimeout(Duration)} or else the client timeout
+   * @return the future response
+   */
+  @NotNull
+  public CompletableFuture<T> requestFuture(
+      @Nullable Executor executor, @Nullable Duration timeout) {
+    try {
+      var client = getClient();
+      return new StreamServiceHandler(client)
+          .handleFuture(
+              generateCall(client), executor, timeout != null ? timeout : this.timeout);
+    } catch (StreamException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
   /**
    * Use custom client implementation to execute requests
    *
@@ -52,6 +105,17 @@ public abstract class StreamRequest<T extends StreamResponse> {
     return this;
   }
 
+  /**
+   * Bounds the total duration of this request, overriding the client timeout. The deadline covers
+   * the time spent waiting for the client-side rate limiter and all the retries.
+   *
+   * @param timeout the timeout, zero for none
+   */
+  public StreamRequest<T> withTimeout(@NotNull Duration timeout) {
+    this.timeout = timeout;
+    return this;
+  }
+
   @NotNull
   protected Client getClient() {
     return (client == null) ? Client.getInstance() : client;
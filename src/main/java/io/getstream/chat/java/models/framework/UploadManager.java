@@ -0,0 +1,352 @@
+package io.getstream.chat.java.models.framework;
+
+import io.getstream.chat.java.exceptions.StreamException;
+import io.getstream.chat.java.models.Message.ImageSizeRequestObject;
+import io.getstream.chat.java.models.Message.MessageUploadFileResponse;
+import io.getstream.chat.java.models.Message.MessageUploadImageResponse;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Runs many file and image uploads in parallel, with at most {@code maxConcurrentUploads} running
+ * at a time and at most {@code maxConcurrentUploadsPerChannel} per channel. The other uploads wait
+ * in memory, the channels taking turns as uploads complete.
+ *
+ * <p>Uploads go through the asynchronous methods of the file handler, so no thread is held while
+ * they wait or run. The content of waiting uploads is not read until they start.
+ *
+ * <pre>{@code
+ * var uploadManager =
+ *     UploadManager.builder().maxConcurrentUploads(32).maxConcurrentUploadsPerChannel(4).build();
+ * for (Path path : attachments) {
+ *   uploadManager
+ *       .uploadFile("messaging", channelId, userId, null, UploadSource.of(path))
+ *       .thenAccept(response -> attach(response.getFile()));
+ * }
+ * }</pre>
+ */
+public class UploadManager {
+  @NotNull private final FileHandler fileHandler;
+  private final int maxConcurrentUploads;
+  private final int maxConcurrentUploadsPerChannel;
+
+  // Guarded by itself, like the channel queues
+  @NotNull private final Map<String, ChannelQueue> channels = new HashMap<>();
+  @NotNull private final ArrayDeque<ChannelQueue> readyChannels = new ArrayDeque<>();
+  private int runningCount;
+  private int queuedCount;
+
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+
+  private UploadManager(@NotNull Builder builder) {
+    this.fileHandler = builder.fileHandler != null ? builder.fileHandler : new DefaultFileHandler();
+    this.maxConcurrentUploads = builder.maxConcurrentUploads;
+    this.maxConcurrentUploadsPerChannel = builder.maxConcurrentUploadsPerChannel;
+  }
+
+  @NotNull
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Uploads a file once a slot is available. Cancelling the returned future before the upload
+   * starts removes it from the queue.
+   *
+   * @param channelType the channel type
+   * @param channelId the channel id
+   * @param userId the id of the user sending this file
+   * @param contentType the content type of the file, or null
+   * @param source the content of the file
+   * @return the future response
+   */
+  @NotNull
+  public CompletableFuture<MessageUploadFileResponse> uploadFile(
+      @NotNull String channelType,
+      @NotNull String channelId,
+      @NotNull String userId,
+      @Nullable String contentType,
+      @NotNull UploadSource source) {
+    return submit(
+        channelType,
+        channelId,
+        (onSuccess, onError) ->
+            fileHandler.uploadFileAsync(
+                channelType, channelId, userId, source, contentType, null, onSuccess, onError));
+  }
+
+  /**
+   * Uploads an image once a slot is available. Cancelling the returned future before the upload
+   * starts removes it from the queue.
+   *
+   * @param channelType the channel type
+   * @param channelId the channel id
+   * @param userId the id of the user sending this image
+   * @param contentType the content type of the image
+   * @param source the content of the image
+   * @param uploadSizes the sizes to generate, or null
+   * @return the future response
+   */
+  @NotNull
+  public CompletableFuture<MessageUploadImageResponse> uploadImage(
+      @NotNull String channelType,
+      @NotNull String channelId,
+      @NotNull String userId,
+      @NotNull String contentType,
+      @NotNull UploadSource source,
+      @Nullable List<ImageSizeRequestObject> uploadSizes) {
+    return submit(
+        channelType,
+        channelId,
+        (onSuccess, onError) ->
+            fileHandler.uploadImageAsync(
+                channelType,
+                channelId,
+                userId,
+                source,
+                contentType,
+                uploadSizes,
+                null,
+                onSuccess,
+                onError));
+  }
+
+  /** @return the number of uploads running */
+  public int getRunningCount() {
+    synchronized (channels) {
+      return runningCount;
+    }
+  }
+
+  /** @return the number of uploads waiting for a slot */
+  public int getQueuedCount() {
+    synchronized (channels) {
+      return queuedCount;
+    }
+  }
+
+  /** @return the number of successful uploads */
+  public long getCompletedCount() {
+    return completed.sum();
+  }
+
+  /** @return the number of failed uploads */
+  public long getFailedCount() {
+    return failed.sum();
+  }
+
+  @Override
+  public String toString() {
+    return "UploadManager(running="
+        + getRunningCount()
+        + ", queued="
+        + getQueuedCount()
+        + ", completed="
+        + getCompletedCount()
+        + ", failed="
+        + getFailedCount()
+        + ")";
+  }
+
+  @NotNull
+  private <T> CompletableFuture<T> submit(
+      @NotNull String channelType, @NotNull String channelId, @NotNull AsyncUpload<T> upload) {
+    var future = new CompletableFuture<T>();
+    String cid = channelType + ":" + channelId;
+    ChannelQueue queue;
+    PendingUpload pendingUpload;
+    List<Runnable> started;
+    synchronized (channels) {
+      queue = channels.computeIfAbsent(cid, ChannelQueue::new);
+      pendingUpload = new PendingUpload(future, () -> start(queue, upload, future));
+      queue.pending.add(pendingUpload);
+      queuedCount++;
+      markReady(queue);
+      started = drain();
+    }
+    started.forEach(Runnable::run);
+    future.whenComplete((response, throwable) -> remove(queue, pendingUpload));
+    return future;
+  }
+
+  /** Drops an upload completed, typically cancelled, while still waiting for a slot */
+  private void remove(@NotNull ChannelQueue queue, @NotNull PendingUpload pendingUpload) {
+    synchronized (channels) {
+      // Started uploads are not searched for, only the rare ones completed while waiting
+      if (!pendingUpload.queued) {
+        return;
+      }
+      pendingUpload.queued = false;
+      queue.pending.remove(pendingUpload);
+      queuedCount--;
+      if (queue.pending.isEmpty()) {
+        queue.ready = false;
+        readyChannels.remove(queue);
+        if (queue.runningCount == 0) {
+          channels.remove(queue.cid, queue);
+        }
+      }
+    }
+  }
+
+  private <T> void start(
+      @NotNull ChannelQueue queue,
+      @NotNull AsyncUpload<T> upload,
+      @NotNull CompletableFuture<T> future) {
+    // The slot is released once, even if the file handler reports the outcome twice
+    var released = new AtomicBoolean();
+    Consumer<StreamException> onError =
+        exception -> {
+          if (released.compareAndSet(false, true)) {
+            failed.increment();
+            release(queue);
+          }
+          future.completeExceptionally(exception);
+        };
+    try {
+      upload.start(
+          response -> {
+            if (released.compareAndSet(false, true)) {
+              completed.increment();
+              release(queue);
+            }
+            future.complete(response);
+          },
+          onError);
+    } catch (RuntimeException e) {
+      onError.accept(StreamException.build(e));
+    }
+  }
+
+  private void release(@NotNull ChannelQueue queue) {
+    List<Runnable> started;
+    synchronized (channels) {
+      runningCount--;
+      queue.runningCount--;
+      if (queue.pending.isEmpty() && queue.runningCount == 0) {
+        channels.remove(queue.cid);
+      } else {
+        markReady(queue);
+      }
+      started = drain();
+    }
+    started.forEach(Runnable::run);
+  }
+
+  /** Queues the channel for a turn, if it has an upload waiting and a free slot */
+  private void markReady(@NotNull ChannelQueue queue) {
+    if (!queue.ready
+        && !queue.pending.isEmpty()
+        && queue.runningCount < maxConcurrentUploadsPerChannel) {
+      queue.ready = true;
+      readyChannels.add(queue);
+    }
+  }
+
+  /** Takes the uploads to start, one channel after the other. They are started out of the lock. */
+  @NotNull
+  private List<Runnable> drain() {
+    List<Runnable> started = new ArrayList<>();
+    while (runningCount < maxConcurrentUploads && !readyChannels.isEmpty()) {
+      ChannelQueue queue = readyChannels.poll();
+      queue.ready = false;
+      PendingUpload pendingUpload = queue.pending.poll();
+      pendingUpload.queued = false;
+      queuedCount--;
+      if (pendingUpload.future.isDone()) {
+        // Cancelled while waiting, before its removal
+        if (queue.pending.isEmpty() && queue.runningCount == 0) {
+          channels.remove(queue.cid);
+        }
+      } else {
+        started.add(pendingUpload.start);
+        runningCount++;
+        queue.runningCount++;
+      }
+      markReady(queue);
+    }
+    return started;
+  }
+
+  @FunctionalInterface
+  private interface AsyncUpload<T> {
+    void start(@NotNull Consumer<T> onSuccess, @NotNull Consumer<StreamException> onError);
+  }
+
+  private static class PendingUpload {
+    @NotNull private final CompletableFuture<?> future;
+    @NotNull private final Runnable start;
+    // Whether it is still in its channel queue, guarded by the channels lock
+    private boolean queued = true;
+
+    PendingUpload(@NotNull CompletableFuture<?> future, @NotNull Runnable start) {
+      this.future = future;
+      this.start = start;
+    }
+  }
+
+  private static class ChannelQueue {
+    @NotNull private final String cid;
+    @NotNull private final ArrayDeque<PendingUpload> pending = new ArrayDeque<>();
+    private int runningCount;
+    private boolean ready;
+
+    ChannelQueue(@NotNull String cid) {
+      this.cid = cid;
+    }
+  }
+
+  public static class Builder {
+    @Nullable private FileHandler fileHandler;
+    private int maxConcurrentUploads = 16;
+    private int maxConcurrentUploadsPerChannel = 4;
+
+    private Builder() {}
+
+    /**
+     * Sets the file handler sending the uploads, a {@link DefaultFileHandler} of the default client
+     * by default. It should implement the asynchronous upload of {@link UploadSource}s.
+     *
+     * @param fileHandler the file handler
+     * @return the builder
+     */
+    @NotNull
+    public Builder fileHandler(@NotNull FileHandler fileHandler) {
+      this.fileHandler = fileHandler;
+      return this;
+    }
+
+    @NotNull
+    public Builder maxConcurrentUploads(int maxConcurrentUploads) {
+      if (maxConcurrentUploads <= 0) {
+        throw new IllegalArgumentException("maxConcurrentUploads should be positive");
+      }
+      this.maxConcurrentUploads = maxConcurrentUploads;
+      return this;
+    }
+
+    @NotNull
+    public Builder maxConcurrentUploadsPerChannel(int maxConcurrentUploadsPerChannel) {
+      if (maxConcurrentUploadsPerChannel <= 0) {
+        throw new IllegalArgumentException("maxConcurrentUploadsPerChannel should be positive");
+      }
+      this.maxConcurrentUploadsPerChannel = maxConcurrentUploadsPerChannel;
+      return this;
+    }
+
+    @NotNull
+    public UploadManager build() {
+      return new UploadManager(this);
+    }
+  }
+}
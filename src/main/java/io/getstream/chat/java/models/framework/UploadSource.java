@@ -0,0 +1,258 @@
+package io.getstream.chat.java.models.framework;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The content of a file or image upload, streamed to the request without being copied to a
+ * temporary file or a byte array first.
+ *
+ * <p>Files are memory-mapped and written region by region, buffers are written in place and input
+ * streams are read as the request is sent. File and buffer sources can be sent again on retries,
+ * input streams only once: a retried upload of an input stream fails.
+ */
+public abstract class UploadSource {
+  private static final int CHUNK_SIZE = 64 * 1024;
+  private static final long MAPPED_REGION_SIZE = 64L * 1024 * 1024;
+
+  /** Receives the progress of an upload, after every chunk written to the request */
+  @FunctionalInterface
+  public interface ProgressListener {
+    /**
+     * Called when a chunk of the upload has been written
+     *
+     * @param bytesWritten the number of bytes written so far
+     * @param contentLength the total number of bytes
+     */
+    void onProgress(long bytesWritten, long contentLength);
+  }
+
+  @NotNull private final String fileName;
+
+  private UploadSource(@NotNull String fileName) {
+    this.fileName = fileName;
+  }
+
+  /**
+   * Creates a source reading a file through a memory mapping
+   *
+   * @param path the file to upload
+   * @return the source
+   */
+  @NotNull
+  public static UploadSource of(@NotNull Path path) {
+    return new PathSource(path);
+  }
+
+  /**
+   * Creates a source writing the remaining bytes of a buffer, heap or direct. The position of the
+   * buffer is left unchanged, it should not be modified until the upload completes.
+   *
+   * @param buffer the content to upload
+   * @param fileName the name of the uploaded file
+   * @return the source
+   */
+  @NotNull
+  public static UploadSource of(@NotNull ByteBuffer buffer, @NotNull String fileName) {
+    return new BufferSource(buffer.asReadOnlyBuffer(), fileName);
+  }
+
+  /**
+   * Creates a source reading exactly {@code length} bytes of a stream, once. The stream is not
+   * closed.
+   *
+   * @param inputStream the content to upload
+   * @param length the number of bytes to read from the stream
+   * @param fileName the name of the uploaded file
+   * @return the source
+   */
+  @NotNull
+  public static UploadSource of(
+      @NotNull InputStream inputStream, long length, @NotNull String fileName) {
+    if (length < 0) {
+      throw new IllegalArgumentException("length should not be negative");
+    }
+    return new StreamSource(inputStream, length, fileName);
+  }
+
+  @NotNull
+  public String getFileName() {
+    return fileName;
+  }
+
+  abstract long contentLength() throws IOException;
+
+  abstract void writeTo(@NotNull BufferedSink sink, @NotNull Progress progress) throws IOException;
+
+  boolean isOneShot() {
+    return false;
+  }
+
+  @NotNull
+  RequestBody toRequestBody(
+      @Nullable MediaType contentType, @Nullable ProgressListener progressListener) {
+    return new RequestBody() {
+      @Nullable
+      @Override
+      public MediaType contentType() {
+        return contentType;
+      }
+
+      @Override
+      public long contentLength() throws IOException {
+        return UploadSource.this.contentLength();
+      }
+
+      @Override
+      public boolean isOneShot() {
+        return UploadSource.this.isOneShot();
+      }
+
+      @Override
+      public void writeTo(@NotNull BufferedSink sink) throws IOException {
+        UploadSource.this.writeTo(sink, new Progress(progressListener, contentLength()));
+      }
+    };
+  }
+
+  /** Writes the remaining bytes of a buffer, chunk by chunk, without moving its position */
+  private static void writeChunks(
+      @NotNull ByteBuffer buffer, @NotNull BufferedSink sink, @NotNull Progress progress)
+      throws IOException {
+    ByteBuffer chunk = buffer.duplicate();
+    int end = buffer.limit();
+    while (chunk.position() < end) {
+      int chunkEnd = Math.min(end, chunk.position() + CHUNK_SIZE);
+      chunk.limit(chunkEnd);
+      int written = chunk.remaining();
+      while (chunk.hasRemaining()) {
+        sink.write(chunk);
+      }
+      sink.emitCompleteSegments();
+      progress.add(written);
+    }
+  }
+
+  /** The progress of a single attempt at sending the upload */
+  static class Progress {
+    @Nullable private final ProgressListener listener;
+    private final long contentLength;
+    private long bytesWritten;
+
+    Progress(@Nullable ProgressListener listener, long contentLength) {
+      this.listener = listener;
+      this.contentLength = contentLength;
+    }
+
+    void add(long count) {
+      bytesWritten += count;
+      if (listener != null) {
+        listener.onProgress(bytesWritten, contentLength);
+      }
+    }
+  }
+
+  private static class PathSource extends UploadSource {
+    @NotNull private final Path path;
+
+    PathSource(@NotNull Path path) {
+      super(String.valueOf(path.getFileName()));
+      this.path = path;
+    }
+
+    @Override
+    long contentLength() throws IOException {
+      return Files.size(path);
+    }
+
+    @Override
+    void writeTo(@NotNull BufferedSink sink, @NotNull Progress progress) throws IOException {
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        long size = channel.size();
+        if (size != progress.contentLength) {
+          throw new IOException("The size of " + path + " changed during the upload");
+        }
+        for (long position = 0; position < size; position += MAPPED_REGION_SIZE) {
+          long regionSize = Math.min(MAPPED_REGION_SIZE, size - position);
+          ByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize);
+          writeChunks(region, sink, progress);
+        }
+      }
+    }
+  }
+
+  private static class BufferSource extends UploadSource {
+    @NotNull private final ByteBuffer buffer;
+
+    BufferSource(@NotNull ByteBuffer buffer, @NotNull String fileName) {
+      super(fileName);
+      this.buffer = buffer;
+    }
+
+    @Override
+    long contentLength() {
+      return buffer.remaining();
+    }
+
+    @Override
+    void writeTo(@NotNull BufferedSink sink, @NotNull Progress progress) throws IOException {
+      writeChunks(buffer, sink, progress);
+    }
+  }
+
+  private static class StreamSource extends UploadSource {
+    @NotNull private final InputStream inputStream;
+    private final long length;
+    @NotNull private final AtomicBoolean consumed = new AtomicBoolean();
+
+    StreamSource(@NotNull InputStream inputStream, long length, @NotNull String fileName) {
+      super(fileName);
+      this.inputStream = inputStream;
+      this.length = length;
+    }
+
+    @Override
+    long contentLength() {
+      return length;
+    }
+
+    @Override
+    boolean isOneShot() {
+      return true;
+    }
+
+    @Override
+    void writeTo(@NotNull BufferedSink sink, @NotNull Progress progress) throws IOException {
+      if (!consumed.compareAndSet(false, true)) {
+        throw new IOException("The input stream of " + getFileName() + " was already uploaded");
+      }
+      // Not closed: the stream belongs to the caller
+      Source source = Okio.source(inputStream);
+      long remaining = length;
+      while (remaining > 0) {
+        long read = source.read(sink.getBuffer(), Math.min(CHUNK_SIZE, remaining));
+        if (read == -1) {
+          throw new EOFException(
+              "The input stream of " + getFileName() + " ended " + remaining + " bytes early");
+        }
+        remaining -= read;
+        sink.emitCompleteSegments();
+        progress.add(read);
+      }
+    }
+  }
+}
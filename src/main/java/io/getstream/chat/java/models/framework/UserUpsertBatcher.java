@@ -0,0 +1,332 @@
+package io.getstream.chat.java.models.framework;
+
+import io.getstream.chat.java.models.User;
+import io.getstream.chat.java.models.User.UserRequestObject;
+import io.getstream.chat.java.models.User.UserUpsertRequestData.UserUpsertRequest;
+import io.getstream.chat.java.models.User.UserUpsertResponse;
+import io.getstream.chat.java.services.framework.Client;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Long-lived batcher turning single user upserts, coming from any number of threads, into chunked
+ * {@link User#upsert()} requests.
+ *
+ * <p>Repeated updates of a user still waiting to be sent are merged, the last one wins, and all
+ * their callers get the same future. A chunk is sent as soon as {@code maxBatchSize} users are
+ * pending, or once the oldest pending user waited for {@code flushInterval}. At most
+ * {@code maxInFlight} chunks are sent at the same time, and a user is never part of two chunks in
+ * flight, so updates of the same user reach the API in order.
+ *
+ * <pre>{@code
+ * var batcher = UserUpsertBatcher.builder().maxInFlight(8).build();
+ * batcher.add(UserRequestObject.builder().id("john").name("John").build())
+ *     .whenComplete((user, error) -> ...);
+ * ...
+ * batcher.close(); // sends what is left and waits for it
+ * }</pre>
+ */
+public class UserUpsertBatcher implements AutoCloseable {
+  /** The maximum number of users the API accepts in a single upsert */
+  public static final int MAX_BATCH_SIZE = 100;
+
+  @Nullable private final Client client;
+  private final int maxBatchSize;
+  private final long flushIntervalNanos;
+  private final int maxInFlight;
+  @NotNull private final ScheduledExecutorService scheduler;
+
+  private final Object lock = new Object();
+  @NotNull private final Map<String, PendingUser> pendingUsers = new LinkedHashMap<>();
+  @NotNull private final Set<String> inFlightUserIds = new HashSet<>();
+
+  @NotNull
+  private final Set<CompletableFuture<UserUpsertResponse>> inFlightFutures = new HashSet<>();
+
+  private int inFlightBatches;
+  private long oldestPendingNanos;
+  private boolean flushRequested;
+  private boolean closed;
+
+  private final LongAdder coalescedUpdates = new LongAdder();
+  private final LongAdder sentBatches = new LongAdder();
+  private final LongAdder failedBatches = new LongAdder();
+
+  private UserUpsertBatcher(@NotNull Builder builder) {
+    this.client = builder.client;
+    this.maxBatchSize = builder.maxBatchSize;
+    this.flushIntervalNanos = builder.flushInterval.toNanos();
+    this.maxInFlight = builder.maxInFlight;
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "stream-chat-user-upsert-batcher");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long tick = Math.max(1, flushIntervalNanos / 2);
+    scheduler.scheduleWithFixedDelay(this::sendBatches, tick, tick, TimeUnit.NANOSECONDS);
+  }
+
+  @NotNull
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Queues a user for upsert
+   *
+   * @param user the user, its id cannot be null
+   * @return a future completing with the upserted user once its chunk succeeds, or failing with
+   *     the {@link io.getstream.chat.java.exceptions.StreamException} of the chunk
+   */
+  @NotNull
+  public CompletableFuture<User> add(@NotNull UserRequestObject user) {
+    if (user.getId() == null) {
+      throw new IllegalArgumentException("user id cannot be null");
+    }
+    CompletableFuture<User> future;
+    synchronized (lock) {
+      if (closed) {
+        throw new IllegalStateException("The batcher is closed");
+      }
+      PendingUser pendingUser = pendingUsers.get(user.getId());
+      if (pendingUser != null) {
+        pendingUser.user = user;
+        coalescedUpdates.increment();
+        return pendingUser.future;
+      }
+      if (pendingUsers.isEmpty()) {
+        oldestPendingNanos = System.nanoTime();
+      }
+      future = new CompletableFuture<>();
+      pendingUsers.put(user.getId(), new PendingUser(user, future));
+      if (pendingUsers.size() < maxBatchSize) {
+        return future;
+      }
+    }
+    sendBatches();
+    return future;
+  }
+
+  /**
+   * Sends all the pending users, even as incomplete chunks
+   *
+   * @return a future completing once all the users pending at call time are sent, successfully
+   *     or not
+   */
+  @NotNull
+  public CompletableFuture<Void> flush() {
+    CompletableFuture<?>[] futures;
+    synchronized (lock) {
+      futures = pendingUsers.values().stream().map(p -> p.future).toArray(CompletableFuture[]::new);
+      flushRequested = true;
+    }
+    sendBatches();
+    return CompletableFuture.allOf(futures).handle((ignored, error) -> null);
+  }
+
+  /** Rejects new users, sends the pending ones and waits for all the chunks to complete */
+  @Override
+  public void close() {
+    synchronized (lock) {
+      closed = true;
+    }
+    try {
+      CompletableFuture<Void> flushed = flush();
+      CompletableFuture<?>[] inFlight;
+      synchronized (lock) {
+        inFlight = inFlightFutures.toArray(CompletableFuture[]::new);
+      }
+      CompletableFuture.allOf(flushed, CompletableFuture.allOf(inFlight))
+          .handle((ignored, error) -> null)
+          .join();
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
+  public int getPendingCount() {
+    synchronized (lock) {
+      return pendingUsers.size();
+    }
+  }
+
+  public int getInFlightCount() {
+    synchronized (lock) {
+      return inFlightBatches;
+    }
+  }
+
+  /** @return the number of updates merged into an already pending update of the same user */
+  public long getCoalescedCount() {
+    return coalescedUpdates.sum();
+  }
+
+  public long getSentBatchCount() {
+    return sentBatches.sum();
+  }
+
+  public long getFailedBatchCount() {
+    return failedBatches.sum();
+  }
+
+  private void sendBatches() {
+    while (true) {
+      List<PendingUser> batch = nextBatch();
+      if (batch == null) {
+        return;
+      }
+      send(batch);
+    }
+  }
+
+  @Nullable
+  private List<PendingUser> nextBatch() {
+    synchronized (lock) {
+      if (pendingUsers.isEmpty()) {
+        flushRequested = false;
+        return null;
+      }
+      if (inFlightBatches >= maxInFlight) {
+        return null;
+      }
+      boolean partial =
+          flushRequested || closed || System.nanoTime() - oldestPendingNanos >= flushIntervalNanos;
+      List<PendingUser> batch = new ArrayList<>(Math.min(maxBatchSize, pendingUsers.size()));
+      for (PendingUser pendingUser : pendingUsers.values()) {
+        if (!inFlightUserIds.contains(pendingUser.user.getId())) {
+          batch.add(pendingUser);
+          if (batch.size() == maxBatchSize) {
+            break;
+          }
+        }
+      }
+      if (batch.isEmpty() || (!partial && batch.size() < maxBatchSize)) {
+        return null;
+      }
+      for (PendingUser pendingUser : batch) {
+        String userId = pendingUser.user.getId();
+        pendingUsers.remove(userId);
+        inFlightUserIds.add(userId);
+      }
+      if (!pendingUsers.isEmpty() && !partial) {
+        oldestPendingNanos = System.nanoTime();
+      }
+      inFlightBatches++;
+      return batch;
+    }
+  }
+
+  private void send(@NotNull List<PendingUser> batch) {
+    CompletableFuture<UserUpsertResponse> request;
+    try {
+      UserUpsertRequest upsertRequest = User.upsert();
+      batch.forEach(pendingUser -> upsertRequest.user(pendingUser.user));
+      if (client != null) {
+        upsertRequest.withClient(client);
+      }
+      request = upsertRequest.requestFuture();
+    } catch (RuntimeException e) {
+      request = CompletableFuture.failedFuture(e);
+    }
+    CompletableFuture<UserUpsertResponse> response = request;
+    synchronized (lock) {
+      inFlightFutures.add(response);
+    }
+    response.whenComplete(
+        (upsertResponse, error) -> {
+          synchronized (lock) {
+            inFlightFutures.remove(response);
+            inFlightBatches--;
+            batch.forEach(pendingUser -> inFlightUserIds.remove(pendingUser.user.getId()));
+          }
+          if (error != null) {
+            failedBatches.increment();
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            batch.forEach(pendingUser -> pendingUser.future.completeExceptionally(cause));
+          } else {
+            sentBatches.increment();
+            Map<String, User> users = upsertResponse.getUsers();
+            batch.forEach(
+                pendingUser -> pendingUser.future.complete(users.get(pendingUser.user.getId())));
+          }
+          sendBatches();
+        });
+  }
+
+  private static class PendingUser {
+    @NotNull private UserRequestObject user;
+    @NotNull private final CompletableFuture<User> future;
+
+    PendingUser(@NotNull UserRequestObject user, @NotNull CompletableFuture<User> future) {
+      this.user = user;
+      this.future = future;
+    }
+  }
+
+  public static class Builder {
+    @Nullable private Client client;
+    private int maxBatchSize = MAX_BATCH_SIZE;
+    @NotNull private Duration flushInterval = Duration.ofMillis(500);
+    private int maxInFlight = 4;
+
+    private Builder() {}
+
+    /** Sends the upserts with the given client instead of the default one */
+    @NotNull
+    public Builder client(@NotNull Client client) {
+      this.client = client;
+      return this;
+    }
+
+    /** The maximum number of users per upsert request, at most {@link #MAX_BATCH_SIZE} */
+    @NotNull
+    public Builder maxBatchSize(int maxBatchSize) {
+      if (maxBatchSize <= 0 || maxBatchSize > MAX_BATCH_SIZE) {
+        throw new IllegalArgumentException(
+            "maxBatchSize should be between 1 and " + MAX_BATCH_SIZE);
+      }
+      this.maxBatchSize = maxBatchSize;
+      return this;
+    }
+
+    /** The maximum time a user waits for its chunk to fill up before being sent */
+    @NotNull
+    public Builder flushInterval(@NotNull Duration flushInterval) {
+      if (flushInterval.isNegative() || flushInterval.isZero()) {
+        throw new IllegalArgumentException("flushInterval should be positive");
+      }
+      this.flushInterval = flushInterval;
+      return this;
+    }
+
+    /** The maximum number of upsert requests running at the same time */
+    @NotNull
+    public Builder maxInFlight(int maxInFlight) {
+      if (maxInFlight <= 0) {
+        throw new IllegalArgumentException("maxInFlight should be positive");
+      }
+      this.maxInFlight = maxInFlight;
+      return this;
+    }
+
+    @NotNull
+    public UserUpsertBatcher build() {
+      return new UserUpsertBatcher(this);
+    }
+  }
+}
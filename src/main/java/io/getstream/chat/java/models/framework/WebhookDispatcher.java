@@ -0,0 +1,564 @@
+package io.getstream.chat.java.models.framework;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.getstream.chat.java.models.Event;
+import io.getstream.chat.java.services.framework.JsonCodec;
+import io.getstream.chat.java.services.framework.WebhookVerifier;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import lombok.extern.java.Log;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Ingestion pipeline for webhook requests: verifies their signature, routes the events to the
+ * handlers subscribed to their type and runs the handlers on a bounded pool of workers.
+ *
+ * <p>The signature is checked and the {@code type} and {@code cid} fields are read with a
+ * streaming parser on the calling thread. Events of a type nobody subscribed to are dropped at
+ * that point, without binding the body. The other ones are bound and handled on the workers.
+ * Events of the same channel are handled one at a time, in the order they were dispatched, while
+ * different channels run in parallel. Events without a channel, like user events, are not
+ * ordered.
+ *
+ * <p>At most {@code queueCapacity} events are queued or running. Beyond that, {@link
+ * #dispatch(byte[], CharSequence)} blocks and {@link #tryDispatch(byte[], CharSequence, Duration)}
+ * gives up after its timeout, so a slow consumer slows down the webhook endpoint instead of
+ * exhausting the memory.
+ *
+ * <pre>{@code
+ * var dispatcher =
+ *     WebhookDispatcher.builder()
+ *         .apiSecret(apiSecret)
+ *         .on("message.new", event -> index(event.getMessage()))
+ *         .on("channel.deleted", event -> forget(event.getCid()))
+ *         .build();
+ * ...
+ * DispatchResult result = dispatcher.dispatch(bodyBytes, request.getHeader("X-Signature"));
+ * }</pre>
+ */
+@Log
+public class WebhookDispatcher implements AutoCloseable {
+  // The maximum number of events of a channel handled before letting other channels run
+  private static final int MAX_EVENTS_PER_DRAIN = 32;
+  private static final Object BINDING_FAILED = new Object();
+
+  public enum DispatchResult {
+    /** The event is queued for its handlers */
+    ACCEPTED,
+    /** No handler is subscribed to the event type */
+    IGNORED,
+    /** The signature does not match the body */
+    INVALID_SIGNATURE,
+    /** The body is not a JSON object with a type */
+    MALFORMED,
+    /** The queue stayed full for the whole timeout */
+    REJECTED
+  }
+
+  /** Called when an event cannot be bound or when a handler throws */
+  @FunctionalInterface
+  public interface ErrorHandler {
+    /**
+     * @param type the event type
+     * @param event the bound event, or null when binding failed
+     * @param error the error
+     */
+    void onError(@NotNull String type, @Nullable Object event, @NotNull Throwable error);
+  }
+
+  @NotNull private final WebhookVerifier verifier;
+  @NotNull private final JsonCodec jsonCodec;
+  @NotNull private final JsonFactory jsonFactory;
+  @NotNull private final Map<String, List<Handler<?>>> handlers;
+  @NotNull private final List<Handler<?>> anyTypeHandlers;
+  @NotNull private final ErrorHandler errorHandler;
+  private final int queueCapacity;
+  @NotNull private final Semaphore permits;
+  @NotNull private final ExecutorService executor;
+
+  // A channel has an entry while its events are being drained; all changes go through compute
+  @NotNull private final Map<String, ArrayDeque<ReceivedEvent>> channelQueues =
+      new ConcurrentHashMap<>();
+
+  private volatile boolean closed;
+
+  private final LongAdder acceptedEvents = new LongAdder();
+  private final LongAdder ignoredEvents = new LongAdder();
+  private final LongAdder invalidSignatures = new LongAdder();
+  private final LongAdder malformedEvents = new LongAdder();
+  private final LongAdder rejectedEvents = new LongAdder();
+  private final LongAdder failedEvents = new LongAdder();
+
+  private WebhookDispatcher(@NotNull Builder builder) {
+    this.verifier = builder.verifier;
+    this.jsonCodec = builder.jsonCodec;
+    this.jsonFactory = jsonCodec.getObjectMapper().getFactory();
+    this.anyTypeHandlers = List.copyOf(builder.anyTypeHandlers);
+    Map<String, List<Handler<?>>> handlers = new HashMap<>();
+    builder.handlers.forEach(
+        (type, typeHandlers) -> {
+          List<Handler<?>> all = new ArrayList<>(typeHandlers);
+          all.addAll(anyTypeHandlers);
+          handlers.put(type, List.copyOf(all));
+        });
+    this.handlers = handlers;
+    this.errorHandler = builder.errorHandler;
+    this.queueCapacity = builder.queueCapacity;
+    this.permits = new Semaphore(queueCapacity);
+    AtomicInteger threadCount = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            builder.workers,
+            builder.workers,
+            0,
+            TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(),
+            runnable -> {
+              Thread thread =
+                  new Thread(
+                      runnable, "stream-chat-webhook-dispatcher-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  @NotNull
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Dispatches a webhook request, waiting for room in the queue if needed
+   *
+   * @param body the raw body of the HTTP request. It is read later by the workers and should not
+   *     be modified afterwards.
+   * @param signature the signature provided in the X-Signature header
+   * @return the outcome, never {@link DispatchResult#REJECTED}
+   * @throws InterruptedException when interrupted while waiting for room in the queue
+   */
+  @NotNull
+  public DispatchResult dispatch(@NotNull byte[] body, @NotNull CharSequence signature)
+      throws InterruptedException {
+    return dispatch(body, signature, -1);
+  }
+
+  /**
+   * Dispatches a webhook request, waiting at most {@code timeout} for room in the queue
+   *
+   * @param body the raw body of the HTTP request. It is read later by the workers and should not
+   *     be modified afterwards.
+   * @param signature the signature provided in the X-Signature header
+   * @param timeout the maximum time to wait for room in the queue
+   * @return the outcome
+   * @throws InterruptedException when interrupted while waiting for room in the queue
+   */
+  @NotNull
+  public DispatchResult tryDispatch(
+      @NotNull byte[] body, @NotNull CharSequence signature, @NotNull Duration timeout)
+      throws InterruptedException {
+    return dispatch(body, signature, Math.max(0, timeout.toNanos()));
+  }
+
+  /** Rejects new requests and waits for the queued events to be handled */
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    permits.acquireUninterruptibly(queueCapacity);
+    executor.shutdown();
+    permits.release(queueCapacity);
+  }
+
+  /** @return the number of events queued or being handled */
+  public int getQueuedCount() {
+    return queueCapacity - permits.availablePermits();
+  }
+
+  public long getAcceptedCount() {
+    return acceptedEvents.sum();
+  }
+
+  /** @return the number of events dropped because no handler is subscribed to their type */
+  public long getIgnoredCount() {
+    return ignoredEvents.sum();
+  }
+
+  public long getInvalidSignatureCount() {
+    return invalidSignatures.sum();
+  }
+
+  public long getMalformedCount() {
+    return malformedEvents.sum();
+  }
+
+  public long getRejectedCount() {
+    return rejectedEvents.sum();
+  }
+
+  /** @return the number of events that could not be bound or whose handlers threw */
+  public long getFailedCount() {
+    return failedEvents.sum();
+  }
+
+  @NotNull
+  private DispatchResult dispatch(
+      @NotNull byte[] body, @NotNull CharSequence signature, long timeoutNanos)
+      throws InterruptedException {
+    if (closed) {
+      throw new IllegalStateException("The dispatcher is closed");
+    }
+    if (!verifier.verify(body, signature)) {
+      invalidSignatures.increment();
+      return DispatchResult.INVALID_SIGNATURE;
+    }
+    EventRouting routing;
+    try {
+      routing = peek(body);
+    } catch (IOException e) {
+      routing = null;
+    }
+    if (routing == null) {
+      malformedEvents.increment();
+      return DispatchResult.MALFORMED;
+    }
+    List<Handler<?>> eventHandlers = handlers.getOrDefault(routing.type, anyTypeHandlers);
+    if (eventHandlers.isEmpty()) {
+      ignoredEvents.increment();
+      return DispatchResult.IGNORED;
+    }
+
+    if (timeoutNanos < 0) {
+      permits.acquire();
+    } else if (!permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+      rejectedEvents.increment();
+      return DispatchResult.REJECTED;
+    }
+    if (closed) {
+      permits.release();
+      throw new IllegalStateException("The dispatcher is closed");
+    }
+    acceptedEvents.increment();
+    ReceivedEvent event = new ReceivedEvent(body, routing.type, eventHandlers);
+    if (routing.cid == null) {
+      execute(() -> handle(event));
+    } else {
+      enqueue(routing.cid, event);
+    }
+    return DispatchResult.ACCEPTED;
+  }
+
+  /**
+   * Reads the type and channel of an event, skipping the content of the other fields
+   *
+   * @return the routing, or null when the body has no type
+   */
+  @Nullable
+  private EventRouting peek(@NotNull byte[] body) throws IOException {
+    String type = null;
+    String cid = null;
+    String channelType = null;
+    String channelId = null;
+    try (JsonParser parser = jsonFactory.createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return null;
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String fieldName = parser.currentName();
+        parser.nextToken();
+        switch (fieldName) {
+          case "type":
+            type = readString(parser);
+            break;
+          case "cid":
+            cid = readString(parser);
+            break;
+          case "channel_type":
+            channelType = readString(parser);
+            break;
+          case "channel_id":
+            channelId = readString(parser);
+            break;
+          default:
+            parser.skipChildren();
+        }
+        if (type != null && cid != null) {
+          break;
+        }
+      }
+    }
+    if (type == null) {
+      return null;
+    }
+    if (cid == null && channelType != null && channelId != null) {
+      cid = channelType + ":" + channelId;
+    }
+    return new EventRouting(type, cid);
+  }
+
+  @Nullable
+  private static String readString(@NotNull JsonParser parser) throws IOException {
+    if (parser.currentToken() == JsonToken.VALUE_STRING) {
+      return parser.getText();
+    }
+    parser.skipChildren();
+    return null;
+  }
+
+  private void enqueue(@NotNull String cid, @NotNull ReceivedEvent event) {
+    boolean[] idle = new boolean[1];
+    channelQueues.compute(
+        cid,
+        (key, queue) -> {
+          if (queue == null) {
+            idle[0] = true;
+            queue = new ArrayDeque<>();
+          }
+          queue.add(event);
+          return queue;
+        });
+    if (idle[0]) {
+      execute(() -> drain(cid));
+    }
+  }
+
+  private void drain(@NotNull String cid) {
+    for (int i = 0; i < MAX_EVENTS_PER_DRAIN; i++) {
+      ReceivedEvent event = poll(cid);
+      if (event == null) {
+        return;
+      }
+      handle(event);
+    }
+    // Let the channels waiting for a worker run before handling the rest of this one
+    execute(() -> drain(cid));
+  }
+
+  /** Takes the next event of a channel, removing the channel once it has none left */
+  @Nullable
+  private ReceivedEvent poll(@NotNull String cid) {
+    ReceivedEvent[] next = new ReceivedEvent[1];
+    channelQueues.computeIfPresent(
+        cid,
+        (key, queue) -> {
+          next[0] = queue.poll();
+          return next[0] != null ? queue : null;
+        });
+    return next[0];
+  }
+
+  private void execute(@NotNull Runnable task) {
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      // Only happens once closed, when nothing is left to handle
+      task.run();
+    }
+  }
+
+  private void handle(@NotNull ReceivedEvent event) {
+    try {
+      List<Handler<?>> eventHandlers = event.handlers;
+      Object[] boundEvents = new Object[eventHandlers.size()];
+      for (int i = 0; i < eventHandlers.size(); i++) {
+        Handler<?> handler = eventHandlers.get(i);
+        boundEvents[i] = bind(event, handler.eventClass, eventHandlers, boundEvents, i);
+        if (boundEvents[i] == BINDING_FAILED) {
+          continue;
+        }
+        try {
+          handler.accept(boundEvents[i]);
+        } catch (RuntimeException e) {
+          fail(event.type, boundEvents[i], e);
+        }
+      }
+    } finally {
+      permits.release();
+    }
+  }
+
+  /** Binds the body of an event, reusing the result of a previous handler with the same class */
+  @NotNull
+  private Object bind(
+      @NotNull ReceivedEvent event,
+      @NotNull Class<?> eventClass,
+      @NotNull List<Handler<?>> eventHandlers,
+      @NotNull Object[] boundEvents,
+      int count) {
+    for (int i = 0; i < count; i++) {
+      if (eventHandlers.get(i).eventClass == eventClass) {
+        return boundEvents[i];
+      }
+    }
+    try {
+      return jsonCodec.readerFor(eventClass).readValue(event.body);
+    } catch (IOException | RuntimeException e) {
+      fail(event.type, null, e);
+      return BINDING_FAILED;
+    }
+  }
+
+  private void fail(@NotNull String type, @Nullable Object event, @NotNull Throwable error) {
+    failedEvents.increment();
+    try {
+      errorHandler.onError(type, event, error);
+    } catch (RuntimeException e) {
+      log.log(Level.WARNING, "Webhook error handler failed", e);
+    }
+  }
+
+  private static class EventRouting {
+    @NotNull private final String type;
+    @Nullable private final String cid;
+
+    EventRouting(@NotNull String type, @Nullable String cid) {
+      this.type = type;
+      this.cid = cid;
+    }
+  }
+
+  private static class ReceivedEvent {
+    @NotNull private final byte[] body;
+    @NotNull private final String type;
+    @NotNull private final List<Handler<?>> handlers;
+
+    ReceivedEvent(
+        @NotNull byte[] body, @NotNull String type, @NotNull List<Handler<?>> handlers) {
+      this.body = body;
+      this.type = type;
+      this.handlers = handlers;
+    }
+  }
+
+  private static class Handler<T> {
+    @NotNull private final Class<T> eventClass;
+    @NotNull private final Consumer<? super T> consumer;
+
+    Handler(@NotNull Class<T> eventClass, @NotNull Consumer<? super T> consumer) {
+      this.eventClass = eventClass;
+      this.consumer = consumer;
+    }
+
+    void accept(@NotNull Object event) {
+      consumer.accept(eventClass.cast(event));
+    }
+  }
+
+  public static class Builder {
+    @Nullable private WebhookVerifier verifier;
+    @NotNull private JsonCodec jsonCodec = JsonCodec.getDefault();
+    @NotNull private final Map<String, List<Handler<?>>> handlers = new HashMap<>();
+    @NotNull private final List<Handler<?>> anyTypeHandlers = new ArrayList<>();
+
+    @NotNull
+    private ErrorHandler errorHandler =
+        (type, event, error) ->
+            log.log(Level.WARNING, "Could not handle a " + type + " event", error);
+
+    private int workers = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 1024;
+
+    private Builder() {}
+
+    /** Verifies the requests with the given API secret */
+    @NotNull
+    public Builder apiSecret(@NotNull String apiSecret) {
+      return verifier(new WebhookVerifier(apiSecret));
+    }
+
+    /** Verifies the requests with an existing verifier */
+    @NotNull
+    public Builder verifier(@NotNull WebhookVerifier verifier) {
+      this.verifier = verifier;
+      return this;
+    }
+
+    /** Binds the events with the given codec instead of the default one */
+    @NotNull
+    public Builder jsonCodec(@NotNull JsonCodec jsonCodec) {
+      this.jsonCodec = jsonCodec;
+      return this;
+    }
+
+    /** Handles the events of a type */
+    @NotNull
+    public Builder on(@NotNull String type, @NotNull Consumer<? super Event> handler) {
+      return on(type, Event.class, handler);
+    }
+
+    /**
+     * Handles the events of a type, bound to a custom class. The body is bound once per class,
+     * whatever the number of handlers.
+     */
+    @NotNull
+    public <T> Builder on(
+        @NotNull String type, @NotNull Class<T> eventClass, @NotNull Consumer<? super T> handler) {
+      handlers
+          .computeIfAbsent(type, key -> new ArrayList<>())
+          .add(new Handler<>(eventClass, handler));
+      return this;
+    }
+
+    /** Handles the events of all types. This disables skipping unsubscribed types. */
+    @NotNull
+    public Builder onAny(@NotNull Consumer<? super Event> handler) {
+      anyTypeHandlers.add(new Handler<>(Event.class, handler));
+      return this;
+    }
+
+    /** Called when an event cannot be bound or when a handler throws. Logs by default. */
+    @NotNull
+    public Builder onError(@NotNull ErrorHandler errorHandler) {
+      this.errorHandler = errorHandler;
+      return this;
+    }
+
+    /** The number of threads running the handlers, the number of processors by default */
+    @NotNull
+    public Builder workers(int workers) {
+      if (workers <= 0) {
+        throw new IllegalArgumentException("workers should be positive");
+      }
+      this.workers = workers;
+      return this;
+    }
+
+    /** The maximum number of events queued or being handled, 1024 by default */
+    @NotNull
+    public Builder queueCapacity(int queueCapacity) {
+      if (queueCapacity <= 0) {
+        throw new IllegalArgumentException("queueCapacity should be positive");
+      }
+      this.queueCapacity = queueCapacity;
+      return this;
+    }
+
+    @NotNull
+    public WebhookDispatcher build() {
+      if (verifier == null) {
+        throw new IllegalArgumentException("apiSecret or verifier should be set");
+      }
+      return new WebhookDispatcher(this);
+    }
+  }
+}
@@ -4,6 +4,7 @@ import io.getstream.chat.java.models.Event.EventSendRequestData;
 import io.getstream.chat.java.models.Event.EventSendResponse;
 import io.getstream.chat.java.models.Event.EventSendUserCustomRequestData;
 import io.getstream.chat.java.models.framework.StreamResponseObject;
+import okhttp3.RequestBody;
 import org.jetbrains.annotations.NotNull;
 import retrofit2.Call;
 import retrofit2.http.Body;
@@ -22,4 +23,9 @@ public interface EventService {
   Call<StreamResponseObject> sendUserCustom(
       @NotNull @Path("user_id") String userId,
       @NotNull @Body EventSendUserCustomRequestData eventSendUserCustomRequestData);
+
+  /** Sends a request already serialized, under the same endpoint name as the one above */
+  @POST("users/{user_id}/event")
+  Call<StreamResponseObject> sendUserCustom(
+      @NotNull @Path("user_id") String userId, @NotNull @Body RequestBody serializedRequestData);
 }
@@ -46,6 +46,13 @@ public interface MessageService {
       @NotNull @Path("id") String channelId,
       @NotNull @Body MessageSendRequestData messageSendRequestData);
 
+  /** Sends a request already serialized, under the same endpoint name as the one above */
+  @POST("channels/{type}/{id}/message")
+  Call<MessageSendResponse> send(
+      @NotNull @Path("type") String channelType,
+      @NotNull @Path("id") String channelId,
+      @NotNull @Body RequestBody serializedRequestData);
+
   @POST("messages/{id}")
   Call<MessageUpdateResponse> update(
       @NotNull @Path("id") String id,
@@ -5,6 +5,7 @@ import io.getstream.chat.java.models.Reaction.ReactionListResponse;
 import io.getstream.chat.java.models.Reaction.ReactionSendRequestData;
 import io.getstream.chat.java.models.Reaction.ReactionSendResponse;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import retrofit2.Call;
 import retrofit2.http.Body;
 import retrofit2.http.DELETE;
@@ -27,5 +28,8 @@ public interface ReactionService {
       @NotNull @Query("user_id") String userId);
 
   @GET("messages/{id}/reactions")
-  Call<ReactionListResponse> list(@NotNull @Path("id") String messageId);
+  Call<ReactionListResponse> list(
+      @NotNull @Path("id") String messageId,
+      @Nullable @Query("limit") Integer limit,
+      @Nullable @Query("offset") Integer offset);
 }
@@ -0,0 +1,87 @@
+package io.getstream.chat.java.services.framework;
+
+import java.io.IOException;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/** A fully read response, turned into a new {@link Response} for every request it serves */
+class BufferedResponse {
+  private final int code;
+  @NotNull private final String message;
+  @NotNull private final Protocol protocol;
+  @NotNull private final Headers headers;
+  @Nullable private final MediaType contentType;
+  @NotNull private final byte[] body;
+
+  private BufferedResponse(
+      int code,
+      @NotNull String message,
+      @NotNull Protocol protocol,
+      @NotNull Headers headers,
+      @Nullable MediaType contentType,
+      @NotNull byte[] body) {
+    this.code = code;
+    this.message = message;
+    this.protocol = protocol;
+    this.headers = headers;
+    this.contentType = contentType;
+    this.body = body;
+  }
+
+  @NotNull
+  static BufferedResponse read(@NotNull Response response) throws IOException {
+    try (ResponseBody responseBody = response.body()) {
+      return new BufferedResponse(
+          response.code(),
+          response.message(),
+          response.protocol(),
+          response.headers(),
+          responseBody != null ? responseBody.contentType() : null,
+          responseBody != null ? responseBody.bytes() : new byte[0]);
+    }
+  }
+
+  boolean isSuccessful() {
+    return code >= 200 && code < 300;
+  }
+
+  /** Builds the response of the request that was actually sent, with all its headers */
+  @NotNull
+  Response toResponse(@NotNull Request request) {
+    return toResponse(request, headers);
+  }
+
+  /** Builds the response of a request that did not reach the API, without rate limit headers */
+  @NotNull
+  Response toSharedResponse(@NotNull Request request) {
+    Headers sharedHeaders =
+        headers
+            .newBuilder()
+            .removeAll("X-Ratelimit-Limit")
+            .removeAll("X-Ratelimit-Remaining")
+            .removeAll("X-Ratelimit-Reset")
+            .build();
+    return toResponse(request, sharedHeaders);
+  }
+
+  @NotNull
+  private Response toResponse(@NotNull Request request, @NotNull Headers responseHeaders) {
+    long now = System.currentTimeMillis();
+    return new Response.Builder()
+        .request(request)
+        .protocol(protocol)
+        .code(code)
+        .message(message)
+        .headers(responseHeaders)
+        .body(ResponseBody.create(body, contentType))
+        .sentRequestAtMillis(now)
+        .receivedResponseAtMillis(now)
+        .build();
+  }
+}
@@ -2,6 +2,7 @@ package io.getstream.chat.java.services.framework;
 
 import java.time.Duration;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public interface Client {
   @NotNull
@@ -15,6 +16,66 @@ public interface Client {
 
   void setTimeout(@NotNull Duration timeoutDuration);
 
+  /**
+   * Returns the timeout applied to requests that do not set their own
+   *
+   * @return the timeout, or null to keep the HTTP client one
+   */
+  @Nullable
+  default Duration getTimeout() {
+    return null;
+  }
+
+  /**
+   * Returns the limiter pacing the requests sent with this client
+   *
+   * @return the rate limiter, or null when requests are not limited client-side
+   */
+  @Nullable
+  default ClientRateLimiter getRateLimiter() {
+    return null;
+  }
+
+  /**
+   * Returns the policy deciding which failed requests are sent again
+   *
+   * @return the retry policy, or null when failed requests are not retried
+   */
+  @Nullable
+  default RetryPolicy getRetryPolicy() {
+    return null;
+  }
+
+  /**
+   * Returns the cache serving the configuration objects read with this client
+   *
+   * @return the cache, or null when these objects are not cached
+   */
+  @Nullable
+  default ConfigurationCache getConfigurationCache() {
+    return null;
+  }
+
+  /**
+   * Returns the deduplicator collapsing identical requests sent with this client
+   *
+   * @return the deduplicator, or null when every request is sent
+   */
+  @Nullable
+  default RequestDeduplicator getRequestDeduplicator() {
+    return null;
+  }
+
+  /**
+   * Returns the JSON configuration shared by everything this client serializes
+   *
+   * @return the codec
+   */
+  @NotNull
+  default JsonCodec getJsonCodec() {
+    return JsonCodec.getDefault();
+  }
+
   static Client getInstance() {
     return DefaultClient.getInstance();
   }
@@ -0,0 +1,287 @@
+package io.getstream.chat.java.services.framework;
+
+import io.getstream.chat.java.models.RateLimit;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Client-side token bucket limiter with one bucket per API endpoint (the Retrofit service method,
+ * see {@link StreamServiceHandler#getEndpoint(retrofit2.Call)}). Buckets learn their rate from the
+ * X-Ratelimit-Limit, X-Ratelimit-Remaining and X-Ratelimit-Reset headers of the API responses.
+ *
+ * <p>A bucket spreads the requests remaining in the current window evenly until the window resets,
+ * and lets short bursts of up to {@code burstRatio} of the limit through without waiting. Endpoints
+ * that never returned rate limit information are not limited.
+ *
+ * <p>Permits can be acquired in a blocking way, with {@link #acquire(String)}, or asynchronously,
+ * with {@link #acquireAsync(String)} which does not hold any thread while waiting. The {@code
+ * tryAcquire} variants give up right away, without consuming a permit, when the wait would be
+ * longer than the caller can afford.
+ */
+public class ClientRateLimiter {
+  /** Stream API rate limits are enforced over one minute windows */
+  private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  private static final double DEFAULT_BURST_RATIO = 0.1;
+
+  private final double burstRatio;
+
+  @NotNull private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+  public ClientRateLimiter() {
+    this(DEFAULT_BURST_RATIO);
+  }
+
+  /**
+   * Creates a limiter
+   *
+   * @param burstRatio the share of an endpoint limit that can be sent as a burst, between 0
+   *     (excluded) and 1
+   */
+  public ClientRateLimiter(double burstRatio) {
+    if (burstRatio <= 0 || burstRatio > 1) {
+      throw new IllegalArgumentException("burstRatio should be in ]0, 1]");
+    }
+    this.burstRatio = burstRatio;
+  }
+
+  /**
+   * Waits until a request to the endpoint can be sent
+   *
+   * @param endpoint the endpoint
+   * @throws InterruptedException when the thread is interrupted while waiting
+   */
+  public void acquire(@NotNull String endpoint) throws InterruptedException {
+    long waitNanos = reserve(endpoint);
+    if (waitNanos > 0) {
+      TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+  }
+
+  /**
+   * Reserves a request to the endpoint without blocking
+   *
+   * @param endpoint the endpoint
+   * @return a future completing when the request can be sent. It is already completed when no
+   *     wait is needed
+   */
+  @NotNull
+  public CompletableFuture<Void> acquireAsync(@NotNull String endpoint) {
+    long waitNanos = reserve(endpoint);
+    if (waitNanos <= 0) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return CompletableFuture.runAsync(
+        () -> {}, CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS));
+  }
+
+  /**
+   * Waits until a request to the endpoint can be sent, unless that takes longer than {@code
+   * maxWait}
+   *
+   * @param endpoint the endpoint
+   * @param maxWait the longest acceptable wait
+   * @return whether the request can be sent. Nothing is reserved when it cannot
+   * @throws InterruptedException when the thread is interrupted while waiting
+   */
+  public boolean tryAcquire(@NotNull String endpoint, @NotNull Duration maxWait)
+      throws InterruptedException {
+    long waitNanos = tryReserve(endpoint, maxWait.toNanos());
+    if (waitNanos > 0) {
+      TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+    return waitNanos >= 0;
+  }
+
+  /**
+   * Reserves a request to the endpoint without blocking, unless it would have to wait longer than
+   * {@code maxWait}
+   *
+   * @param endpoint the endpoint
+   * @param maxWait the longest acceptable wait
+   * @return a future completing when the request can be sent, or null when the wait would be
+   *     longer than {@code maxWait}. Nothing is reserved in that case
+   */
+  @Nullable
+  public CompletableFuture<Void> tryAcquireAsync(
+      @NotNull String endpoint, @NotNull Duration maxWait) {
+    long waitNanos = tryReserve(endpoint, maxWait.toNanos());
+    if (waitNanos < 0) {
+      return null;
+    }
+    if (waitNanos == 0) {
+      return CompletableFuture.completedFuture(null);
+    }
+    return CompletableFuture.runAsync(
+        () -> {}, CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS));
+  }
+
+  /**
+   * Reserves a request to the endpoint, unless it would have to wait longer than {@code
+   * maxWaitNanos}
+   *
+   * @param endpoint the endpoint
+   * @param maxWaitNanos the longest acceptable wait, in nanoseconds
+   * @return how long the caller should wait before sending the request, in nanoseconds, or -1
+   *     when nothing was reserved because the wait would be too long
+   */
+  public long tryReserve(@NotNull String endpoint, long maxWaitNanos) {
+    TokenBucket bucket = buckets.get(endpoint);
+    return bucket == null ? 0 : bucket.tryReserve(System.nanoTime(), maxWaitNanos);
+  }
+
+  /**
+   * Reserves a request to the endpoint
+   *
+   * @param endpoint the endpoint
+   * @return how long the caller should wait before sending the request, in nanoseconds
+   */
+  public long reserve(@NotNull String endpoint) {
+    TokenBucket bucket = buckets.get(endpoint);
+    return bucket == null ? 0 : bucket.reserve(System.nanoTime());
+  }
+
+  /**
+   * Updates the endpoint bucket with rate limit information returned by the API
+   *
+   * @param endpoint the endpoint
+   * @param rateLimit the rate limit information. Ignored when limit, remaining or reset is missing
+   */
+  public void update(@NotNull String endpoint, @NotNull RateLimit rateLimit) {
+    if (rateLimit.getLimit() == null
+        || rateLimit.getRemaining() == null
+        || rateLimit.getReset() == null) {
+      return;
+    }
+    buckets
+        .computeIfAbsent(endpoint, key -> new TokenBucket())
+        .update(
+            rateLimit.getLimit(),
+            rateLimit.getRemaining(),
+            rateLimit.getReset().getTime() - System.currentTimeMillis(),
+            System.nanoTime());
+  }
+
+  /**
+   * Seeds the buckets at startup, typically from the server side rate limits returned by {@code
+   * App.getRateLimits()}. Those are keyed by API endpoint name, e.g. {@code SendMessage}, while
+   * the buckets are keyed by service method, e.g. {@code MessageService.send}, so the mapper
+   * translates one into the other.
+   *
+   * @param rateLimits the rate limits by API endpoint name
+   * @param endpointMapper maps an API endpoint name to the limiter endpoint, or to null to skip it
+   */
+  public void seed(
+      @NotNull Map<String, RateLimit> rateLimits,
+      @NotNull Function<String, String> endpointMapper) {
+    rateLimits.forEach(
+        (name, rateLimit) -> {
+          String endpoint = endpointMapper.apply(name);
+          if (endpoint != null && rateLimit != null) {
+            update(endpoint, rateLimit);
+          }
+        });
+  }
+
+  /**
+   * Returns the time a request to the endpoint would currently wait, without reserving it
+   *
+   * @param endpoint the endpoint
+   * @return the wait duration, zero when the endpoint is not limited
+   */
+  @NotNull
+  public Duration getWaitTime(@NotNull String endpoint) {
+    TokenBucket bucket = buckets.get(endpoint);
+    return Duration.ofNanos(bucket == null ? 0 : bucket.peek(System.nanoTime()));
+  }
+
+  /**
+   * Returns the last limit the API reported for the endpoint
+   *
+   * @param endpoint the endpoint
+   * @return the limit, or null when unknown
+   */
+  @Nullable
+  public Integer getLimit(@NotNull String endpoint) {
+    TokenBucket bucket = buckets.get(endpoint);
+    return bucket == null ? null : bucket.getLimit();
+  }
+
+  private class TokenBucket {
+    private int limit;
+    private double tokens;
+    private double capacity;
+    private double permitsPerNano;
+    private long resetNanos;
+    private long lastNanos;
+    private boolean initialized;
+
+    synchronized void update(int limit, int remaining, long untilResetMillis, long now) {
+      refill(now);
+      long untilResetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, untilResetMillis));
+      this.limit = limit;
+      this.capacity = Math.max(1, limit * burstRatio);
+      this.resetNanos = now + untilResetNanos;
+      this.permitsPerNano = (double) Math.max(0, remaining) / untilResetNanos;
+      // The API knows best: never hold more than what it says remains
+      double available = Math.min(capacity, Math.max(0, remaining));
+      this.tokens = initialized ? Math.min(tokens, available) : available;
+      this.initialized = true;
+    }
+
+    synchronized long reserve(long now) {
+      long waitNanos = waitNanos(now);
+      tokens -= 1;
+      return waitNanos;
+    }
+
+    synchronized long tryReserve(long now, long maxWaitNanos) {
+      long waitNanos = waitNanos(now);
+      if (waitNanos > maxWaitNanos) {
+        return -1;
+      }
+      tokens -= 1;
+      return waitNanos;
+    }
+
+    synchronized long peek(long now) {
+      return waitNanos(now);
+    }
+
+    synchronized int getLimit() {
+      return limit;
+    }
+
+    private long waitNanos(long now) {
+      refill(now);
+      double missing = 1 - tokens;
+      if (missing <= 0) {
+        return 0;
+      }
+      if (permitsPerNano > 0) {
+        return (long) Math.ceil(missing / permitsPerNano);
+      }
+      // Nothing remains in this window: wait for the reset, then for the nominal rate
+      double nominalPermitsPerNano = (double) Math.max(1, limit) / WINDOW_NANOS;
+      return (resetNanos - now) + (long) Math.ceil(missing / nominalPermitsPerNano);
+    }
+
+    private void refill(long now) {
+      if (now - lastNanos > 0) {
+        tokens = Math.min(capacity, tokens + (now - lastNanos) * permitsPerNano);
+        lastNanos = now;
+      }
+      if (now - resetNanos >= 0) {
+        // A new window started, the API granted the full limit again
+        permitsPerNano = (double) limit / WINDOW_NANOS;
+        resetNanos = now + WINDOW_NANOS;
+      }
+    }
+  }
+}
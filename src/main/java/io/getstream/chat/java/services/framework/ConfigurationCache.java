@@ -0,0 +1,303 @@
+package io.getstream.chat.java.services.framework;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Read-through cache of the app configuration objects: channel types, commands, roles,
+ * permissions and blocklists. These are read on hot paths but rarely change.
+ *
+ * <p>Successful GET responses of {@code ChannelTypeService}, {@code CommandService}, {@code
+ * RoleService}, {@code PermissionService} and {@code BlocklistService} are kept for {@code ttl},
+ * keyed by URL. Any other request to one of these services, like an update or a delete,
+ * invalidates all the entries of that service once it completes. Concurrent misses for the same
+ * URL wait for a single request. At most {@code maxEntries} entries are kept, the ones closest to
+ * expiration are evicted first.
+ *
+ * <p>Cached responses do not carry the rate limit headers, since they do not consume the API rate
+ * limit, and bypass the client-side rate limiter. A cache belongs to a single client.
+ *
+ * <pre>{@code
+ * var cache = new ConfigurationCache(Duration.ofMinutes(1), 1000);
+ * client.setConfigurationCache(cache);
+ * ...
+ * System.out.println(cache.getHitCount() + " hits, " + cache.getMissCount() + " misses");
+ * }</pre>
+ */
+public class ConfigurationCache {
+  private static final Set<String> CACHED_SERVICES =
+      Set.of(
+          "ChannelTypeService",
+          "CommandService",
+          "RoleService",
+          "PermissionService",
+          "BlocklistService");
+
+  private final long ttlNanos;
+  private final int maxEntries;
+  @NotNull private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  // Loads started before an invalidation of their service are returned but not stored
+  @NotNull private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder coalescedMisses = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder loadNanos = new LongAdder();
+
+  /** Creates a cache keeping up to 1000 entries for 1 minute */
+  public ConfigurationCache() {
+    this(Duration.ofMinutes(1), 1000);
+  }
+
+  /**
+   * Creates a cache
+   *
+   * @param ttl how long a response is served from the cache
+   * @param maxEntries the maximum number of cached responses
+   */
+  public ConfigurationCache(@NotNull Duration ttl, int maxEntries) {
+    if (ttl.isNegative() || ttl.isZero()) {
+      throw new IllegalArgumentException("ttl should be positive");
+    }
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries should be positive");
+    }
+    this.ttlNanos = ttl.toNanos();
+    this.maxEntries = maxEntries;
+    CACHED_SERVICES.forEach(service -> generations.put(service, new AtomicLong()));
+  }
+
+  /** Removes all the entries */
+  public void invalidateAll() {
+    CACHED_SERVICES.forEach(this::invalidate);
+  }
+
+  /** @return the number of requests that did not reach the API, coalesced misses included */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /** @return the number of requests sent to the API to fill the cache */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /** @return the number of requests that waited for a concurrent miss instead of sending theirs */
+  public long getCoalescedMissCount() {
+    return coalescedMisses.sum();
+  }
+
+  /** @return the number of invalidations triggered by updates and deletes */
+  public long getInvalidationCount() {
+    return invalidations.sum();
+  }
+
+  /** @return the number of entries evicted because the cache was full */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  /** @return the total time spent loading the misses */
+  @NotNull
+  public Duration getTotalLoadTime() {
+    return Duration.ofNanos(loadNanos.sum());
+  }
+
+  /** @return the average time spent loading a miss */
+  @NotNull
+  public Duration getAverageLoadTime() {
+    long loads = misses.sum();
+    return loads == 0 ? Duration.ZERO : Duration.ofNanos(loadNanos.sum() / loads);
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  @Override
+  public String toString() {
+    return "ConfigurationCache(size="
+        + size()
+        + ", hits="
+        + getHitCount()
+        + ", misses="
+        + getMissCount()
+        + ", coalescedMisses="
+        + getCoalescedMissCount()
+        + ", invalidations="
+        + getInvalidationCount()
+        + ", evictions="
+        + getEvictionCount()
+        + ", averageLoadTime="
+        + getAverageLoadTime()
+        + ")";
+  }
+
+  /** @return whether the request would be served from the cache right now */
+  boolean isFresh(@NotNull Request request) {
+    if (!"GET".equals(request.method()) || getCachedService(request) == null) {
+      return false;
+    }
+    Entry entry = entries.get(request.url().toString());
+    return entry != null && entry.isFresh(System.nanoTime());
+  }
+
+  @NotNull
+  Response intercept(@NotNull Interceptor.Chain chain) throws IOException {
+    Request request = chain.request();
+    String service = getCachedService(request);
+    if (service == null) {
+      return chain.proceed(request);
+    }
+    if (!"GET".equals(request.method())) {
+      try {
+        return chain.proceed(request);
+      } finally {
+        invalidate(service);
+      }
+    }
+    return get(request.url().toString(), service, chain);
+  }
+
+  @NotNull
+  private Response get(
+      @NotNull String key, @NotNull String service, @NotNull Interceptor.Chain chain)
+      throws IOException {
+    Request request = chain.request();
+    while (true) {
+      long now = System.nanoTime();
+      Entry entry = entries.get(key);
+      if (entry != null) {
+        if (!entry.future.isDone()) {
+          hits.increment();
+          coalescedMisses.increment();
+          return await(entry.future).toSharedResponse(request);
+        }
+        if (entry.isFresh(now)) {
+          hits.increment();
+          return entry.future.join().toSharedResponse(request);
+        }
+        entries.remove(key, entry);
+        continue;
+      }
+
+      Entry loading = new Entry(service, generations.get(service).get());
+      if (entries.putIfAbsent(key, loading) != null) {
+        continue;
+      }
+      misses.increment();
+      evictIfFull();
+      BufferedResponse response;
+      try {
+        response = BufferedResponse.read(chain.proceed(request));
+      } catch (IOException | RuntimeException e) {
+        entries.remove(key, loading);
+        loading.future.completeExceptionally(e);
+        throw e;
+      } finally {
+        loadNanos.add(System.nanoTime() - now);
+      }
+      if (response.isSuccessful() && generations.get(service).get() == loading.generation) {
+        loading.expiresAtNanos = System.nanoTime() + ttlNanos;
+      } else {
+        entries.remove(key, loading);
+      }
+      loading.future.complete(response);
+      return response.toResponse(request);
+    }
+  }
+
+  @NotNull
+  private static BufferedResponse await(@NotNull CompletableFuture<BufferedResponse> future)
+      throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for a concurrent request");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw new IOException(cause.getMessage(), cause);
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  private void invalidate(@NotNull String service) {
+    generations.get(service).incrementAndGet();
+    invalidations.increment();
+    entries.values().removeIf(entry -> entry.service.equals(service));
+  }
+
+  /** Makes room for one entry, dropping expired entries first, then the oldest ones */
+  private void evictIfFull() {
+    while (entries.size() > maxEntries) {
+      long now = System.nanoTime();
+      if (entries.values().removeIf(entry -> entry.future.isDone() && !entry.isFresh(now))) {
+        continue;
+      }
+      Map.Entry<String, Entry> oldest = null;
+      for (Map.Entry<String, Entry> candidate : entries.entrySet()) {
+        Entry entry = candidate.getValue();
+        if (entry.future.isDone()
+            && (oldest == null || entry.expiresAtNanos - oldest.getValue().expiresAtNanos < 0)) {
+          oldest = candidate;
+        }
+      }
+      if (oldest == null) {
+        // Only loads in progress, they are never evicted
+        return;
+      }
+      if (entries.remove(oldest.getKey(), oldest.getValue())) {
+        evictions.increment();
+      }
+    }
+  }
+
+  @Nullable
+  private static String getCachedService(@NotNull Request request) {
+    String endpoint = StreamServiceHandler.getEndpoint(request);
+    int separator = endpoint.indexOf('.');
+    if (separator < 0) {
+      return null;
+    }
+    String service = endpoint.substring(0, separator);
+    return CACHED_SERVICES.contains(service) ? service : null;
+  }
+
+  private static class Entry {
+    @NotNull private final String service;
+    private final long generation;
+    @NotNull private final CompletableFuture<BufferedResponse> future = new CompletableFuture<>();
+    private volatile long expiresAtNanos;
+
+    Entry(@NotNull String service, long generation) {
+      this.service = service;
+      this.generation = generation;
+    }
+
+    boolean isFresh(long now) {
+      return future.isDone() && expiresAtNanos - now > 0;
+    }
+  }
+}
@@ -1,22 +1,34 @@
 package io.getstream.chat.java.services.framework;
 
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.util.StdDateFormat;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import io.getstream.chat.java.services.AppService;
+import io.getstream.chat.java.services.BlocklistService;
+import io.getstream.chat.java.services.ChannelService;
+import io.getstream.chat.java.services.ChannelTypeService;
+import io.getstream.chat.java.services.CommandService;
+import io.getstream.chat.java.services.DeviceService;
+import io.getstream.chat.java.services.EventService;
+import io.getstream.chat.java.services.FlagService;
+import io.getstream.chat.java.services.ImportService;
+import io.getstream.chat.java.services.MessageService;
+import io.getstream.chat.java.services.PermissionService;
+import io.getstream.chat.java.services.ReactionService;
+import io.getstream.chat.java.services.RoleService;
+import io.getstream.chat.java.services.TaskStatusService;
+import io.getstream.chat.java.services.UserService;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.security.Key;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
-import javax.crypto.spec.SecretKeySpec;
 import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.Request;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import retrofit2.Retrofit;
 import retrofit2.converter.jackson.JacksonConverterFactory;
 
@@ -25,13 +37,57 @@ public class DefaultClient implements Client {
   public static final String API_SECRET_PROP_NAME = "io.getstream.chat.apiSecret";
   public static final String API_TIMEOUT_PROP_NAME = "io.getstream.chat.timeout";
   public static final String API_URL_PROP_NAME = "io.getstream.chat.url";
+  public static final String API_TOKEN_TTL_PROP_NAME = "io.getstream.chat.tokenTtl";
+  public static final String API_MAX_IDLE_CONNECTIONS_PROP_NAME =
+      "io.getstream.chat.connectionPool.maxIdleConnections";
+  public static final String API_KEEP_ALIVE_PROP_NAME =
+      "io.getstream.chat.connectionPool.keepAlive";
+  public static final String API_MAX_REQUESTS_PROP_NAME = "io.getstream.chat.maxRequests";
+  public static final String API_MAX_REQUESTS_PER_HOST_PROP_NAME =
+      "io.getstream.chat.maxRequestsPerHost";
+  public static final String API_PROTOCOL_PROP_NAME = "io.getstream.chat.protocol";
+  public static final String API_VALIDATE_EAGERLY_PROP_NAME = "io.getstream.chat.validateEagerly";
 
   private static final String API_DEFAULT_URL = "https://chat.stream-io-api.com";
+  private static final List<Class<?>> SERVICES =
+      List.of(
+          AppService.class,
+          BlocklistService.class,
+          ChannelService.class,
+          ChannelTypeService.class,
+          CommandService.class,
+          DeviceService.class,
+          EventService.class,
+          FlagService.class,
+          ImportService.class,
+          MessageService.class,
+          PermissionService.class,
+          ReactionService.class,
+          RoleService.class,
+          TaskStatusService.class,
+          UserService.class);
   private static volatile DefaultClient defaultInstance;
-  @NotNull private Retrofit retrofit;
-  @NotNull private final String apiSecret;
+  @NotNull private final ServiceCache services;
+  @NotNull private volatile Duration timeout;
+  @NotNull private final ServerTokenManager serverTokenManager;
   @NotNull private final String apiKey;
   @NotNull private final Properties extendedProperties;
+  @NotNull private final Dispatcher dispatcher;
+  @NotNull private final ConnectionPool connectionPool;
+  @NotNull private final List<Protocol> protocols;
+  @NotNull private final JsonCodec jsonCodec;
+  @Nullable private volatile ClientRateLimiter rateLimiter;
+  @Nullable private volatile RetryPolicy retryPolicy;
+  @Nullable private volatile MetricsRecorder metricsRecorder;
+  @Nullable private volatile ConfigurationCache configurationCache;
+  @Nullable private volatile RequestDeduplicator requestDeduplicator;
+
+  @NotNull
+  private final RetryInterceptor retryInterceptor = new RetryInterceptor(this::getRetryPolicy);
+
+  @NotNull
+  private final MetricsInterceptor metricsInterceptor =
+      new MetricsInterceptor(this::getMetricsRecorder);
 
   public static DefaultClient getInstance() {
     if (defaultInstance == null) {
@@ -54,6 +110,10 @@ public class DefaultClient implements Client {
   }
 
   public DefaultClient(Properties properties) {
+    this(properties, null);
+  }
+
+  private DefaultClient(Properties properties, @Nullable ExecutorService executorService) {
     extendedProperties = extendProperties(properties);
     var apiKey = extendedProperties.get(API_KEY_PROP_NAME);
     var apiSecret = extendedProperties.get(API_SECRET_PROP_NAME);
@@ -70,17 +130,56 @@ public class DefaultClient implements Client {
               + " property");
     }
 
-    this.apiSecret = apiSecret.toString();
+    this.serverTokenManager =
+        new ServerTokenManager(apiSecret.toString(), getStreamChatTokenTtl(extendedProperties));
     this.apiKey = apiKey.toString();
-    this.retrofit = buildRetrofitClient();
+    this.dispatcher =
+        executorService != null ? new Dispatcher(executorService) : new Dispatcher();
+    this.dispatcher.setMaxRequests(getMaxRequests(extendedProperties));
+    this.dispatcher.setMaxRequestsPerHost(getMaxRequestsPerHost(extendedProperties));
+    this.connectionPool =
+        new ConnectionPool(
+            getMaxIdleConnections(extendedProperties),
+            getKeepAlive(extendedProperties),
+            TimeUnit.MILLISECONDS);
+    this.protocols = getProtocols(extendedProperties);
+    this.jsonCodec = new JsonCodec(hasFailOnUnknownProperties(extendedProperties));
+    this.timeout = Duration.ofMillis(getStreamChatTimeout(extendedProperties));
+    this.services = buildServiceCache();
+  }
+
+  /**
+   * Creates a builder to configure a client programmatically instead of through properties
+   *
+   * @return the builder
+   */
+  @NotNull
+  public static Builder builder() {
+    return new Builder();
   }
 
   private Retrofit buildRetrofitClient() {
     OkHttpClient.Builder httpClient =
         new OkHttpClient.Builder()
-            .connectionPool(new ConnectionPool(5, 59, TimeUnit.SECONDS))
+            .connectionPool(connectionPool)
+            .dispatcher(dispatcher)
+            .protocols(protocols)
             .callTimeout(getStreamChatTimeout(extendedProperties), TimeUnit.MILLISECONDS);
     httpClient.interceptors().clear();
+    httpClient.addInterceptor(new OneShotMultipartInterceptor());
+    httpClient.addInterceptor(
+        chain -> {
+          ConfigurationCache cache = configurationCache;
+          return cache != null ? cache.intercept(chain) : chain.proceed(chain.request());
+        });
+    httpClient.addInterceptor(
+        chain -> {
+          RequestDeduplicator deduplicator = requestDeduplicator;
+          return deduplicator != null
+              ? deduplicator.intercept(chain)
+              : chain.proceed(chain.request());
+        });
+    httpClient.addInterceptor(metricsInterceptor);
 
     HttpLoggingInterceptor loggingInterceptor =
         new HttpLoggingInterceptor().setLevel(getLogLevel(extendedProperties));
@@ -97,37 +196,70 @@ public class DefaultClient implements Client {
                   .header("Content-Type", "application/json")
                   .header("X-Stream-Client", "stream-java-client-" + getSdkVersion())
                   .header("Stream-Auth-Type", "jwt")
-                  .header("Authorization", jwtToken(apiSecret))
+                  .header("Authorization", serverTokenManager.getToken())
                   .build();
           return chain.proceed(request);
         });
-    final ObjectMapper mapper = new ObjectMapper();
-    mapper.configure(
-        DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES,
-        hasFailOnUnknownProperties(extendedProperties));
-    mapper.setDateFormat(
-        new StdDateFormat().withColonInTimeZone(true).withTimeZone(TimeZone.getTimeZone("UTC")));
-    mapper.enable(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_USING_DEFAULT_VALUE);
+    httpClient.addInterceptor(retryInterceptor);
 
     Retrofit.Builder builder =
         new Retrofit.Builder()
             .baseUrl(getStreamChatBaseUrl(extendedProperties))
-            .addConverterFactory(new QueryConverterFactory())
-            .addConverterFactory(JacksonConverterFactory.create(mapper));
+            .addConverterFactory(QueryConverterFactory.create(jsonCodec))
+            .addConverterFactory(JacksonConverterFactory.create(jsonCodec.getObjectMapper()))
+            .validateEagerly(isValidateEagerly(extendedProperties));
     builder.client(httpClient.build());
 
     return builder.build();
   }
 
+  @NotNull
+  private ServiceCache buildServiceCache() {
+    var serviceCache = new ServiceCache(buildRetrofitClient());
+    if (isValidateEagerly(extendedProperties)) {
+      // Parses every service method now instead of on the first request using it
+      SERVICES.forEach(serviceCache::get);
+    }
+    return serviceCache;
+  }
+
+  /**
+   * Returns the service implementation. Implementations are created once and then served from a
+   * lock-free cache.
+   *
+   * @param svcClass the service interface
+   * @return the service implementation
+   */
   @NotNull
   @Override
   public <TService> TService create(Class<TService> svcClass) {
-    return retrofit.create(svcClass);
+    return services.get(svcClass);
   }
 
   @NotNull
   public String getApiSecret() {
-    return apiSecret;
+    return serverTokenManager.getApiSecret();
+  }
+
+  /**
+   * Replaces the API secret used to sign requests. The cached server token is rotated atomically,
+   * so in-flight and subsequent requests never mix the previous secret with the new token.
+   *
+   * @param apiSecret the new API secret
+   */
+  public void setApiSecret(@NotNull String apiSecret) {
+    serverTokenManager.rotate(apiSecret);
+  }
+
+  @NotNull
+  @Override
+  public JsonCodec getJsonCodec() {
+    return jsonCodec;
+  }
+
+  @NotNull
+  public ServerTokenManager getServerTokenManager() {
+    return serverTokenManager;
   }
 
   @NotNull
@@ -135,31 +267,178 @@ public class DefaultClient implements Client {
     return apiKey;
   }
 
+  /**
+   * Returns the maximum number of requests executed concurrently. Above this, asynchronous calls
+   * are queued.
+   *
+   * @return the maximum number of concurrent requests
+   */
+  public int getMaxRequests() {
+    return dispatcher.getMaxRequests();
+  }
+
+  /**
+   * Changes the maximum number of requests executed concurrently. Takes effect immediately,
+   * without rebuilding the client, so it can be tuned under load.
+   *
+   * @param maxRequests the maximum number of concurrent requests
+   */
+  public void setMaxRequests(int maxRequests) {
+    dispatcher.setMaxRequests(maxRequests);
+  }
+
+  /**
+   * Returns the maximum number of requests executed concurrently against the Stream API host
+   *
+   * @return the maximum number of concurrent requests per host
+   */
+  public int getMaxRequestsPerHost() {
+    return dispatcher.getMaxRequestsPerHost();
+  }
+
+  /**
+   * Changes the maximum number of requests executed concurrently against the Stream API host.
+   * Takes effect immediately, without rebuilding the client. An asynchronous request waiting to be
+   * retried keeps its slot, so a retry policy with long delays lowers the effective concurrency.
+   *
+   * @param maxRequestsPerHost the maximum number of concurrent requests per host
+   */
+  public void setMaxRequestsPerHost(int maxRequestsPerHost) {
+    dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+  }
+
+  /** @return the number of asynchronous calls waiting for a free slot in the dispatcher */
+  public int getQueuedRequestsCount() {
+    return dispatcher.queuedCallsCount();
+  }
+
+  /** @return the number of calls currently executing, synchronous or asynchronous */
+  public int getRunningRequestsCount() {
+    return dispatcher.runningCallsCount();
+  }
+
+  /** @return the number of open connections in the pool, active or idle */
+  public int getConnectionCount() {
+    return connectionPool.connectionCount();
+  }
+
+  /** @return the number of idle connections in the pool */
+  public int getIdleConnectionCount() {
+    return connectionPool.idleConnectionCount();
+  }
+
+  /** @return the HTTP protocols the client negotiates, in preference order */
+  @NotNull
+  public List<String> getProtocols() {
+    var result = new ArrayList<String>();
+    protocols.forEach(protocol -> result.add(protocol.toString()));
+    return result;
+  }
+
+  @Nullable
+  @Override
+  public ClientRateLimiter getRateLimiter() {
+    return rateLimiter;
+  }
+
+  /**
+   * Enables client-side rate limiting. Requests then wait for their endpoint budget before being
+   * sent, instead of being rejected by the API with a 429.
+   *
+   * @param rateLimiter the rate limiter, or null to disable client-side rate limiting
+   */
+  public void setRateLimiter(@Nullable ClientRateLimiter rateLimiter) {
+    this.rateLimiter = rateLimiter;
+  }
+
+  @Nullable
+  @Override
+  public RetryPolicy getRetryPolicy() {
+    return retryPolicy;
+  }
+
+  /**
+   * Sets the policy deciding which failed requests are sent again. Takes effect for the next
+   * requests, without rebuilding the client.
+   *
+   * @param retryPolicy the retry policy, or null to disable retries
+   */
+  public void setRetryPolicy(@Nullable RetryPolicy retryPolicy) {
+    this.retryPolicy = retryPolicy;
+  }
+
+  @Nullable
+  public MetricsRecorder getMetricsRecorder() {
+    return metricsRecorder;
+  }
+
+  /**
+   * Sets the recorder receiving the metrics of every request sent to the API: endpoint, status,
+   * latency, sizes, retries and remaining rate limit. Cache hits and deduplicated requests are not
+   * recorded. Takes effect for the next requests.
+   *
+   * @param metricsRecorder the metrics recorder, or null to disable metrics
+   */
+  public void setMetricsRecorder(@Nullable MetricsRecorder metricsRecorder) {
+    this.metricsRecorder = metricsRecorder;
+  }
+
+  @Nullable
+  @Override
+  public ConfigurationCache getConfigurationCache() {
+    return configurationCache;
+  }
+
+  /**
+   * Sets the cache serving channel types, commands, roles, permissions and blocklists. Takes
+   * effect for the next requests.
+   *
+   * @param configurationCache the cache, or null to disable caching
+   */
+  public void setConfigurationCache(@Nullable ConfigurationCache configurationCache) {
+    this.configurationCache = configurationCache;
+  }
+
+  @Nullable
+  @Override
+  public RequestDeduplicator getRequestDeduplicator() {
+    return requestDeduplicator;
+  }
+
+  /**
+   * Sets the deduplicator collapsing identical idempotent requests running at the same time. Takes
+   * effect for the next requests.
+   *
+   * @param requestDeduplicator the deduplicator, or null to send every request
+   */
+  public void setRequestDeduplicator(@Nullable RequestDeduplicator requestDeduplicator) {
+    this.requestDeduplicator = requestDeduplicator;
+  }
+
+  @NotNull
+  public RetryStats getRetryStats() {
+    return retryInterceptor.getRetryStats();
+  }
+
+  /**
+   * Sets the timeout of the requests that do not set their own with {@link
+   * io.getstream.chat.java.models.framework.StreamRequest#withTimeout(Duration)}. Takes effect for
+   * the next requests, without affecting the ones in flight, the connection pool or the
+   * dispatcher.
+   *
+   * @param timeoutDuration the timeout of a whole call, retries included
+   */
+  @Override
   public void setTimeout(@NotNull Duration timeoutDuration) {
     extendedProperties.setProperty(
         API_TIMEOUT_PROP_NAME, Long.toString(timeoutDuration.toMillis()));
-    this.retrofit = buildRetrofitClient();
-  }
-
-  private static @NotNull String jwtToken(String apiSecret) {
-    Key signingKey =
-        new SecretKeySpec(
-            apiSecret.getBytes(StandardCharsets.UTF_8), SignatureAlgorithm.HS256.getJcaName());
-    // We set issued at 5 seconds ago to avoid problems like JWTAuth error: token
-    // used before
-    // issue
-    // at (iat)
-    GregorianCalendar calendar = new GregorianCalendar();
-    calendar.add(Calendar.SECOND, -5);
-    return Jwts.builder()
-        .setIssuedAt(new Date())
-        .setIssuer("Stream Chat Java SDK")
-        .setSubject("Stream Chat Java SDK")
-        .claim("server", true)
-        .claim("scope", "admins")
-        .setIssuedAt(calendar.getTime())
-        .signWith(signingKey, SignatureAlgorithm.HS256)
-        .compact();
+    this.timeout = timeoutDuration;
+  }
+
+  @NotNull
+  @Override
+  public Duration getTimeout() {
+    return timeout;
   }
 
   @NotNull
@@ -198,6 +477,52 @@ public class DefaultClient implements Client {
     return Long.parseLong(timeout.toString());
   }
 
+  @Nullable
+  private static Duration getStreamChatTokenTtl(@NotNull Properties properties) {
+    var tokenTtl = properties.get(API_TOKEN_TTL_PROP_NAME);
+    if (tokenTtl == null) {
+      return null;
+    }
+    return Duration.ofMillis(Long.parseLong(tokenTtl.toString()));
+  }
+
+  private static int getMaxIdleConnections(@NotNull Properties properties) {
+    var maxIdleConnections = properties.getOrDefault(API_MAX_IDLE_CONNECTIONS_PROP_NAME, 5);
+    return Integer.parseInt(maxIdleConnections.toString());
+  }
+
+  private static long getKeepAlive(@NotNull Properties properties) {
+    var keepAlive = properties.getOrDefault(API_KEEP_ALIVE_PROP_NAME, 59000);
+    return Long.parseLong(keepAlive.toString());
+  }
+
+  private static int getMaxRequests(@NotNull Properties properties) {
+    var maxRequests = properties.getOrDefault(API_MAX_REQUESTS_PROP_NAME, 64);
+    return Integer.parseInt(maxRequests.toString());
+  }
+
+  private static int getMaxRequestsPerHost(@NotNull Properties properties) {
+    var maxRequestsPerHost = properties.getOrDefault(API_MAX_REQUESTS_PER_HOST_PROP_NAME, 5);
+    return Integer.parseInt(maxRequestsPerHost.toString());
+  }
+
+  @NotNull
+  private static List<Protocol> getProtocols(@NotNull Properties properties) {
+    var protocol = properties.get(API_PROTOCOL_PROP_NAME);
+    if (protocol == null) {
+      return List.of(Protocol.HTTP_2, Protocol.HTTP_1_1);
+    }
+    switch (protocol.toString().toLowerCase(Locale.ROOT)) {
+      case "http/1.1":
+        return List.of(Protocol.HTTP_1_1);
+      case "h2":
+        return List.of(Protocol.HTTP_2, Protocol.HTTP_1_1);
+      default:
+        throw new IllegalArgumentException(
+            "Unsupported protocol " + protocol + ". Supported values are h2 and http/1.1");
+    }
+  }
+
   private static String getStreamChatBaseUrl(@NotNull Properties properties) {
     var url = properties.getOrDefault(API_URL_PROP_NAME, API_DEFAULT_URL);
     return url.toString();
@@ -220,9 +545,184 @@ public class DefaultClient implements Client {
     return HttpLoggingInterceptor.Level.valueOf(logLevel);
   }
 
+  private static boolean isValidateEagerly(@NotNull Properties properties) {
+    var validateEagerly = properties.getOrDefault(API_VALIDATE_EAGERLY_PROP_NAME, "false");
+    return Boolean.parseBoolean(validateEagerly.toString());
+  }
+
   private static boolean hasFailOnUnknownProperties(@NotNull Properties properties) {
     final var propName = "io.getstream.chat.debug.failOnUnknownProperties";
     var hasEnabled = properties.getOrDefault(propName, "false");
     return Boolean.parseBoolean(hasEnabled.toString());
   }
+
+  /** The service implementations created from one Retrofit instance */
+  private static class ServiceCache {
+    @NotNull private final Retrofit retrofit;
+    @NotNull private final Map<Class<?>, Object> services = new ConcurrentHashMap<>();
+
+    ServiceCache(@NotNull Retrofit retrofit) {
+      this.retrofit = retrofit;
+    }
+
+    @NotNull
+    <TService> TService get(@NotNull Class<TService> svcClass) {
+      Object service = services.get(svcClass);
+      if (service == null) {
+        service = services.computeIfAbsent(svcClass, retrofit::create);
+      }
+      return svcClass.cast(service);
+    }
+  }
+
+  public static class Builder {
+    @NotNull private final Properties properties = new Properties();
+    @Nullable private ExecutorService executorService;
+    @Nullable private ClientRateLimiter rateLimiter;
+    @Nullable private RetryPolicy retryPolicy;
+    @Nullable private MetricsRecorder metricsRecorder;
+    @Nullable private ConfigurationCache configurationCache;
+    @Nullable private RequestDeduplicator requestDeduplicator;
+
+    private Builder() {}
+
+    @NotNull
+    public Builder properties(@NotNull Properties properties) {
+      this.properties.putAll(properties);
+      return this;
+    }
+
+    @NotNull
+    public Builder apiKey(@NotNull String apiKey) {
+      properties.put(API_KEY_PROP_NAME, apiKey);
+      return this;
+    }
+
+    @NotNull
+    public Builder apiSecret(@NotNull String apiSecret) {
+      properties.put(API_SECRET_PROP_NAME, apiSecret);
+      return this;
+    }
+
+    @NotNull
+    public Builder url(@NotNull String url) {
+      properties.put(API_URL_PROP_NAME, url);
+      return this;
+    }
+
+    @NotNull
+    public Builder timeout(@NotNull Duration timeout) {
+      properties.put(API_TIMEOUT_PROP_NAME, Long.toString(timeout.toMillis()));
+      return this;
+    }
+
+    @NotNull
+    public Builder tokenTtl(@NotNull Duration tokenTtl) {
+      properties.put(API_TOKEN_TTL_PROP_NAME, Long.toString(tokenTtl.toMillis()));
+      return this;
+    }
+
+    @NotNull
+    public Builder maxIdleConnections(int maxIdleConnections) {
+      properties.put(API_MAX_IDLE_CONNECTIONS_PROP_NAME, Integer.toString(maxIdleConnections));
+      return this;
+    }
+
+    @NotNull
+    public Builder keepAlive(@NotNull Duration keepAlive) {
+      properties.put(API_KEEP_ALIVE_PROP_NAME, Long.toString(keepAlive.toMillis()));
+      return this;
+    }
+
+    @NotNull
+    public Builder maxRequests(int maxRequests) {
+      properties.put(API_MAX_REQUESTS_PROP_NAME, Integer.toString(maxRequests));
+      return this;
+    }
+
+    @NotNull
+    public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+      properties.put(API_MAX_REQUESTS_PER_HOST_PROP_NAME, Integer.toString(maxRequestsPerHost));
+      return this;
+    }
+
+    /**
+     * Forces HTTP/1.1. By default HTTP/2 is negotiated when the server supports it.
+     *
+     * @param http2 false to disable HTTP/2
+     * @return the builder
+     */
+    @NotNull
+    public Builder http2(boolean http2) {
+      properties.put(API_PROTOCOL_PROP_NAME, http2 ? "h2" : "http/1.1");
+      return this;
+    }
+
+    /**
+     * Parses every service interface when the client is created, so the first request of each
+     * endpoint does not pay for it.
+     *
+     * @param validateEagerly true to validate the services at startup
+     * @return the builder
+     */
+    @NotNull
+    public Builder validateEagerly(boolean validateEagerly) {
+      properties.put(API_VALIDATE_EAGERLY_PROP_NAME, Boolean.toString(validateEagerly));
+      return this;
+    }
+
+    /**
+     * Sets the executor running asynchronous calls. Its threads are also the ones invoking the
+     * requestAsync callbacks.
+     *
+     * @param executorService the executor
+     * @return the builder
+     */
+    @NotNull
+    public Builder executorService(@NotNull ExecutorService executorService) {
+      this.executorService = executorService;
+      return this;
+    }
+
+    @NotNull
+    public Builder rateLimiter(@NotNull ClientRateLimiter rateLimiter) {
+      this.rateLimiter = rateLimiter;
+      return this;
+    }
+
+    @NotNull
+    public Builder retryPolicy(@NotNull RetryPolicy retryPolicy) {
+      this.retryPolicy = retryPolicy;
+      return this;
+    }
+
+    @NotNull
+    public Builder metricsRecorder(@NotNull MetricsRecorder metricsRecorder) {
+      this.metricsRecorder = metricsRecorder;
+      return this;
+    }
+
+    @NotNull
+    public Builder configurationCache(@NotNull ConfigurationCache configurationCache) {
+      this.configurationCache = configurationCache;
+      return this;
+    }
+
+    @NotNull
+    public Builder requestDeduplicator(@NotNull RequestDeduplicator requestDeduplicator) {
+      this.requestDeduplicator = requestDeduplicator;
+      return this;
+    }
+
+    @NotNull
+    public DefaultClient build() {
+      var client = new DefaultClient(properties, executorService);
+      client.setRateLimiter(rateLimiter);
+      client.setRetryPolicy(retryPolicy);
+      client.setMetricsRecorder(metricsRecorder);
+      client.setConfigurationCache(configurationCache);
+      client.setRequestDeduplicator(requestDeduplicator);
+      return client;
+    }
+  }
 }
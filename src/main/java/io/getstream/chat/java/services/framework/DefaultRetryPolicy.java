@@ -0,0 +1,106 @@
+package io.getstream.chat.java.services.framework;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Retries idempotent requests (GET, PUT, DELETE) on connection failures, 5xx and 429 responses,
+ * with an exponential backoff and jitter. A 429 waits until the X-Ratelimit-Reset time instead.
+ * POST and PATCH requests are only retried when opted in, globally with {@code retryPosts} or per
+ * endpoint with {@code retryableEndpoint}.
+ *
+ * <p>No retry is scheduled past {@code deadline}, counted from the first attempt. No single wait
+ * exceeds {@code maxDelay}: a 429 whose rate limit resets later is not retried. Waits block the
+ * thread running the request, which for asynchronous requests is a dispatcher thread holding one
+ * of the client {@code maxRequestsPerHost} slots.
+ */
+@Getter
+@Builder
+public class DefaultRetryPolicy implements RetryPolicy {
+  @Builder.Default private int maxAttempts = 3;
+
+  @Builder.Default @NotNull private Duration baseDelay = Duration.ofMillis(200);
+
+  @Builder.Default @NotNull private Duration maxDelay = Duration.ofSeconds(10);
+
+  @Builder.Default @NotNull private Duration deadline = Duration.ofSeconds(30);
+
+  @Builder.Default private boolean retryPosts = false;
+
+  @Singular @NotNull private Set<String> retryableEndpoints;
+
+  @Nullable
+  @Override
+  public Duration retryDelay(@NotNull RetryAttempt attempt) {
+    if (attempt.getAttemptCount() >= maxAttempts || !isRetryable(attempt)) {
+      return null;
+    }
+    Duration delay;
+    if (attempt.getStatusCode() != null
+        && attempt.getStatusCode() == 429
+        && attempt.getRateLimitReset() != null) {
+      long untilReset = attempt.getRateLimitReset().getTime() - System.currentTimeMillis();
+      if (untilReset > maxDelay.toMillis()) {
+        return null;
+      }
+      delay = Duration.ofMillis(Math.max(0, untilReset)).plus(jitter(baseDelay.toMillis()));
+    } else {
+      delay = backoff(attempt.getAttemptCount());
+    }
+    if (attempt.getElapsed().plus(delay).compareTo(deadline) > 0) {
+      return null;
+    }
+    return delay;
+  }
+
+  private boolean isRetryable(@NotNull RetryAttempt attempt) {
+    switch (attempt.getMethod()) {
+      case "GET":
+      case "HEAD":
+      case "PUT":
+      case "DELETE":
+        break;
+      default:
+        if (!retryPosts && !retryableEndpoints.contains(attempt.getEndpoint())) {
+          return false;
+        }
+    }
+    if (attempt.getException() != null) {
+      return isConnectionFailure(attempt.getException());
+    }
+    Integer statusCode = attempt.getStatusCode();
+    return statusCode != null && (statusCode == 429 || statusCode >= 500);
+  }
+
+  private static boolean isConnectionFailure(@NotNull IOException exception) {
+    return exception instanceof ConnectException
+        || exception instanceof NoRouteToHostException
+        || exception instanceof UnknownHostException;
+  }
+
+  @NotNull
+  private Duration backoff(int attemptCount) {
+    // baseDelay * 2^(attemptCount - 1), capped, half of it randomized ("equal jitter")
+    long exponential = baseDelay.toMillis() << Math.min(attemptCount - 1, 30);
+    long capped = Math.min(maxDelay.toMillis(), exponential < 0 ? Long.MAX_VALUE : exponential);
+    return Duration.ofMillis(capped / 2).plus(jitter(capped / 2));
+  }
+
+  @NotNull
+  private static Duration jitter(long boundMillis) {
+    if (boundMillis <= 0) {
+      return Duration.ZERO;
+    }
+    return Duration.ofMillis(ThreadLocalRandom.current().nextLong(boundMillis + 1));
+  }
+}
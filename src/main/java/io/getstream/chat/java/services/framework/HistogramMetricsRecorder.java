@@ -0,0 +1,119 @@
+package io.getstream.chat.java.services.framework;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * {@link MetricsRecorder} keeping, for each endpoint, a {@link LatencyHistogram} and counters of
+ * requests, errors, retries and transferred bytes. All updates are lock-free.
+ *
+ * <pre>{@code
+ * var metrics = new HistogramMetricsRecorder();
+ * client.setMetricsRecorder(metrics);
+ * ...
+ * var send = metrics.getEndpointMetrics("MessageService.send");
+ * System.out.println(send.getLatency().getPercentile(99));
+ * }</pre>
+ */
+public class HistogramMetricsRecorder implements MetricsRecorder {
+  @NotNull private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+  @Override
+  public void record(@NotNull RequestMetrics metrics) {
+    endpoints
+        .computeIfAbsent(metrics.getEndpoint(), endpoint -> new EndpointMetrics())
+        .record(metrics);
+  }
+
+  @NotNull
+  public Set<String> getEndpoints() {
+    return endpoints.keySet();
+  }
+
+  @Nullable
+  public EndpointMetrics getEndpointMetrics(@NotNull String endpoint) {
+    return endpoints.get(endpoint);
+  }
+
+  public void reset() {
+    endpoints.clear();
+  }
+
+  public static class EndpointMetrics {
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+    @Nullable private volatile Integer rateLimitRemaining;
+
+    void record(@NotNull RequestMetrics metrics) {
+      latency.record(metrics.getLatency());
+      if (!metrics.isSuccessful()) {
+        errors.increment();
+      }
+      retries.add(metrics.getRetryCount());
+      if (metrics.getRequestBytes() > 0) {
+        requestBytes.add(metrics.getRequestBytes());
+      }
+      responseBytes.add(metrics.getResponseBytes());
+      if (metrics.getRateLimitRemaining() != null) {
+        rateLimitRemaining = metrics.getRateLimitRemaining();
+      }
+    }
+
+    @NotNull
+    public LatencyHistogram getLatency() {
+      return latency;
+    }
+
+    public long getRequests() {
+      return latency.getCount();
+    }
+
+    public long getErrors() {
+      return errors.sum();
+    }
+
+    public long getRetries() {
+      return retries.sum();
+    }
+
+    public long getRequestBytes() {
+      return requestBytes.sum();
+    }
+
+    public long getResponseBytes() {
+      return responseBytes.sum();
+    }
+
+    /** @return the last X-Ratelimit-Remaining value seen for the endpoint, if any */
+    @Nullable
+    public Integer getRateLimitRemaining() {
+      return rateLimitRemaining;
+    }
+
+    @Override
+    public String toString() {
+      return "EndpointMetrics(requests="
+          + getRequests()
+          + ", errors="
+          + getErrors()
+          + ", retries="
+          + getRetries()
+          + ", p50="
+          + latency.getPercentile(50).toMillis()
+          + "ms, p99="
+          + latency.getPercentile(99).toMillis()
+          + "ms, max="
+          + latency.getMax().toMillis()
+          + "ms, rateLimitRemaining="
+          + rateLimitRemaining
+          + ")";
+    }
+  }
+}
@@ -220,6 +220,8 @@ public final class HttpLoggingInterceptor implements Interceptor {
       logger.log("--> END " + request.method());
     } else if (bodyEncoded(request.headers())) {
       logger.log("--> END " + request.method() + " (encoded body omitted)");
+    } else if (requestBody.isOneShot()) {
+      logger.log("--> END " + request.method() + " (one-shot body omitted)");
     } else {
       Buffer buffer = new Buffer();
       requestBody.writeTo(buffer);
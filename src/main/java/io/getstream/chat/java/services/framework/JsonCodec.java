@@ -0,0 +1,109 @@
+package io.getstream.chat.java.services.framework;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.StdDateFormat;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The JSON configuration shared by everything a client serializes. The {@link ObjectMapper} is
+ * configured once, and readers and writers are cached per type so their serializers are resolved
+ * only the first time. Instances are thread safe.
+ */
+public class JsonCodec {
+  // Larger buffers are dropped after use rather than kept for the lifetime of the thread
+  private static final int MAX_RETAINED_BUFFER_SIZE = 16 * 1024;
+  private static final JsonCodec DEFAULT = new JsonCodec(false);
+
+  @NotNull private final ObjectMapper objectMapper;
+  @NotNull private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+  @NotNull private final Map<Type, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+  @NotNull
+  private final ThreadLocal<CharArrayWriter> buffers =
+      ThreadLocal.withInitial(() -> new CharArrayWriter(256));
+
+  /**
+   * Creates a codec
+   *
+   * @param failOnUnknownProperties whether reading fails on properties missing from the models
+   */
+  public JsonCodec(boolean failOnUnknownProperties) {
+    objectMapper = new ObjectMapper();
+    objectMapper.configure(
+        DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, failOnUnknownProperties);
+    objectMapper.setDateFormat(
+        new StdDateFormat().withColonInTimeZone(true).withTimeZone(TimeZone.getTimeZone("UTC")));
+    objectMapper.enable(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_USING_DEFAULT_VALUE);
+  }
+
+  /** @return the codec used when no client is involved, ignoring unknown properties */
+  @NotNull
+  public static JsonCodec getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Returns the underlying mapper. It is shared: reconfiguring it affects the whole client and
+   * should only happen before the first request.
+   *
+   * @return the mapper
+   */
+  @NotNull
+  public ObjectMapper getObjectMapper() {
+    return objectMapper;
+  }
+
+  @NotNull
+  public ObjectReader readerFor(@NotNull Type type) {
+    return readers.computeIfAbsent(
+        type, key -> objectMapper.readerFor(objectMapper.constructType(key)));
+  }
+
+  @NotNull
+  public ObjectWriter writerFor(@NotNull Type type) {
+    return writers.computeIfAbsent(
+        type, key -> objectMapper.writerFor(objectMapper.constructType(key)));
+  }
+
+  @NotNull
+  public String writeValueAsString(@Nullable Object value) throws IOException {
+    if (value == null) {
+      return "null";
+    }
+    return writeValueAsString(writerFor(value.getClass()), value);
+  }
+
+  /**
+   * Serializes a value into a per-thread buffer reused across calls
+   *
+   * @param writer the writer, usually obtained from {@link #writerFor(Type)}
+   * @param value the value
+   * @return the JSON
+   * @throws IOException when the value cannot be serialized
+   */
+  @NotNull
+  public String writeValueAsString(@NotNull ObjectWriter writer, @Nullable Object value)
+      throws IOException {
+    CharArrayWriter buffer = buffers.get();
+    try {
+      writer.writeValue(buffer, value);
+      return buffer.toString();
+    } finally {
+      if (buffer.size() > MAX_RETAINED_BUFFER_SIZE) {
+        buffers.remove();
+      } else {
+        buffer.reset();
+      }
+    }
+  }
+}
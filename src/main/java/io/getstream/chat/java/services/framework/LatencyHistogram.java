@@ -0,0 +1,105 @@
+package io.getstream.chat.java.services.framework;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Lock-free latency histogram with log-linear buckets, in the spirit of HdrHistogram. Values are
+ * recorded in microseconds: each power of two is split into 32 buckets, which keeps the relative
+ * error of a percentile under 3% from 1 microsecond up to several hours, in a fixed amount of
+ * memory.
+ *
+ * <p>Recording is wait-free and can be called from any number of threads. Reads see a consistent
+ * enough view for monitoring purposes but are not atomic snapshots.
+ */
+public class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int MAX_SHIFT = 36;
+  private static final long MAX_VALUE = (2L * SUB_BUCKET_COUNT << MAX_SHIFT) - 1;
+
+  private final AtomicLongArray counts =
+      new AtomicLongArray(SUB_BUCKET_COUNT + (MAX_SHIFT + 1) * SUB_BUCKET_COUNT);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  public void record(@NotNull Duration latency) {
+    recordMicros(latency.toNanos() / 1000);
+  }
+
+  public void recordMicros(long micros) {
+    long value = Math.min(Math.max(0, micros), MAX_VALUE);
+    counts.incrementAndGet(indexOf(value));
+    count.increment();
+    sum.add(value);
+    max.accumulateAndGet(value, Math::max);
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  @NotNull
+  public Duration getMean() {
+    long currentCount = count.sum();
+    return currentCount == 0 ? Duration.ZERO : Duration.ofNanos(sum.sum() * 1000 / currentCount);
+  }
+
+  @NotNull
+  public Duration getMax() {
+    return Duration.ofNanos(max.get() * 1000);
+  }
+
+  /**
+   * Returns the value under which the given percentage of recorded values fall
+   *
+   * @param percentile the percentile, between 0 and 100
+   * @return the upper bound of the bucket holding the percentile
+   */
+  @NotNull
+  public Duration getPercentile(double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("percentile should be between 0 and 100");
+    }
+    long total = 0;
+    long[] snapshot = new long[counts.length()];
+    for (int i = 0; i < snapshot.length; i++) {
+      snapshot[i] = counts.get(i);
+      total += snapshot[i];
+    }
+    if (total == 0) {
+      return Duration.ZERO;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+    long seen = 0;
+    for (int i = 0; i < snapshot.length; i++) {
+      seen += snapshot[i];
+      if (seen >= rank) {
+        return Duration.ofNanos(Math.min(highestValueAt(i), max.get()) * 1000);
+      }
+    }
+    return getMax();
+  }
+
+  static int indexOf(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+    int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    return SUB_BUCKET_COUNT + shift * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  static long highestValueAt(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+    int subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+    return ((long) (SUB_BUCKET_COUNT + subBucket) << shift) + (1L << shift) - 1;
+  }
+}
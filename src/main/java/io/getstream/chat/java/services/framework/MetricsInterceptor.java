@@ -0,0 +1,160 @@
+package io.getstream.chat.java.services.framework;
+
+import io.getstream.chat.java.models.RateLimit;
+import io.getstream.chat.java.services.framework.MetricsRecorder.RequestMetrics;
+import io.getstream.chat.java.services.framework.RetryInterceptor.RetryCount;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import lombok.extern.java.Log;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Reports the requests sent to the API to the client {@link MetricsRecorder}. Installed after the
+ * {@link ConfigurationCache} and the {@link RequestDeduplicator}, so cache hits and requests
+ * collapsed into an in-flight one are not recorded. Installed before the retries, so the latency
+ * covers all attempts, up to the moment the response body is fully read and closed.
+ */
+@Log
+class MetricsInterceptor implements Interceptor {
+  @NotNull private final Supplier<MetricsRecorder> metricsRecorderSupplier;
+
+  MetricsInterceptor(@NotNull Supplier<MetricsRecorder> metricsRecorderSupplier) {
+    this.metricsRecorderSupplier = metricsRecorderSupplier;
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    MetricsRecorder metricsRecorder = metricsRecorderSupplier.get();
+    if (metricsRecorder == null) {
+      return chain.proceed(chain.request());
+    }
+
+    RetryCount retryCount = new RetryCount();
+    Request request = chain.request().newBuilder().tag(RetryCount.class, retryCount).build();
+    String endpoint = StreamServiceHandler.getEndpoint(request);
+    long requestBytes = request.body() != null ? request.body().contentLength() : 0;
+    long startNanos = System.nanoTime();
+    Response response;
+    try {
+      response = chain.proceed(request);
+    } catch (IOException e) {
+      record(
+          metricsRecorder,
+          new RequestMetrics(
+              endpoint,
+              request.method(),
+              null,
+              Duration.ofNanos(System.nanoTime() - startNanos),
+              requestBytes,
+              0,
+              retryCount.get(),
+              null,
+              e));
+      throw e;
+    }
+
+    RateLimit rateLimit = StreamServiceHandler.parseRateLimit(response.headers());
+    Integer rateLimitRemaining = rateLimit != null ? rateLimit.getRemaining() : null;
+    int statusCode = response.code();
+    LongConsumer onClose =
+        responseBytes ->
+            record(
+                metricsRecorder,
+                new RequestMetrics(
+                    endpoint,
+                    request.method(),
+                    statusCode,
+                    Duration.ofNanos(System.nanoTime() - startNanos),
+                    requestBytes,
+                    responseBytes,
+                    retryCount.get(),
+                    rateLimitRemaining,
+                    null));
+    ResponseBody body = response.body();
+    if (body == null) {
+      onClose.accept(0);
+      return response;
+    }
+    return response.newBuilder().body(new MeteredResponseBody(body, onClose)).build();
+  }
+
+  private static void record(
+      @NotNull MetricsRecorder metricsRecorder, @NotNull RequestMetrics requestMetrics) {
+    try {
+      metricsRecorder.record(requestMetrics);
+    } catch (RuntimeException e) {
+      log.log(Level.WARNING, "Metrics recorder failed for " + requestMetrics.getEndpoint(), e);
+    }
+  }
+
+  /** Counts the bytes read from a response body and reports them once it is closed */
+  private static class MeteredResponseBody extends ResponseBody {
+    @NotNull private final ResponseBody delegate;
+    @NotNull private final LongConsumer onClose;
+    @Nullable private BufferedSource source;
+
+    MeteredResponseBody(@NotNull ResponseBody delegate, @NotNull LongConsumer onClose) {
+      this.delegate = delegate;
+      this.onClose = onClose;
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+      return delegate.contentType();
+    }
+
+    @Override
+    public long contentLength() {
+      return delegate.contentLength();
+    }
+
+    @NotNull
+    @Override
+    public BufferedSource source() {
+      if (source == null) {
+        source =
+            Okio.buffer(
+                new ForwardingSource(delegate.source()) {
+                  private long bytesRead;
+                  private boolean closed;
+
+                  @Override
+                  public long read(@NotNull Buffer sink, long byteCount) throws IOException {
+                    long read = super.read(sink, byteCount);
+                    if (read > 0) {
+                      bytesRead += read;
+                    }
+                    return read;
+                  }
+
+                  @Override
+                  public void close() throws IOException {
+                    try {
+                      super.close();
+                    } finally {
+                      if (!closed) {
+                        closed = true;
+                        onClose.accept(bytesRead);
+                      }
+                    }
+                  }
+                });
+      }
+      return source;
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package io.getstream.chat.java.services.framework;
+
+import java.io.IOException;
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Receives the metrics of every request a client sends to the API. Requests served by the
+ * configuration cache or collapsed by the request deduplicator are not reported. Implementations
+ * are called on the thread completing the request and should return quickly.
+ *
+ * @see HistogramMetricsRecorder
+ */
+public interface MetricsRecorder {
+  void record(@NotNull RequestMetrics metrics);
+
+  @Getter
+  @ToString
+  @AllArgsConstructor
+  class RequestMetrics {
+    /** The logical endpoint, see {@link StreamServiceHandler#getEndpoint(retrofit2.Call)} */
+    @NotNull private final String endpoint;
+
+    /** The HTTP method */
+    @NotNull private final String method;
+
+    /** The status code of the last attempt, or null when it failed with an exception */
+    @Nullable private final Integer statusCode;
+
+    /** The time from sending the request to reading the last byte of its response */
+    @NotNull private final Duration latency;
+
+    /** The size of the request body, -1 when unknown */
+    private final long requestBytes;
+
+    /** The number of response body bytes read */
+    private final long responseBytes;
+
+    /** The number of retries performed before the final outcome */
+    private final int retryCount;
+
+    /** The X-Ratelimit-Remaining value of the response, if any */
+    @Nullable private final Integer rateLimitRemaining;
+
+    /** The exception the request failed with, if any */
+    @Nullable private final IOException exception;
+
+    public boolean isSuccessful() {
+      return statusCode != null && statusCode >= 200 && statusCode < 300;
+    }
+  }
+}
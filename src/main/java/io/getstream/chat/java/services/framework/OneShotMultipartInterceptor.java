@@ -0,0 +1,64 @@
+package io.getstream.chat.java.services.framework;
+
+import java.io.IOException;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Marks multipart bodies holding a one-shot part, like a streamed upload, as one-shot themselves.
+ * {@link MultipartBody} does not report the one-shot parts it holds, so the interceptors buffering
+ * or resending bodies would otherwise drain the part before the request is sent. Installed as the
+ * first application interceptor.
+ */
+class OneShotMultipartInterceptor implements Interceptor {
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Request request = chain.request();
+    RequestBody body = request.body();
+    if (!(body instanceof MultipartBody)) {
+      return chain.proceed(request);
+    }
+    MultipartBody multipartBody = (MultipartBody) body;
+    if (multipartBody.parts().stream().noneMatch(part -> part.body().isOneShot())) {
+      return chain.proceed(request);
+    }
+    return chain.proceed(
+        request.newBuilder().method(request.method(), new OneShotBody(multipartBody)).build());
+  }
+
+  private static class OneShotBody extends RequestBody {
+    @NotNull private final RequestBody delegate;
+
+    private OneShotBody(@NotNull RequestBody delegate) {
+      this.delegate = delegate;
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+      return delegate.contentType();
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+      return delegate.contentLength();
+    }
+
+    @Override
+    public void writeTo(@NotNull BufferedSink sink) throws IOException {
+      delegate.writeTo(sink);
+    }
+
+    @Override
+    public boolean isOneShot() {
+      return true;
+    }
+  }
+}
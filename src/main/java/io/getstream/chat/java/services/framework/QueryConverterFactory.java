@@ -1,19 +1,33 @@
 package io.getstream.chat.java.services.framework;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.io.ByteArrayOutputStream;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.time.format.DateTimeFormatter;
 import java.util.Date;
+import org.jetbrains.annotations.NotNull;
 import retrofit2.Converter;
 import retrofit2.Retrofit;
 
 public class QueryConverterFactory extends Converter.Factory {
+  @NotNull private final JsonCodec jsonCodec;
+
+  public QueryConverterFactory() {
+    this(JsonCodec.getDefault());
+  }
+
+  public QueryConverterFactory(@NotNull JsonCodec jsonCodec) {
+    this.jsonCodec = jsonCodec;
+  }
+
   public static QueryConverterFactory create() {
     return new QueryConverterFactory();
   }
 
+  public static QueryConverterFactory create(@NotNull JsonCodec jsonCodec) {
+    return new QueryConverterFactory(jsonCodec);
+  }
+
   @Override
   public Converter<?, String> stringConverter(
       Type type, Annotation[] annotations, Retrofit retrofit) {
@@ -25,11 +39,9 @@ public class QueryConverterFactory extends Converter.Factory {
     if (!hasToJson(annotations)) {
       return super.stringConverter(type, annotations, retrofit);
     }
-    return value -> {
-      ByteArrayOutputStream baos = new ByteArrayOutputStream();
-      new ObjectMapper().writeValue(baos, value);
-      return baos.toString("UTF-8");
-    };
+    // Retrofit creates the converter once per service method, so the writer is resolved once
+    ObjectWriter writer = jsonCodec.writerFor(type);
+    return value -> jsonCodec.writeValueAsString(writer, value);
   }
 
   private boolean hasToJson(final Annotation[] annotations) {
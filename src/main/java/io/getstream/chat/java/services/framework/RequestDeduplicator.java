@@ -0,0 +1,263 @@
+package io.getstream.chat.java.services.framework;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import okio.ByteString;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Collapses identical idempotent requests running at the same time into a single API call.
+ *
+ * <p>Requests are identical when they have the same method, path, query parameters, in any
+ * order, and body bytes. While a request is in flight, the identical ones wait for it and get a
+ * copy of its response, or fail with its error, instead of being sent. Nothing is kept once the
+ * request completes, so a request started after that is sent again.
+ *
+ * <p>All GET requests are deduplicated, along with {@code ChannelService.list}, which only reads
+ * channels, and {@code ChannelService.getOrCreateWithId}: identical calls for the same channel id
+ * create it at most once and return the same state. Other POST endpoints known to be idempotent
+ * can be added by name, as {@code ServiceName.method}. Collapsed requests do not carry the rate
+ * limit headers, since they do not consume the API rate limit, and bypass the client-side rate
+ * limiter. A deduplicator belongs to a single client.
+ *
+ * <pre>{@code
+ * var requestDeduplicator = new RequestDeduplicator();
+ * client.setRequestDeduplicator(requestDeduplicator);
+ * ...
+ * System.out.println(requestDeduplicator.getCollapsedCount() + " requests collapsed");
+ * }</pre>
+ */
+public class RequestDeduplicator {
+  private static final Set<String> DEFAULT_ENDPOINTS =
+      Set.of("ChannelService.list", "ChannelService.getOrCreateWithId");
+
+  // Waiters check that their own call was not canceled this often
+  private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  @NotNull private final Set<String> endpoints;
+  @NotNull private final Map<Key, CompletableFuture<BufferedResponse>> flights =
+      new ConcurrentHashMap<>();
+
+  private final LongAdder sent = new LongAdder();
+  private final LongAdder collapsed = new LongAdder();
+  @NotNull private final Map<String, LongAdder> collapsedByEndpoint = new ConcurrentHashMap<>();
+
+  /** Creates a deduplicator of GET requests, channel queries and channel gets by id */
+  public RequestDeduplicator() {
+    this(Set.of());
+  }
+
+  /**
+   * Creates a deduplicator of GET requests, channel queries, channel gets by id and the given
+   * endpoints
+   *
+   * @param idempotentEndpoints the other endpoints to deduplicate, as {@code ServiceName.method}
+   */
+  public RequestDeduplicator(@NotNull Collection<String> idempotentEndpoints) {
+    var allEndpoints = new HashSet<>(DEFAULT_ENDPOINTS);
+    allEndpoints.addAll(idempotentEndpoints);
+    this.endpoints = Set.copyOf(allEndpoints);
+  }
+
+  /** @return the number of deduplicated requests actually sent to the API */
+  public long getSentCount() {
+    return sent.sum();
+  }
+
+  /** @return the number of requests that shared the response of an identical one */
+  public long getCollapsedCount() {
+    return collapsed.sum();
+  }
+
+  /** @return the number of collapsed requests per endpoint, as {@code ServiceName.method} */
+  @NotNull
+  public Map<String, Long> getCollapsedCountByEndpoint() {
+    var counts = new HashMap<String, Long>();
+    collapsedByEndpoint.forEach((endpoint, count) -> counts.put(endpoint, count.sum()));
+    return counts;
+  }
+
+  /** @return the number of distinct requests in flight */
+  public int getInFlightCount() {
+    return flights.size();
+  }
+
+  @Override
+  public String toString() {
+    return "RequestDeduplicator(sent="
+        + getSentCount()
+        + ", collapsed="
+        + getCollapsedCount()
+        + ", inFlight="
+        + getInFlightCount()
+        + ")";
+  }
+
+  /** @return whether an identical request is in flight right now */
+  boolean isInFlight(@NotNull Request request) {
+    if (flights.isEmpty() || !isDeduplicated(request)) {
+      return false;
+    }
+    try {
+      return flights.containsKey(Key.of(request));
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  @NotNull
+  Response intercept(@NotNull Interceptor.Chain chain) throws IOException {
+    Request request = chain.request();
+    if (!isDeduplicated(request)) {
+      return chain.proceed(request);
+    }
+    Key key = Key.of(request);
+    var flight = new CompletableFuture<BufferedResponse>();
+    CompletableFuture<BufferedResponse> existing = flights.putIfAbsent(key, flight);
+    if (existing != null) {
+      collapsed.increment();
+      collapsedByEndpoint
+          .computeIfAbsent(StreamServiceHandler.getEndpoint(request), endpoint -> new LongAdder())
+          .increment();
+      return await(existing, chain).toSharedResponse(request);
+    }
+
+    sent.increment();
+    BufferedResponse response;
+    try {
+      response = BufferedResponse.read(chain.proceed(request));
+    } catch (IOException | RuntimeException e) {
+      flights.remove(key, flight);
+      flight.completeExceptionally(e);
+      throw e;
+    }
+    flights.remove(key, flight);
+    flight.complete(response);
+    return response.toResponse(request);
+  }
+
+  private boolean isDeduplicated(@NotNull Request request) {
+    if (request.body() != null && request.body().isOneShot()) {
+      return false;
+    }
+    return "GET".equals(request.method())
+        || endpoints.contains(StreamServiceHandler.getEndpoint(request));
+  }
+
+  /** Waits for the identical request, within the timeout of the waiting call */
+  @NotNull
+  private static BufferedResponse await(
+      @NotNull CompletableFuture<BufferedResponse> flight, @NotNull Interceptor.Chain chain)
+      throws IOException {
+    long timeoutNanos = chain.call().timeout().timeoutNanos();
+    long startNanos = System.nanoTime();
+    try {
+      while (true) {
+        if (chain.call().isCanceled()) {
+          throw new IOException("Canceled");
+        }
+        long waitNanos = POLL_NANOS;
+        if (timeoutNanos > 0) {
+          long remainingNanos = timeoutNanos - (System.nanoTime() - startNanos);
+          if (remainingNanos <= 0) {
+            throw new InterruptedIOException("timeout");
+          }
+          waitNanos = Math.min(waitNanos, remainingNanos);
+        }
+        try {
+          return flight.get(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+          // Check the call again
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting for an identical request");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException) {
+        throw new IOException(cause.getMessage(), cause);
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  /** The method, canonical URL and body bytes of a request */
+  private static class Key {
+    @NotNull private final String method;
+    @NotNull private final String url;
+    @NotNull private final ByteString body;
+
+    private Key(@NotNull String method, @NotNull String url, @NotNull ByteString body) {
+      this.method = method;
+      this.url = url;
+      this.body = body;
+    }
+
+    @NotNull
+    static Key of(@NotNull Request request) throws IOException {
+      return new Key(request.method(), canonicalUrl(request.url()), bodyBytes(request.body()));
+    }
+
+    /** The URL with its query parameters sorted, so that their order does not matter */
+    @NotNull
+    private static String canonicalUrl(@NotNull HttpUrl url) {
+      String query = url.encodedQuery();
+      if (query == null || url.querySize() < 2) {
+        return url.toString();
+      }
+      String[] parameters = query.split("&");
+      Arrays.sort(parameters);
+      return url.newBuilder().encodedQuery(String.join("&", parameters)).build().toString();
+    }
+
+    @NotNull
+    private static ByteString bodyBytes(@Nullable RequestBody body) throws IOException {
+      if (body == null) {
+        return ByteString.EMPTY;
+      }
+      var buffer = new Buffer();
+      body.writeTo(buffer);
+      return buffer.readByteString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      return method.equals(key.method) && url.equals(key.url) && body.equals(key.body);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (31 * method.hashCode() + url.hashCode()) + body.hashCode();
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package io.getstream.chat.java.services.framework;
+
+import io.getstream.chat.java.models.RateLimit;
+import io.getstream.chat.java.services.framework.RetryPolicy.RetryAttempt;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.function.Supplier;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Resends failed requests according to the client {@link RetryPolicy}. Installed as the last
+ * application interceptor so that every attempt reuses the same, already serialized, request.
+ *
+ * <p>The retry delay is slept on the calling thread. For asynchronous requests that is an OkHttp
+ * dispatcher thread, which keeps its per-host slot while waiting, so policies should keep their
+ * delays short.
+ */
+class RetryInterceptor implements Interceptor {
+  @NotNull private final Supplier<RetryPolicy> retryPolicySupplier;
+  @NotNull private final RetryStats retryStats = new RetryStats();
+
+  RetryInterceptor(@NotNull Supplier<RetryPolicy> retryPolicySupplier) {
+    this.retryPolicySupplier = retryPolicySupplier;
+  }
+
+  @NotNull
+  RetryStats getRetryStats() {
+    return retryStats;
+  }
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    RetryPolicy retryPolicy = retryPolicySupplier.get();
+    Request request = chain.request();
+    if (retryPolicy == null || isOneShot(request.body())) {
+      return chain.proceed(request);
+    }
+
+    long startNanos = System.nanoTime();
+    String endpoint = StreamServiceHandler.getEndpoint(request);
+    for (int attemptCount = 1; ; attemptCount++) {
+      Response response = null;
+      IOException exception = null;
+      try {
+        response = chain.proceed(request);
+        if (response.code() != 429 && response.code() < 500) {
+          return response;
+        }
+      } catch (IOException e) {
+        if (chain.call().isCanceled()) {
+          throw e;
+        }
+        exception = e;
+      }
+
+      Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+      Integer statusCode = response != null ? response.code() : null;
+      Date rateLimitReset = null;
+      if (response != null) {
+        RateLimit rateLimit = StreamServiceHandler.parseRateLimit(response.headers());
+        rateLimitReset = rateLimit != null ? rateLimit.getReset() : null;
+      }
+      Duration delay =
+          retryPolicy.retryDelay(
+              new RetryAttempt(
+                  request.method(),
+                  endpoint,
+                  attemptCount,
+                  statusCode,
+                  exception,
+                  rateLimitReset,
+                  elapsed));
+      if (delay == null || exceedsCallTimeout(chain, elapsed.plus(delay))) {
+        if (attemptCount > 1) {
+          retryStats.recordExhausted();
+        }
+        if (exception != null) {
+          throw exception;
+        }
+        return response;
+      }
+
+      if (response != null) {
+        response.close();
+      }
+      retryStats.recordRetry(statusCode);
+      RetryCount retryCount = request.tag(RetryCount.class);
+      if (retryCount != null) {
+        retryCount.increment();
+      }
+      sleep(delay);
+    }
+  }
+
+  private static boolean exceedsCallTimeout(@NotNull Chain chain, @NotNull Duration elapsed) {
+    long timeoutNanos = chain.call().timeout().timeoutNanos();
+    return timeoutNanos > 0 && elapsed.toNanos() >= timeoutNanos;
+  }
+
+  private static void sleep(@NotNull Duration delay) throws InterruptedIOException {
+    try {
+      Thread.sleep(delay.toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting to retry");
+    }
+  }
+
+  /**
+   * Mutable request tag through which outer interceptors learn how many times a request was
+   * retried
+   */
+  static class RetryCount {
+    private volatile int value;
+
+    void increment() {
+      value++;
+    }
+
+    int get() {
+      return value;
+    }
+  }
+
+  /** Multipart bodies with a one-shot part are marked by {@link OneShotMultipartInterceptor} */
+  private static boolean isOneShot(@Nullable RequestBody body) {
+    return body != null && body.isOneShot();
+  }
+}
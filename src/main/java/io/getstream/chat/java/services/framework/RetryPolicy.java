@@ -0,0 +1,52 @@
+package io.getstream.chat.java.services.framework;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Date;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Decides whether a failed request should be sent again. A policy is consulted after each attempt
+ * that failed with an IO exception, a 5xx or a 429 response. Retries resend the request as is, the
+ * body is not serialized again.
+ *
+ * @see DefaultRetryPolicy
+ */
+public interface RetryPolicy {
+  /**
+   * Decides whether to retry
+   *
+   * @param attempt the attempt that just failed
+   * @return how long to wait before the next attempt, or null to give up and return the failure
+   */
+  @Nullable
+  Duration retryDelay(@NotNull RetryAttempt attempt);
+
+  @Getter
+  @AllArgsConstructor
+  class RetryAttempt {
+    /** The HTTP method */
+    @NotNull private final String method;
+
+    /** The logical endpoint, see {@link StreamServiceHandler#getEndpoint(retrofit2.Call)} */
+    @NotNull private final String endpoint;
+
+    /** The number of attempts made so far, starting at 1 */
+    private final int attemptCount;
+
+    /** The response status code, or null when the attempt failed with an exception */
+    @Nullable private final Integer statusCode;
+
+    /** The exception, or null when a response was received */
+    @Nullable private final IOException exception;
+
+    /** The X-Ratelimit-Reset value of the response, if any */
+    @Nullable private final Date rateLimitReset;
+
+    /** The time elapsed since the first attempt started */
+    @NotNull private final Duration elapsed;
+  }
+}
@@ -0,0 +1,66 @@
+package io.getstream.chat.java.services.framework;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** Counters of the retries performed by a client, see {@link DefaultClient#getRetryStats()} */
+public class RetryStats {
+  private final LongAdder retriesOnServerError = new LongAdder();
+  private final LongAdder retriesOnRateLimit = new LongAdder();
+  private final LongAdder retriesOnConnectionFailure = new LongAdder();
+  private final LongAdder exhaustedRequests = new LongAdder();
+
+  /** @return the number of retries after a 5xx response */
+  public long getRetriesOnServerError() {
+    return retriesOnServerError.sum();
+  }
+
+  /** @return the number of retries after a 429 response */
+  public long getRetriesOnRateLimit() {
+    return retriesOnRateLimit.sum();
+  }
+
+  /** @return the number of retries after a connection failure */
+  public long getRetriesOnConnectionFailure() {
+    return retriesOnConnectionFailure.sum();
+  }
+
+  /** @return the total number of retries */
+  public long getRetries() {
+    return getRetriesOnServerError() + getRetriesOnRateLimit() + getRetriesOnConnectionFailure();
+  }
+
+  /**
+   * @return the number of retried requests that still failed when the retry policy gave up,
+   *     excluding the ones never retried
+   */
+  public long getExhaustedRequests() {
+    return exhaustedRequests.sum();
+  }
+
+  void recordRetry(Integer statusCode) {
+    if (statusCode == null) {
+      retriesOnConnectionFailure.increment();
+    } else if (statusCode == 429) {
+      retriesOnRateLimit.increment();
+    } else {
+      retriesOnServerError.increment();
+    }
+  }
+
+  void recordExhausted() {
+    exhaustedRequests.increment();
+  }
+
+  @Override
+  public String toString() {
+    return "RetryStats(retriesOnServerError="
+        + getRetriesOnServerError()
+        + ", retriesOnRateLimit="
+        + getRetriesOnRateLimit()
+        + ", retriesOnConnectionFailure="
+        + getRetriesOnConnectionFailure()
+        + ", exhaustedRequests="
+        + getExhaustedRequests()
+        + ")";
+  }
+}
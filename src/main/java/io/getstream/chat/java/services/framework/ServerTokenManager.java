@@ -0,0 +1,126 @@
+package io.getstream.chat.java.services.framework;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.crypto.spec.SecretKeySpec;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Mints the server-side (admin) JWT used to authenticate every API call and caches it, so that the
+ * HMAC signature is only computed when the token actually needs to change.
+ *
+ * <p>Tokens are issued 5 seconds in the past to absorb clock skew with the API ("token used before
+ * issue at"). When a time to live is configured, the token carries an expiration and is refreshed
+ * ahead of it by the same skew margin. Without a time to live the token never expires and is
+ * reused for the whole lifetime of the manager.
+ */
+public class ServerTokenManager {
+  static final Duration CLOCK_SKEW = Duration.ofSeconds(5);
+
+  @Nullable private final Duration tokenTtl;
+
+  @NotNull private final AtomicReference<ServerToken> current;
+
+  public ServerTokenManager(@NotNull String apiSecret) {
+    this(apiSecret, null);
+  }
+
+  /**
+   * Creates a token manager
+   *
+   * @param apiSecret the API secret used to sign the tokens
+   * @param tokenTtl the lifetime of each token, or null for tokens without expiration
+   */
+  public ServerTokenManager(@NotNull String apiSecret, @Nullable Duration tokenTtl) {
+    if (tokenTtl != null && tokenTtl.compareTo(CLOCK_SKEW.multipliedBy(2)) <= 0) {
+      throw new IllegalArgumentException(
+          "Token time to live should be greater than " + CLOCK_SKEW.multipliedBy(2));
+    }
+    this.tokenTtl = tokenTtl;
+    this.current = new AtomicReference<>(mint(apiSecret, signingKey(apiSecret)));
+  }
+
+  /**
+   * Returns the current token, minting a new one if the cached one is about to expire
+   *
+   * @return the token to send in the Authorization header
+   */
+  @NotNull
+  public String getToken() {
+    ServerToken token = current.get();
+    if (System.currentTimeMillis() < token.refreshAt) {
+      return token.value;
+    }
+    // If another thread refreshed or rotated in the meantime, its token wins
+    current.compareAndSet(token, mint(token.apiSecret, token.signingKey));
+    return current.get().value;
+  }
+
+  @NotNull
+  public String getApiSecret() {
+    return current.get().apiSecret;
+  }
+
+  @Nullable
+  public Duration getTokenTtl() {
+    return tokenTtl;
+  }
+
+  /**
+   * Replaces the signing secret. The secret and its token are swapped together, so concurrent
+   * callers either see the previous pair or the new one.
+   *
+   * @param apiSecret the new API secret
+   */
+  public void rotate(@NotNull String apiSecret) {
+    current.set(mint(apiSecret, signingKey(apiSecret)));
+  }
+
+  @NotNull
+  private ServerToken mint(@NotNull String apiSecret, @NotNull Key signingKey) {
+    long now = System.currentTimeMillis();
+    JwtBuilder builder =
+        Jwts.builder()
+            .setIssuer("Stream Chat Java SDK")
+            .setSubject("Stream Chat Java SDK")
+            .claim("server", true)
+            .claim("scope", "admins")
+            .setIssuedAt(new Date(now - CLOCK_SKEW.toMillis()));
+    long refreshAt = Long.MAX_VALUE;
+    if (tokenTtl != null) {
+      long expiresAt = now - CLOCK_SKEW.toMillis() + tokenTtl.toMillis();
+      builder.setExpiration(new Date(expiresAt));
+      refreshAt = expiresAt - CLOCK_SKEW.toMillis();
+    }
+    String value = builder.signWith(signingKey, SignatureAlgorithm.HS256).compact();
+    return new ServerToken(apiSecret, signingKey, value, refreshAt);
+  }
+
+  @NotNull
+  private static Key signingKey(@NotNull String apiSecret) {
+    return new SecretKeySpec(
+        apiSecret.getBytes(StandardCharsets.UTF_8), SignatureAlgorithm.HS256.getJcaName());
+  }
+
+  private static class ServerToken {
+    @NotNull private final String apiSecret;
+    @NotNull private final Key signingKey;
+    @NotNull private final String value;
+    private final long refreshAt;
+
+    private ServerToken(
+        @NotNull String apiSecret, @NotNull Key signingKey, @NotNull String value, long refreshAt) {
+      this.apiSecret = apiSecret;
+      this.signingKey = signingKey;
+      this.value = value;
+      this.refreshAt = refreshAt;
+    }
+  }
+}
@@ -5,38 +5,246 @@ import io.getstream.chat.java.models.RateLimit;
 import io.getstream.chat.java.models.framework.StreamResponse;
 import io.getstream.chat.java.models.framework.StreamResponseWithRateLimit;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import okhttp3.Headers;
+import okhttp3.Request;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import retrofit2.Call;
 import retrofit2.Callback;
+import retrofit2.Invocation;
 import retrofit2.Response;
 
 public class StreamServiceHandler {
+  @Nullable private final Client client;
+
+  public StreamServiceHandler() {
+    this(null);
+  }
+
+  /**
+   * Creates a handler applying the client policies (rate limiting, ...) to the calls
+   *
+   * @param client the client the calls were created with
+   */
+  public StreamServiceHandler(@Nullable Client client) {
+    this.client = client;
+  }
+
   public <T extends StreamResponse> T handle(Call<T> call) throws StreamException {
+    return handle(call, null);
+  }
+
+  /**
+   * Executes the call
+   *
+   * @param call the call to execute
+   * @param timeout the deadline of the whole call, including the time waiting for the rate limiter
+   *     and all retries, or null to use the client timeout
+   * @return the response
+   * @throws StreamException when the call fails or the API returns an error
+   */
+  public <T extends StreamResponse> T handle(Call<T> call, @Nullable Duration timeout)
+      throws StreamException {
+    long startNanos = System.nanoTime();
+    Duration effectiveTimeout = getEffectiveTimeout(timeout);
+    ClientRateLimiter rateLimiter = getRateLimiter(call);
+    String endpoint = rateLimiter != null ? getEndpoint(call) : null;
     try {
+      if (rateLimiter != null) {
+        Duration maxWait = getRemainingTime(effectiveTimeout, startNanos);
+        if (maxWait == null) {
+          rateLimiter.acquire(endpoint);
+        } else if (!rateLimiter.tryAcquire(endpoint, maxWait)) {
+          throw new InterruptedIOException("timeout");
+        }
+      }
+      applyTimeout(call, effectiveTimeout, startNanos);
       Response<T> response = call.execute();
+      updateRateLimiter(rateLimiter, endpoint, response);
       if (response.isSuccessful()) {
         return enrichResponse(response);
       }
-      throw StreamException.build(response);
+      throw buildException(response);
     } catch (IOException e) {
       throw StreamException.build(e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw StreamException.build(e);
     }
   }
 
   public <T extends StreamResponse> void handleAsync(
       Call<T> call, Consumer<T> onSuccess, Consumer<StreamException> onError) {
+    handleAsync(call, null, onSuccess, onError);
+  }
+
+  /**
+   * Executes the call asynchronously
+   *
+   * @param call the call to execute
+   * @param timeout the deadline of the whole call, including the time waiting for the rate limiter
+   *     and all retries, or null to use the client timeout
+   * @param onSuccess executed when the call is successful
+   * @param onError executed when the call fails or the API returns an error
+   */
+  public <T extends StreamResponse> void handleAsync(
+      Call<T> call,
+      @Nullable Duration timeout,
+      Consumer<T> onSuccess,
+      Consumer<StreamException> onError) {
+    long startNanos = System.nanoTime();
+    Duration effectiveTimeout = getEffectiveTimeout(timeout);
+    ClientRateLimiter rateLimiter = getRateLimiter(call);
+    if (rateLimiter == null) {
+      enqueue(call, effectiveTimeout, startNanos, null, null, onSuccess, onError);
+      return;
+    }
+    String endpoint = getEndpoint(call);
+    Duration maxWait = getRemainingTime(effectiveTimeout, startNanos);
+    CompletableFuture<Void> acquired =
+        maxWait == null
+            ? rateLimiter.acquireAsync(endpoint)
+            : rateLimiter.tryAcquireAsync(endpoint, maxWait);
+    if (acquired == null) {
+      // The limiter would hold the call past its deadline
+      if (onError != null) {
+        onError.accept(StreamException.build(new InterruptedIOException("timeout")));
+      }
+      return;
+    }
+    acquired.whenComplete(
+        (ignored, throwable) -> {
+          // Nobody observes this stage: every failure has to reach onError
+          Throwable failure = throwable;
+          if (failure == null) {
+            try {
+              enqueue(
+                  call, effectiveTimeout, startNanos, rateLimiter, endpoint, onSuccess, onError);
+            } catch (RuntimeException e) {
+              failure = e;
+            }
+          }
+          if (failure != null && onError != null) {
+            onError.accept(StreamException.build(failure));
+          }
+        });
+  }
+
+  /**
+   * Executes the call asynchronously and exposes its outcome as a future. Cancelling the returned
+   * future cancels the underlying HTTP call. Cancelling a stage derived from it (thenApply, ...)
+   * does not.
+   *
+   * @param call the call to execute
+   * @param executor the executor completing the future, or null to complete it on the HTTP
+   *     dispatcher thread
+   * @param timeout the deadline of the whole call, including the time waiting for the rate limiter
+   *     and all retries, or null to use the client timeout
+   * @return the future response
+   */
+  @NotNull
+  public <T extends StreamResponse> CompletableFuture<T> handleFuture(
+      @NotNull Call<T> call, @Nullable Executor executor, @Nullable Duration timeout) {
+    CompletableFuture<T> future =
+        new CompletableFuture<>() {
+          @Override
+          public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+              call.cancel();
+            }
+            return cancelled;
+          }
+        };
+    handleAsync(
+        call,
+        timeout,
+        response -> completeOn(executor, future, () -> future.complete(response)),
+        exception -> completeOn(executor, future, () -> future.completeExceptionally(exception)));
+    return future;
+  }
+
+  /**
+   * Returns the logical endpoint of a call: the Retrofit service method it was created from, like
+   * {@code MessageService.send}. Path parameters (ids, ...) are not part of it.
+   *
+   * @param call the call
+   * @return the endpoint
+   */
+  @NotNull
+  public static String getEndpoint(@NotNull Call<?> call) {
+    return getEndpoint(call.request());
+  }
+
+  @NotNull
+  static String getEndpoint(@NotNull Request request) {
+    Invocation invocation = request.tag(Invocation.class);
+    if (invocation == null) {
+      return request.method() + " " + request.url().encodedPath();
+    }
+    Method method = invocation.method();
+    return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+  }
+
+  @Nullable
+  static RateLimit parseRateLimit(@NotNull Headers headers) {
+    String limit = headers.get("X-Ratelimit-Limit");
+    String remaining = headers.get("X-Ratelimit-Remaining");
+    String reset = headers.get("X-Ratelimit-Reset");
+    if (limit == null && remaining == null && reset == null) {
+      return null;
+    }
+    RateLimit rateLimit = new RateLimit();
+    if (limit != null) {
+      rateLimit.setLimit(Integer.parseInt(limit));
+    }
+
+    if (remaining != null) {
+      rateLimit.setRemaining(Integer.parseInt(remaining));
+    }
+
+    if (reset != null) {
+      rateLimit.setReset(new Date(Long.parseLong(reset) * 1000));
+    }
+    return rateLimit;
+  }
+
+  private <T extends StreamResponse> void enqueue(
+      Call<T> call,
+      @Nullable Duration timeout,
+      long startNanos,
+      @Nullable ClientRateLimiter rateLimiter,
+      @Nullable String endpoint,
+      Consumer<T> onSuccess,
+      Consumer<StreamException> onError) {
+    try {
+      applyTimeout(call, timeout, startNanos);
+    } catch (InterruptedIOException e) {
+      if (onError != null) {
+        onError.accept(StreamException.build(e));
+      }
+      return;
+    }
     call.enqueue(
         new Callback<T>() {
           @Override
           public void onResponse(Call<T> call, Response<T> response) {
+            updateRateLimiter(rateLimiter, endpoint, response);
             if (response.isSuccessful()) {
               if (onSuccess != null) {
                 onSuccess.accept(enrichResponse(response));
               }
             } else if (onError != null) {
-              onError.accept(StreamException.build(response));
+              onError.accept(buildException(response));
             }
           }
 
@@ -49,23 +257,102 @@ public class StreamServiceHandler {
         });
   }
 
+  @Nullable
+  private Duration getEffectiveTimeout(@Nullable Duration timeout) {
+    if (timeout != null) {
+      return timeout;
+    }
+    return client != null ? client.getTimeout() : null;
+  }
+
+  /** Returns what is left of the deadline, or null when the call has no deadline */
+  @Nullable
+  private static Duration getRemainingTime(@Nullable Duration timeout, long startNanos) {
+    if (timeout == null || timeout.isZero()) {
+      return null;
+    }
+    return timeout.minusNanos(System.nanoTime() - startNanos);
+  }
+
+  /**
+   * Sets the call timeout to what is left of the deadline once the rate limiter let the call
+   * through. OkHttp then bounds the whole call, retries included, with it.
+   */
+  private static void applyTimeout(
+      @NotNull Call<?> call, @Nullable Duration timeout, long startNanos)
+      throws InterruptedIOException {
+    if (timeout == null) {
+      return;
+    }
+    if (timeout.isZero()) {
+      // Zero disables the timeout, as with OkHttp
+      call.timeout().timeout(0, TimeUnit.NANOSECONDS);
+      return;
+    }
+    long remainingNanos = timeout.toNanos() - (System.nanoTime() - startNanos);
+    if (remainingNanos <= 0) {
+      throw new InterruptedIOException("timeout");
+    }
+    call.timeout().timeout(remainingNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Returns the rate limiter of the client, unless the call is served by its cache or shares the
+   * response of an identical call
+   */
+  @Nullable
+  private ClientRateLimiter getRateLimiter(@NotNull Call<?> call) {
+    if (client == null) {
+      return null;
+    }
+    ConfigurationCache configurationCache = client.getConfigurationCache();
+    if (configurationCache != null && configurationCache.isFresh(call.request())) {
+      return null;
+    }
+    RequestDeduplicator requestDeduplicator = client.getRequestDeduplicator();
+    if (requestDeduplicator != null && requestDeduplicator.isInFlight(call.request())) {
+      return null;
+    }
+    return client.getRateLimiter();
+  }
+
+  /** Builds the error of an unsuccessful response, along with its rate limit headers */
+  private static StreamException buildException(Response<?> response) {
+    StreamException exception = StreamException.build(response);
+    exception.getResponseData().setRateLimit(parseRateLimit(response.headers()));
+    return exception;
+  }
+
+  private static void updateRateLimiter(
+      @Nullable ClientRateLimiter rateLimiter, @Nullable String endpoint, Response<?> response) {
+    if (rateLimiter == null || endpoint == null) {
+      return;
+    }
+    RateLimit rateLimit = parseRateLimit(response.headers());
+    if (rateLimit != null) {
+      rateLimiter.update(endpoint, rateLimit);
+    }
+  }
+
+  private static void completeOn(
+      @Nullable Executor executor, @NotNull CompletableFuture<?> future, @NotNull Runnable action) {
+    if (executor == null) {
+      action.run();
+      return;
+    }
+    try {
+      executor.execute(action);
+    } catch (RejectedExecutionException e) {
+      future.completeExceptionally(StreamException.build(e));
+    }
+  }
+
   private <T extends StreamResponse> T enrichResponse(Response<T> response) {
     T result = response.body();
     if (result instanceof StreamResponseWithRateLimit) {
-      Headers headers = response.headers();
-      RateLimit rateLimit = new RateLimit();
-      if (headers.get("X-Ratelimit-Limit") != null) {
-        rateLimit.setLimit(Integer.parseInt(headers.get("X-Ratelimit-Limit")));
-      }
-
-      if (headers.get("X-Ratelimit-Remaining") != null) {
-        rateLimit.setRemaining(Integer.parseInt(headers.get("X-Ratelimit-Remaining")));
-      }
-
-      if (headers.get("X-Ratelimit-Reset") != null) {
-        rateLimit.setReset(new Date(Long.parseLong(headers.get("X-Ratelimit-Reset")) * 1000));
-      }
-      ((StreamResponseWithRateLimit) result).setRateLimit(rateLimit);
+      RateLimit rateLimit = parseRateLimit(response.headers());
+      ((StreamResponseWithRateLimit) result)
+          .setRateLimit(rateLimit != null ? rateLimit : new RateLimit());
     }
     return result;
   }
@@ -0,0 +1,166 @@
+package io.getstream.chat.java.services.framework;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Verifies the HMAC-SHA256 signature of webhook bodies, as sent in the {@code X-Signature} header,
+ * for a given API secret.
+ *
+ * <p>Bodies are verified as raw bytes, exactly as received, without decoding them to a string.
+ * The keyed HMAC state is computed once and each thread reuses its own MAC and buffers, so a
+ * verification does not allocate. The expected signature is decoded from hex once and compared
+ * in constant time. Instances are thread safe and meant to be shared.
+ *
+ * <pre>{@code
+ * var webhookVerifier = new WebhookVerifier(apiSecret);
+ * if (!webhookVerifier.verify(bodyBytes, request.getHeader("X-Signature"))) {
+ *   // reject
+ * }
+ * }</pre>
+ */
+public class WebhookVerifier {
+  private static final String ALGORITHM = "HmacSHA256";
+  private static final int SIGNATURE_LENGTH = 32;
+
+  @NotNull private final Mac prototype;
+  @NotNull private final ThreadLocal<Verification> verifications;
+
+  /**
+   * Creates a verifier
+   *
+   * @param apiSecret the API secret signing the webhooks
+   */
+  public WebhookVerifier(@NotNull String apiSecret) {
+    var signingKey = new SecretKeySpec(apiSecret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    try {
+      prototype = Mac.getInstance(ALGORITHM);
+      prototype.init(signingKey);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("Should not happen. Could not init HmacSHA256", e);
+    }
+    verifications = ThreadLocal.withInitial(() -> new Verification(newMac(signingKey)));
+  }
+
+  /**
+   * Verifies a body
+   *
+   * @param body the raw body of the HTTP request
+   * @param signature the signature provided in the X-Signature header
+   * @return true if the signature is valid
+   */
+  public boolean verify(@NotNull byte[] body, @NotNull CharSequence signature) {
+    return verify(body, 0, body.length, signature);
+  }
+
+  /**
+   * Verifies a body stored in a part of an array
+   *
+   * @param body the array containing the raw body of the HTTP request
+   * @param offset the offset of the body in the array
+   * @param length the length of the body
+   * @param signature the signature provided in the X-Signature header
+   * @return true if the signature is valid
+   */
+  public boolean verify(
+      @NotNull byte[] body, int offset, int length, @NotNull CharSequence signature) {
+    Verification verification = verifications.get();
+    if (!verification.decodeSignature(signature)) {
+      return false;
+    }
+    verification.mac.update(body, offset, length);
+    return verification.matches();
+  }
+
+  /**
+   * Verifies the remaining bytes of a buffer, heap or direct. The position of the buffer is left
+   * unchanged.
+   *
+   * @param body the raw body of the HTTP request
+   * @param signature the signature provided in the X-Signature header
+   * @return true if the signature is valid
+   */
+  public boolean verify(@NotNull ByteBuffer body, @NotNull CharSequence signature) {
+    Verification verification = verifications.get();
+    if (!verification.decodeSignature(signature)) {
+      return false;
+    }
+    int position = body.position();
+    try {
+      verification.mac.update(body);
+    } finally {
+      body.position(position);
+    }
+    return verification.matches();
+  }
+
+  @NotNull
+  private Mac newMac(@NotNull SecretKeySpec signingKey) {
+    try {
+      // Cloning keeps the precomputed inner and outer pads of the prototype
+      return (Mac) prototype.clone();
+    } catch (CloneNotSupportedException e) {
+      try {
+        Mac mac = Mac.getInstance(ALGORITHM);
+        mac.init(signingKey);
+        return mac;
+      } catch (GeneralSecurityException ex) {
+        throw new IllegalStateException("Should not happen. Could not init HmacSHA256", ex);
+      }
+    }
+  }
+
+  /** The MAC and buffers of a single thread */
+  private static class Verification {
+    @NotNull private final Mac mac;
+    @NotNull private final byte[] expected = new byte[SIGNATURE_LENGTH];
+    @NotNull private final byte[] actual = new byte[SIGNATURE_LENGTH];
+
+    Verification(@NotNull Mac mac) {
+      this.mac = mac;
+    }
+
+    /** Decodes a hex signature, in either case, into {@link #expected} */
+    boolean decodeSignature(@NotNull CharSequence signature) {
+      if (signature.length() != 2 * SIGNATURE_LENGTH) {
+        return false;
+      }
+      for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+        int high = hexValue(signature.charAt(2 * i));
+        int low = hexValue(signature.charAt(2 * i + 1));
+        if (high < 0 || low < 0) {
+          return false;
+        }
+        expected[i] = (byte) (high << 4 | low);
+      }
+      return true;
+    }
+
+    private static int hexValue(char c) {
+      if (c >= '0' && c <= '9') {
+        return c - '0';
+      }
+      if (c >= 'a' && c <= 'f') {
+        return c - 'a' + 10;
+      }
+      if (c >= 'A' && c <= 'F') {
+        return c - 'A' + 10;
+      }
+      return -1;
+    }
+
+    boolean matches() {
+      try {
+        mac.doFinal(actual, 0);
+      } catch (GeneralSecurityException e) {
+        throw new IllegalStateException("Should not happen. Could not compute HmacSHA256", e);
+      }
+      return MessageDigest.isEqual(expected, actual);
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package io.getstream.chat.java;
 
+import com.sun.net.httpserver.HttpServer;
 import io.getstream.chat.java.exceptions.StreamException;
 import io.getstream.chat.java.models.App;
 import io.getstream.chat.java.models.App.AppCheckSnsResponse;
@@ -8,10 +9,32 @@ import io.getstream.chat.java.models.App.PushConfigRequestObject;
 import io.getstream.chat.java.models.App.PushVersion;
 import io.getstream.chat.java.models.Message;
 import io.getstream.chat.java.models.Message.MessageRequestObject;
+import io.getstream.chat.java.models.framework.DefaultFileHandler;
+import io.getstream.chat.java.services.framework.ClientRateLimiter;
 import io.getstream.chat.java.services.framework.DefaultClient;
+import io.getstream.chat.java.services.framework.DefaultRetryPolicy;
+import io.getstream.chat.java.services.framework.HistogramMetricsRecorder;
+import io.getstream.chat.java.services.framework.RetryPolicy.RetryAttempt;
+import io.getstream.chat.java.services.framework.ServerTokenManager;
+import io.getstream.chat.java.services.framework.WebhookVerifier;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Calendar;
+import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -90,6 +113,46 @@ public class AppTest extends BasicTest {
     Assertions.assertDoesNotThrow(() -> App.getRateLimits().request());
   }
 
+  @DisplayName("Client-side rate limiter learns limits from responses")
+  @Test
+  void whenRateLimiterIsEnabled_thenLimitsAreLearned() {
+    var rateLimiter = new ClientRateLimiter();
+    var client = new DefaultClient();
+    client.setRateLimiter(rateLimiter);
+
+    Assertions.assertDoesNotThrow(() -> App.get().withClient(client).request());
+    Assertions.assertNotNull(rateLimiter.getLimit("AppService.get"));
+    Assertions.assertDoesNotThrow(() -> App.get().withClient(client).requestFuture().join());
+  }
+
+  @DisplayName("Metrics are recorded per endpoint")
+  @Test
+  void whenMetricsRecorderIsSet_thenRequestsAreRecorded() {
+    var metrics = new HistogramMetricsRecorder();
+    var client = new DefaultClient();
+    client.setMetricsRecorder(metrics);
+
+    Assertions.assertDoesNotThrow(() -> App.get().withClient(client).request());
+    var endpointMetrics = metrics.getEndpointMetrics("AppService.get");
+    Assertions.assertNotNull(endpointMetrics);
+    Assertions.assertEquals(1, endpointMetrics.getRequests());
+    Assertions.assertEquals(0, endpointMetrics.getErrors());
+    Assertions.assertTrue(endpointMetrics.getResponseBytes() > 0);
+  }
+
+  @DisplayName("Per-request timeout overrides the client timeout")
+  @Test
+  void whenRequestTimeoutIsSet_thenItBoundsTheCall() {
+    Assertions.assertThrows(
+        StreamException.class, () -> App.get().withTimeout(Duration.ofNanos(1)).request());
+    Assertions.assertDoesNotThrow(() -> App.get().withTimeout(Duration.ofSeconds(30)).request());
+
+    var client = new DefaultClient();
+    client.setTimeout(Duration.ofSeconds(20));
+    Assertions.assertEquals(Duration.ofSeconds(20), client.getTimeout());
+    Assertions.assertDoesNotThrow(() -> App.get().withClient(client).request());
+  }
+
   @DisplayName("Can check sqs")
   @Test
   void whenCheckingBadSqs_thenError() {
@@ -158,4 +221,231 @@ public class AppTest extends BasicTest {
     calendar.add(Calendar.DAY_OF_MONTH, -1);
     Assertions.assertDoesNotThrow(() -> App.revokeTokens(calendar.getTime()).request());
   }
+
+  @DisplayName("Webhook verifier accepts the same signatures as App")
+  @Test
+  void whenVerifyingWebhook_thenSameResultAsApp() throws Exception {
+    String apiSecret = "webhook-secret";
+    String body = "{\"type\":\"message.new\",\"text\":\"h\u00e9llo\"}";
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(apiSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+    StringBuilder signature = new StringBuilder();
+    for (byte b : mac.doFinal(body.getBytes(StandardCharsets.UTF_8))) {
+      signature.append(String.format("%02x", b));
+    }
+
+    WebhookVerifier webhookVerifier = new WebhookVerifier(apiSecret);
+    byte[] bodyBytes = body.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer bodyBuffer = ByteBuffer.allocateDirect(bodyBytes.length).put(bodyBytes).flip();
+    Assertions.assertTrue(App.verifyWebhookSignature(apiSecret, body, signature.toString()));
+    Assertions.assertTrue(webhookVerifier.verify(bodyBytes, signature));
+    Assertions.assertTrue(webhookVerifier.verify(bodyBuffer, signature));
+    Assertions.assertEquals(0, bodyBuffer.position());
+
+    bodyBytes[bodyBytes.length - 2] = 'x';
+    Assertions.assertFalse(webhookVerifier.verify(bodyBytes, signature));
+    Assertions.assertFalse(webhookVerifier.verify(ByteBuffer.wrap(bodyBytes), signature));
+    Assertions.assertFalse(webhookVerifier.verify(body.getBytes(StandardCharsets.UTF_8), "abc"));
+  }
+
+  @DisplayName("Server token is cached, refreshed ahead of expiry and rotated")
+  @Test
+  void whenUsingServerTokenManager_thenTokenIsCachedAndRotated() throws Exception {
+    String apiSecret = "first-secret-long-enough-for-hs256-signing";
+    String newApiSecret = "second-secret-long-enough-for-hs256-signing";
+    var tokenManager = new ServerTokenManager(apiSecret, Duration.ofSeconds(11));
+
+    long now = System.currentTimeMillis();
+    String token = tokenManager.getToken();
+    Claims claims = parseToken(apiSecret, token);
+    // Issued 5 seconds in the past, claims have a second precision
+    Assertions.assertTrue(Math.abs(now - 5000 - claims.getIssuedAt().getTime()) < 2000);
+    Assertions.assertEquals(
+        11000, claims.getExpiration().getTime() - claims.getIssuedAt().getTime());
+    Assertions.assertSame(token, tokenManager.getToken());
+
+    // Refreshed 5 seconds before its expiration, so 1 second after being minted here
+    Thread.sleep(1500);
+    String refreshedToken = tokenManager.getToken();
+    Assertions.assertNotEquals(token, refreshedToken);
+    Assertions.assertTrue(
+        parseToken(apiSecret, refreshedToken).getExpiration().after(claims.getExpiration()));
+
+    tokenManager.rotate(newApiSecret);
+    String rotatedToken = tokenManager.getToken();
+    Assertions.assertEquals(newApiSecret, tokenManager.getApiSecret());
+    Assertions.assertNotNull(parseToken(newApiSecret, rotatedToken).getExpiration());
+    Assertions.assertThrows(JwtException.class, () -> parseToken(apiSecret, rotatedToken));
+  }
+
+  private static Claims parseToken(String apiSecret, String token) {
+    return Jwts.parserBuilder()
+        .setSigningKey(new SecretKeySpec(apiSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"))
+        .build()
+        .parseClaimsJws(token)
+        .getBody();
+  }
+
+  @DisplayName("Default retry policy backs off exponentially with jitter")
+  @Test
+  void whenRetryingServerErrors_thenDelayGrowsWithinBounds() {
+    var retryPolicy =
+        DefaultRetryPolicy.builder()
+            .maxAttempts(10)
+            .baseDelay(Duration.ofMillis(200))
+            .maxDelay(Duration.ofSeconds(1))
+            .deadline(Duration.ofMinutes(1))
+            .build();
+    for (int attemptCount = 1; attemptCount < 10; attemptCount++) {
+      long cappedMillis = Math.min(1000, 200L << (attemptCount - 1));
+      for (int i = 0; i < 50; i++) {
+        Duration delay =
+            retryPolicy.retryDelay(retryAttempt("GET", attemptCount, 503, null, null, 0));
+        Assertions.assertNotNull(delay);
+        Assertions.assertTrue(delay.toMillis() >= cappedMillis / 2, delay.toString());
+        Assertions.assertTrue(delay.toMillis() <= cappedMillis, delay.toString());
+      }
+    }
+    Assertions.assertNull(retryPolicy.retryDelay(retryAttempt("GET", 10, 503, null, null, 0)));
+    Assertions.assertNull(retryPolicy.retryDelay(retryAttempt("GET", 1, 400, null, null, 0)));
+    Assertions.assertNotNull(
+        retryPolicy.retryDelay(retryAttempt("GET", 1, null, new ConnectException(), null, 0)));
+    Assertions.assertNull(
+        retryPolicy.retryDelay(
+            retryAttempt("GET", 1, null, new SocketTimeoutException(), null, 0)));
+  }
+
+  @DisplayName("Default retry policy waits for the rate limit reset within its bounds")
+  @Test
+  void whenRetryingRateLimitedRequests_thenDelayFollowsTheReset() {
+    var retryPolicy =
+        DefaultRetryPolicy.builder()
+            .baseDelay(Duration.ofMillis(200))
+            .maxDelay(Duration.ofSeconds(10))
+            .deadline(Duration.ofSeconds(30))
+            .build();
+    long now = System.currentTimeMillis();
+    Duration delay =
+        retryPolicy.retryDelay(retryAttempt("GET", 1, 429, null, new Date(now + 2000), 0));
+    Assertions.assertNotNull(delay);
+    Assertions.assertTrue(delay.toMillis() >= 1500 && delay.toMillis() <= 2200, delay.toString());
+
+    // Resets later than maxDelay, or retries past the deadline, are not waited for
+    Assertions.assertNull(
+        retryPolicy.retryDelay(retryAttempt("GET", 1, 429, null, new Date(now + 20000), 0)));
+    Assertions.assertNull(
+        retryPolicy.retryDelay(retryAttempt("GET", 1, 429, null, new Date(now + 2000), 29000)));
+    Assertions.assertNull(retryPolicy.retryDelay(retryAttempt("GET", 2, 503, null, null, 29900)));
+  }
+
+  @DisplayName("Default retry policy only retries opted-in POST requests")
+  @Test
+  void whenRetryingPostRequests_thenOnlyOptedInOnesAreRetried() {
+    var retryAttempt = retryAttempt("POST", 1, 503, null, null, 0);
+    Assertions.assertNull(DefaultRetryPolicy.builder().build().retryDelay(retryAttempt));
+    Assertions.assertNotNull(
+        DefaultRetryPolicy.builder().retryPosts(true).build().retryDelay(retryAttempt));
+    Assertions.assertNotNull(
+        DefaultRetryPolicy.builder()
+            .retryableEndpoint("MessageService.send")
+            .build()
+            .retryDelay(retryAttempt));
+    Assertions.assertNull(
+        DefaultRetryPolicy.builder()
+            .retryableEndpoint("MessageService.update")
+            .build()
+            .retryDelay(retryAttempt));
+  }
+
+  @DisplayName("Failed requests are retried and counted, streamed uploads are not resent")
+  @Test
+  void whenRequestsFail_thenTheyAreRetriedAndCounted() throws Exception {
+    AtomicInteger failuresLeft = new AtomicInteger();
+    AtomicInteger requestCount = new AtomicInteger();
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          requestCount.incrementAndGet();
+          exchange.getRequestBody().readAllBytes();
+          byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+          exchange.getResponseHeaders().set("Content-Type", "application/json");
+          exchange.sendResponseHeaders(failuresLeft.getAndDecrement() > 0 ? 503 : 200, body.length);
+          exchange.getResponseBody().write(body);
+          exchange.close();
+        });
+    server.start();
+    try {
+      var properties = new Properties();
+      properties.put(DefaultClient.API_KEY_PROP_NAME, "key");
+      properties.put(DefaultClient.API_SECRET_PROP_NAME, "secret-long-enough-for-hs256-signing");
+      properties.put(
+          DefaultClient.API_URL_PROP_NAME,
+          "http://localhost:" + server.getAddress().getPort() + "/");
+      var client = new DefaultClient(properties);
+      client.setRetryPolicy(
+          DefaultRetryPolicy.builder().baseDelay(Duration.ofMillis(1)).retryPosts(true).build());
+      var retryStats = client.getRetryStats();
+
+      failuresLeft.set(2);
+      Assertions.assertDoesNotThrow(() -> App.get().withClient(client).request());
+      Assertions.assertEquals(3, requestCount.get());
+      Assertions.assertEquals(2, retryStats.getRetriesOnServerError());
+      Assertions.assertEquals(0, retryStats.getExhaustedRequests());
+
+      requestCount.set(0);
+      failuresLeft.set(10);
+      Assertions.assertThrows(
+          StreamException.class, () -> App.get().withClient(client).request());
+      Assertions.assertEquals(3, requestCount.get());
+      Assertions.assertEquals(1, retryStats.getExhaustedRequests());
+
+      // A streamed body can only be written once
+      requestCount.set(0);
+      failuresLeft.set(10);
+      byte[] content = "content".getBytes(StandardCharsets.UTF_8);
+      Assertions.assertThrows(
+          StreamException.class,
+          () ->
+              Message.uploadFile("messaging", "general", "user", "text/plain")
+                  .file(new ByteArrayInputStream(content), content.length, "file.txt")
+                  .withFileHandler(new DefaultFileHandler(client))
+                  .request());
+      Assertions.assertEquals(1, requestCount.get());
+
+      // Requests the policy never retries are not counted as exhausted
+      client.setRetryPolicy(DefaultRetryPolicy.builder().baseDelay(Duration.ofMillis(1)).build());
+      requestCount.set(0);
+      failuresLeft.set(10);
+      Assertions.assertThrows(
+          StreamException.class,
+          () ->
+              Message.send("messaging", "general")
+                  .message(MessageRequestObject.builder().text("text").userId("user").build())
+                  .withClient(client)
+                  .request());
+      Assertions.assertEquals(1, requestCount.get());
+      Assertions.assertEquals(1, retryStats.getExhaustedRequests());
+      Assertions.assertEquals(2, retryStats.getRetries());
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  private static RetryAttempt retryAttempt(
+      String method,
+      int attemptCount,
+      Integer statusCode,
+      IOException exception,
+      Date rateLimitReset,
+      long elapsedMillis) {
+    return new RetryAttempt(
+        method,
+        "MessageService.send",
+        attemptCount,
+        statusCode,
+        exception,
+        rateLimitReset,
+        Duration.ofMillis(elapsedMillis));
+  }
 }
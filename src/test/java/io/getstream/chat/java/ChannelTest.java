@@ -3,15 +3,28 @@ package io.getstream.chat.java;
 import io.getstream.chat.java.models.Channel;
 import io.getstream.chat.java.models.Channel.*;
 import io.getstream.chat.java.models.DeleteStrategy;
+import io.getstream.chat.java.models.Message;
 import io.getstream.chat.java.models.Message.MessageRequestObject;
 import io.getstream.chat.java.models.Sort;
 import io.getstream.chat.java.models.Sort.Direction;
 import io.getstream.chat.java.models.User;
 import io.getstream.chat.java.models.User.ChannelMute;
+import io.getstream.chat.java.models.framework.BulkChannelOrchestrator;
+import io.getstream.chat.java.models.framework.ChannelMessageSync;
+import io.getstream.chat.java.models.framework.CheckpointFile;
+import io.getstream.chat.java.services.framework.DefaultClient;
+import io.getstream.chat.java.services.framework.RequestDeduplicator;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
@@ -172,6 +185,31 @@ public class ChannelTest extends BasicTest {
     }
   }
 
+  @Test
+  @DisplayName("Can delete and truncate channels in bulk")
+  void whenDeletingAndTruncatingInBulk_thenAllChannelsAreProcessed() throws Exception {
+    var cids = new ArrayList<String>();
+    for (int i = 0; i < 3; i++) {
+      cids.add(createRandomChannel().getChannel().getCId());
+    }
+    var orchestrator =
+        BulkChannelOrchestrator.builder()
+            .chunkSize(2)
+            .maxRunningTasks(1)
+            .pollInterval(Duration.ofMillis(200), Duration.ofSeconds(2))
+            .build();
+
+    var truncation = orchestrator.truncate(cids, true, true).get(30, TimeUnit.SECONDS);
+    Assertions.assertTrue(truncation.isSuccessful());
+    Assertions.assertEquals(3, truncation.getChannelCount());
+
+    var deletion = orchestrator.delete(cids, DeleteStrategy.HARD).get(60, TimeUnit.SECONDS);
+    Assertions.assertTrue(deletion.isSuccessful());
+    Assertions.assertEquals(3, deletion.getChannelCount());
+    Assertions.assertEquals(2, orchestrator.getCompletedTaskCount());
+    orchestrator.close();
+  }
+
   @DisplayName("Can list channels")
   @Test
   void whenListingChannels_thenNoException() {
@@ -403,4 +441,92 @@ public class ChannelTest extends BasicTest {
                 .assignRole(assignment)
                 .request());
   }
+
+  @DisplayName("Identical channel queries are collapsed")
+  @Test
+  void whenRequestDeduplicatorIsSet_thenIdenticalQueriesShareResponses() {
+    var requestDeduplicator = new RequestDeduplicator();
+    var client = new DefaultClient();
+    client.setRequestDeduplicator(requestDeduplicator);
+    // Holds the first response until an identical request waits for it, so that they overlap
+    client.setMetricsRecorder(
+        metrics -> {
+          long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+          while (requestDeduplicator.getCollapsedCount() == 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+          }
+        });
+
+    var futures =
+        IntStream.range(0, 10)
+            .mapToObj(
+                i ->
+                    Channel.list()
+                        .user(testUserRequestObject)
+                        .sort(Sort.builder().field("id").direction(Direction.DESC).build())
+                        .withClient(client)
+                        .requestFuture())
+            .collect(Collectors.toList());
+    Assertions.assertDoesNotThrow(
+        () -> CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join());
+
+    Assertions.assertEquals(
+        10, requestDeduplicator.getSentCount() + requestDeduplicator.getCollapsedCount());
+    Assertions.assertTrue(requestDeduplicator.getCollapsedCount() > 0);
+    Assertions.assertEquals(0, requestDeduplicator.getInFlightCount());
+    var channelCount = futures.get(0).join().getChannels().size();
+    futures.forEach(
+        future -> Assertions.assertEquals(channelCount, future.join().getChannels().size()));
+  }
+
+  @DisplayName("Channel messages are synced incrementally")
+  @Test
+  void whenSyncingChannelMessages_thenOnlyNewMessagesAreFetched() throws Exception {
+    var channel = Assertions.assertDoesNotThrow(() -> createRandomChannel()).getChannel();
+    for (int i = 0; i < 3; i++) {
+      int index = i;
+      Assertions.assertDoesNotThrow(
+          () ->
+              Message.send(channel.getType(), channel.getId())
+                  .message(
+                      MessageRequestObject.builder()
+                          .text("message " + index)
+                          .userId(testUserRequestObject.getId())
+                          .build())
+                  .request());
+    }
+
+    var checkpointPath = Files.createTempFile("checkpoints", ".tsv");
+    var synced = new ArrayList<String>();
+    try (var checkpoints = new CheckpointFile(checkpointPath);
+        var sync = ChannelMessageSync.builder(checkpoints).pageSize(2).build()) {
+      var result =
+          sync.sync(
+                  List.of(channel.getCId()),
+                  (cid, messages) -> messages.forEach(message -> synced.add(message.getText())))
+              .join();
+      Assertions.assertTrue(result.isSuccessful());
+      Assertions.assertEquals(List.of("message 0", "message 1", "message 2"), synced);
+    }
+
+    Assertions.assertDoesNotThrow(
+        () ->
+            Message.send(channel.getType(), channel.getId())
+                .message(
+                    MessageRequestObject.builder()
+                        .text("message 3")
+                        .userId(testUserRequestObject.getId())
+                        .build())
+                .request());
+    try (var checkpoints = new CheckpointFile(checkpointPath);
+        var sync = ChannelMessageSync.builder(checkpoints).pageSize(2).build()) {
+      var result =
+          sync.sync(
+                  List.of(channel.getCId()),
+                  (cid, messages) -> messages.forEach(message -> synced.add(message.getText())))
+              .join();
+      Assertions.assertEquals(1, result.getMessageCount());
+      Assertions.assertEquals("message 3", synced.get(synced.size() - 1));
+    }
+  }
 }
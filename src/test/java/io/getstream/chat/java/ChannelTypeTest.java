@@ -8,6 +8,9 @@ import io.getstream.chat.java.models.ChannelType.AutoMod;
 import io.getstream.chat.java.models.ChannelType.ChannelTypeListResponse;
 import io.getstream.chat.java.models.Command;
 import io.getstream.chat.java.models.ResourceAction;
+import io.getstream.chat.java.services.framework.ConfigurationCache;
+import io.getstream.chat.java.services.framework.DefaultClient;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -135,6 +138,38 @@ public class ChannelTypeTest extends BasicTest {
         () -> ChannelType.update(channelName).automod(AutoMod.SIMPLE).request());
   }
 
+  @DisplayName("Channel types are cached until updated")
+  @Test
+  void whenConfigurationCacheIsSet_thenGetIsCachedUntilUpdate() {
+    String channelName = RandomStringUtils.randomAlphabetic(10);
+    Assertions.assertDoesNotThrow(
+        () -> ChannelType.create().withDefaultConfig().name(channelName).request());
+    pause();
+    var cache = new ConfigurationCache(Duration.ofMinutes(1), 100);
+    var client = new DefaultClient();
+    client.setConfigurationCache(cache);
+
+    Assertions.assertDoesNotThrow(() -> ChannelType.get(channelName).withClient(client).request());
+    Assertions.assertDoesNotThrow(() -> ChannelType.get(channelName).withClient(client).request());
+    Assertions.assertEquals(1, cache.getMissCount());
+    Assertions.assertEquals(1, cache.getHitCount());
+
+    Assertions.assertDoesNotThrow(
+        () ->
+            ChannelType.update(channelName)
+                .automod(AutoMod.SIMPLE)
+                .withClient(client)
+                .request());
+    Assertions.assertEquals(0, cache.size());
+    pause();
+    var channelType =
+        Assertions.assertDoesNotThrow(
+            () -> ChannelType.get(channelName).withClient(client).request());
+    Assertions.assertEquals(AutoMod.SIMPLE, channelType.getAutomod());
+    Assertions.assertEquals(2, cache.getMissCount());
+    Assertions.assertDoesNotThrow(() -> ChannelType.delete(channelName).request());
+  }
+
   @DisplayName("Can update channel type with quotes with no Exception")
   @Test
   void whenCreatingDefaultChannelType_thenCanUpdateQuotesWithNoException() {
@@ -2,7 +2,21 @@ package io.getstream.chat.java;
 
 import io.getstream.chat.java.models.Event;
 import io.getstream.chat.java.models.Event.EventRequestObject;
+import io.getstream.chat.java.models.Event.EventSendResponse;
 import io.getstream.chat.java.models.Event.EventUserCustomRequestObject;
+import io.getstream.chat.java.models.framework.EventCoalescer;
+import io.getstream.chat.java.models.framework.WebhookDispatcher;
+import io.getstream.chat.java.models.framework.WebhookDispatcher.DispatchResult;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
@@ -41,4 +55,86 @@ public class EventTest extends BasicTest {
                         .build())
                 .request());
   }
+
+  @DisplayName("Can collapse repeated events with a coalescer")
+  @Test
+  void whenSendingRepeatedEvents_thenOnlyFirstAndLatestAreSent() throws Exception {
+    String eventType = RandomStringUtils.randomAlphabetic(10);
+    var coalescer = EventCoalescer.builder().window(Duration.ofSeconds(1)).build();
+    var futures = new ArrayList<CompletableFuture<EventSendResponse>>();
+    for (int i = 0; i < 10; i++) {
+      futures.add(
+          coalescer.send(
+              testChannel.getType(),
+              testChannel.getId(),
+              eventType,
+              testUserRequestObject.getId(),
+              EventRequestObject.builder().additionalField("progress", i).build()));
+    }
+    coalescer.close();
+
+    for (var future : futures) {
+      Assertions.assertEquals(eventType, future.get(30, TimeUnit.SECONDS).getEvent().getType());
+    }
+    Assertions.assertEquals(2, coalescer.getSentCount());
+    Assertions.assertEquals(8, coalescer.getSuppressedCount());
+    Assertions.assertEquals(8L, coalescer.getSuppressedCountByType().get(eventType));
+  }
+
+  @DisplayName("Webhook dispatcher routes events in channel order")
+  @Test
+  void whenDispatchingWebhooks_thenChannelOrderIsKept() throws Exception {
+    String apiSecret = "webhook-secret";
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(apiSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+    Map<String, List<String>> receivedTexts = new ConcurrentHashMap<>();
+    WebhookDispatcher dispatcher =
+        WebhookDispatcher.builder()
+            .apiSecret(apiSecret)
+            .workers(4)
+            .queueCapacity(8)
+            .on(
+                "message.new",
+                event ->
+                    receivedTexts
+                        .computeIfAbsent(event.getCid(), cid -> new ArrayList<>())
+                        .add(event.getMessage().getText()))
+            .build();
+
+    for (int i = 0; i < 50; i++) {
+      byte[] body =
+          String.format(
+                  "{\"type\":\"message.new\",\"cid\":\"messaging:%d\","
+                      + "\"message\":{\"text\":\"%d\"}}",
+                  i % 3, i)
+              .getBytes(StandardCharsets.UTF_8);
+      Assertions.assertEquals(
+          DispatchResult.ACCEPTED, dispatcher.dispatch(body, toHex(mac.doFinal(body))));
+    }
+    byte[] ignored = "{\"type\":\"user.updated\"}".getBytes(StandardCharsets.UTF_8);
+    Assertions.assertEquals(
+        DispatchResult.IGNORED, dispatcher.dispatch(ignored, toHex(mac.doFinal(ignored))));
+    Assertions.assertEquals(
+        DispatchResult.INVALID_SIGNATURE, dispatcher.dispatch(ignored, toHex(new byte[32])));
+    dispatcher.close();
+
+    Assertions.assertEquals(50, dispatcher.getAcceptedCount());
+    Assertions.assertEquals(0, dispatcher.getFailedCount());
+    for (int channel = 0; channel < 3; channel++) {
+      List<String> texts = receivedTexts.get("messaging:" + channel);
+      Assertions.assertEquals(channel == 0 ? 17 : 16, texts.size());
+      for (int i = 1; i < texts.size(); i++) {
+        Assertions.assertEquals(
+            Integer.parseInt(texts.get(i - 1)) + 3, Integer.parseInt(texts.get(i)));
+      }
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    StringBuilder hex = new StringBuilder();
+    for (byte b : bytes) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
 }
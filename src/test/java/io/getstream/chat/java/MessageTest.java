@@ -8,11 +8,21 @@ import io.getstream.chat.java.models.Language;
 import io.getstream.chat.java.models.Message;
 import io.getstream.chat.java.models.Message.*;
 import io.getstream.chat.java.models.Sort;
+import io.getstream.chat.java.models.framework.Broadcaster;
 import io.getstream.chat.java.models.framework.DefaultFileHandler;
+import io.getstream.chat.java.models.framework.MessageSendPipeline;
+import io.getstream.chat.java.models.framework.UploadManager;
+import io.getstream.chat.java.models.framework.UploadSource;
 import io.getstream.chat.java.services.framework.DefaultClient;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -52,6 +62,17 @@ public class MessageTest extends BasicTest {
     Assertions.assertTrue(retrievedMessage.getText().equals(message.getText()));
   }
 
+  @DisplayName("Can retrieve messages concurrently with futures")
+  @Test
+  void whenRetrievingMessagesWithFutures_thenAllAreRetrieved() {
+    Message message = Assertions.assertDoesNotThrow(() -> sendTestMessage());
+    var first = Message.get(testMessage.getId()).requestFuture();
+    var second = Message.get(message.getId()).requestFuture();
+    Assertions.assertDoesNotThrow(() -> CompletableFuture.allOf(first, second).get());
+    Assertions.assertEquals(testMessage.getId(), first.join().getMessage().getId());
+    Assertions.assertEquals(message.getId(), second.join().getMessage().getId());
+  }
+
   @DisplayName("Can update a message")
   @Test
   void whenUpdatingAMessage_thenNoException() {
@@ -265,6 +286,149 @@ public class MessageTest extends BasicTest {
         });
   }
 
+  @DisplayName("Can stream uploads from a path and an input stream")
+  @Test
+  void whenUploadingFromPathAndInputStream_thenProgressIsReported() throws Exception {
+    Assertions.assertDoesNotThrow(
+        () ->
+            App.update()
+                .fileUploadConfig(
+                    FileUploadConfigRequestObject.builder()
+                        .allowedFileExtensions(Collections.emptyList())
+                        .build())
+                .request());
+    var path = Path.of(getClass().getClassLoader().getResource("upload_file.txt").toURI());
+    var content = Files.readAllBytes(path);
+
+    var written = new AtomicLong();
+    var fromPath =
+        Assertions.assertDoesNotThrow(
+            () ->
+                Message.uploadFile(
+                        testChannel.getType(),
+                        testChannel.getId(),
+                        testUserRequestObject.getId(),
+                        "text/plain")
+                    .file(path)
+                    .progressListener((bytesWritten, contentLength) -> written.set(bytesWritten))
+                    .request());
+    Assertions.assertNotNull(fromPath.getFile());
+    Assertions.assertEquals(content.length, written.get());
+
+    var fromStream =
+        Assertions.assertDoesNotThrow(
+            () ->
+                Message.uploadFile(
+                        testChannel.getType(),
+                        testChannel.getId(),
+                        testUserRequestObject.getId(),
+                        "text/plain")
+                    .file(new ByteArrayInputStream(content), content.length, "upload_file.txt")
+                    .request());
+    Assertions.assertNotNull(fromStream.getFile());
+  }
+
+  @DisplayName("Can upload files in parallel with an upload manager")
+  @Test
+  void whenUploadingWithUploadManager_thenAllUploadsComplete() throws Exception {
+    Assertions.assertDoesNotThrow(
+        () ->
+            App.update()
+                .fileUploadConfig(
+                    FileUploadConfigRequestObject.builder()
+                        .allowedFileExtensions(Collections.emptyList())
+                        .build())
+                .request());
+    var path = Path.of(getClass().getClassLoader().getResource("upload_file.txt").toURI());
+
+    var single =
+        Message.uploadFile(
+                testChannel.getType(),
+                testChannel.getId(),
+                testUserRequestObject.getId(),
+                "text/plain")
+            .file(path.toFile())
+            .requestFuture();
+    Assertions.assertNotNull(single.get(30, TimeUnit.SECONDS).getFile());
+
+    var uploadManager =
+        UploadManager.builder().maxConcurrentUploads(4).maxConcurrentUploadsPerChannel(2).build();
+    var futures = new ArrayList<CompletableFuture<MessageUploadFileResponse>>();
+    for (int i = 0; i < 6; i++) {
+      futures.add(
+          uploadManager.uploadFile(
+              testChannel.getType(),
+              testChannel.getId(),
+              testUserRequestObject.getId(),
+              "text/plain",
+              UploadSource.of(path)));
+    }
+    Assertions.assertTrue(uploadManager.getRunningCount() <= 2);
+    for (var future : futures) {
+      Assertions.assertNotNull(future.get(30, TimeUnit.SECONDS).getFile());
+    }
+    Assertions.assertEquals(6, uploadManager.getCompletedCount());
+    Assertions.assertEquals(0, uploadManager.getQueuedCount());
+  }
+
+  @DisplayName("Can send messages in order per channel with a send pipeline")
+  @Test
+  void whenSendingWithPipeline_thenMessagesAreOrderedPerChannel() throws Exception {
+    var otherChannel = createRandomChannel().getChannel();
+    var pipeline = MessageSendPipeline.builder().maxConcurrentChannels(2).skipPush(true).build();
+    var futures = new ArrayList<CompletableFuture<MessageSendResponse>>();
+    for (int i = 0; i < 5; i++) {
+      for (var channel : Arrays.asList(testChannel, otherChannel)) {
+        futures.add(
+            pipeline.submit(
+                channel.getType(),
+                channel.getId(),
+                MessageRequestObject.builder()
+                    .text("pipeline " + i)
+                    .userId(testUserRequestObject.getId())
+                    .build()));
+      }
+    }
+    var sentMessages = new ArrayList<Message>();
+    for (var future : futures) {
+      sentMessages.add(future.get(30, TimeUnit.SECONDS).getMessage());
+    }
+    pipeline.close();
+
+    for (int i = 2; i < sentMessages.size(); i++) {
+      Assertions.assertFalse(
+          sentMessages.get(i).getCreatedAt().before(sentMessages.get(i - 2).getCreatedAt()));
+    }
+    // Idle channels are forgotten
+    Assertions.assertNull(pipeline.getChannelStats(otherChannel.getType(), otherChannel.getId()));
+    Assertions.assertTrue(pipeline.getChannelStats().isEmpty());
+    Assertions.assertEquals(10, pipeline.getSentCount());
+    Assertions.assertEquals(0, pipeline.getQueuedCount());
+  }
+
+  @DisplayName("Can broadcast a message to many channels")
+  @Test
+  void whenBroadcastingMessage_thenEveryChannelGetsIt() throws Exception {
+    var otherChannel = createRandomChannel().getChannel();
+    var broadcaster = Broadcaster.builder().maxConcurrentRequests(2).build();
+    var result =
+        broadcaster
+            .sendMessage(
+                Arrays.asList(testChannel.getCId(), otherChannel.getCId(), testChannel.getCId()),
+                MessageRequestObject.builder()
+                    .text("broadcast")
+                    .userId(testUserRequestObject.getId())
+                    .build(),
+                true)
+            .get(30, TimeUnit.SECONDS);
+
+    Assertions.assertTrue(result.isSuccessful());
+    Assertions.assertEquals(2, result.getResponses().size());
+    Assertions.assertEquals(
+        "broadcast", result.getResponses().get(otherChannel.getCId()).getMessage().getText());
+    Assertions.assertEquals(2, broadcaster.getSentCount());
+  }
+
   @DisplayName("Can upload pdf file with no exception")
   @Test
   void whenUploadingPdfFile_thenNoException() {
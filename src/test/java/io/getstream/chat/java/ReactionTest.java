@@ -2,7 +2,12 @@ package io.getstream.chat.java;
 
 import io.getstream.chat.java.models.Reaction;
 import io.getstream.chat.java.models.Reaction.ReactionRequestObject;
+import io.getstream.chat.java.models.framework.PageIterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
@@ -111,4 +116,76 @@ public class ReactionTest extends BasicTest {
         reactions.stream()
             .anyMatch(consideredReaction -> consideredReaction.getType().equals(reactionType)));
   }
+
+  @DisplayName("Can page through reactions")
+  @Test
+  void whenIteratingReactions_thenRetrievesAllPages() {
+    for (int i = 0; i < 3; i++) {
+      String reactionType = RandomStringUtils.randomAlphabetic(10);
+      Assertions.assertDoesNotThrow(
+          () ->
+              Reaction.send(testMessage.getId())
+                  .reaction(
+                      ReactionRequestObject.builder()
+                          .type(reactionType)
+                          .user(testUserRequestObject)
+                          .build())
+                  .request());
+    }
+    List<Reaction> reactions =
+        Assertions.assertDoesNotThrow(() -> Reaction.list(testMessage.getId()).request())
+            .getReactions();
+    List<Reaction> pagedReactions =
+        Reaction.list(testMessage.getId()).stream(2, 2).collect(Collectors.toList());
+    Assertions.assertEquals(reactions.size(), pagedReactions.size());
+  }
+
+  @DisplayName("Page iterator fetches readAhead pages ahead of the current one")
+  @Test
+  void whenIteratingPages_thenReadAheadPagesAreLoaded() {
+    for (int readAhead = 0; readAhead <= 2; readAhead++) {
+      AtomicInteger loadCount = new AtomicInteger();
+      PageIterator<Integer> iterator =
+          new PageIterator<>(
+              (offset, limit) -> {
+                loadCount.incrementAndGet();
+                return CompletableFuture.completedFuture(
+                    offset < 10 ? List.of(offset, offset + 1) : List.of());
+              },
+              2,
+              readAhead);
+
+      Assertions.assertEquals(0, iterator.next());
+      Assertions.assertEquals(1, iterator.next());
+      Assertions.assertEquals(readAhead + 1, loadCount.get());
+      Assertions.assertEquals(2, iterator.next());
+      Assertions.assertEquals(readAhead + 2, loadCount.get());
+      Assertions.assertEquals(
+          IntStream.range(3, 10).boxed().collect(Collectors.toList()),
+          iterator.stream().collect(Collectors.toList()));
+    }
+  }
+
+  @DisplayName("Cursor page iterator requests every page after the previous one")
+  @Test
+  void whenIteratingCursorPages_thenPagesFollowTheLastItem() {
+    AtomicInteger loadCount = new AtomicInteger();
+    PageIterator<Integer> iterator =
+        PageIterator.cursor(
+            (after, limit) -> {
+              loadCount.incrementAndGet();
+              int first = after == null ? 0 : after + 1;
+              return CompletableFuture.completedFuture(
+                  IntStream.range(first, Math.min(first + limit, 7))
+                      .boxed()
+                      .collect(Collectors.toList()));
+            },
+            3,
+            1);
+
+    Assertions.assertEquals(
+        IntStream.range(0, 7).boxed().collect(Collectors.toList()),
+        iterator.stream().collect(Collectors.toList()));
+    Assertions.assertEquals(3, loadCount.get());
+  }
 }
@@ -8,7 +8,12 @@ import io.getstream.chat.java.models.DeleteStrategy;
 import io.getstream.chat.java.models.Language;
 import io.getstream.chat.java.models.User;
 import io.getstream.chat.java.models.User.UserUpsertRequestData.UserUpsertRequest;
+import io.getstream.chat.java.models.framework.BatchLoader;
+import io.getstream.chat.java.models.framework.UserUpsertBatcher;
+import io.getstream.chat.java.services.framework.Client;
+import io.getstream.chat.java.services.framework.UserTokenFactory;
 import java.lang.reflect.Field;
+import java.time.Duration;
 import java.util.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -62,6 +67,46 @@ public class UserTest extends BasicTest {
     Assertions.assertEquals(lang, Language.UNKNOWN);
   }
 
+  @DisplayName("Can batch user upserts")
+  @Test
+  void whenBatchingUserUpserts_thenLastUpdateWins() {
+    var userId = RandomStringUtils.randomAlphabetic(10);
+    var otherUserId = RandomStringUtils.randomAlphabetic(10);
+    var batcher = UserUpsertBatcher.builder().maxBatchSize(2).build();
+    var first = batcher.add(UserRequestObject.builder().id(userId).name("First").build());
+    var second = batcher.add(UserRequestObject.builder().id(userId).name("Second").build());
+    var other = batcher.add(UserRequestObject.builder().id(otherUserId).name("Other").build());
+    batcher.close();
+
+    Assertions.assertSame(first, second);
+    Assertions.assertEquals("Second", Assertions.assertDoesNotThrow(() -> first.join()).getName());
+    Assertions.assertEquals(otherUserId, Assertions.assertDoesNotThrow(() -> other.join()).getId());
+    Assertions.assertEquals(1, batcher.getCoalescedCount());
+    Assertions.assertEquals(1, batcher.getSentBatchCount());
+  }
+
+  @DisplayName("Can batch user lookups")
+  @Test
+  void whenLoadingUsersConcurrently_thenOneRequest() {
+    var userLoader = BatchLoader.users().window(Duration.ofMillis(100)).build();
+    var first = userLoader.load(testUsersRequestObjects.get(0).getId());
+    var second = userLoader.load(testUsersRequestObjects.get(1).getId());
+    var again = userLoader.load(testUsersRequestObjects.get(0).getId());
+    var missing = userLoader.load(RandomStringUtils.randomAlphabetic(10));
+
+    Assertions.assertEquals(
+        testUsersRequestObjects.get(0).getId(),
+        Assertions.assertDoesNotThrow(() -> first.join()).getId());
+    Assertions.assertEquals(
+        testUsersRequestObjects.get(1).getId(),
+        Assertions.assertDoesNotThrow(() -> second.join()).getId());
+    Assertions.assertEquals(first.join().getId(), again.join().getId());
+    Assertions.assertNull(missing.join());
+    Assertions.assertEquals(1, userLoader.getBatchCount());
+    Assertions.assertEquals(1, userLoader.getSharedCount());
+    userLoader.close();
+  }
+
   @DisplayName("Can partial update a user")
   @Test
   void whenPartiallyUpdatingUser_thenNoException() {
@@ -374,4 +419,27 @@ public class UserTest extends BasicTest {
 
     Assertions.assertEquals(197, token.length());
   }
+
+  @DisplayName("Token factory generates the same tokens")
+  @Test
+  void whenGeneratingUserTokenWithFactory_thenSameToken() {
+    String apiSecret = Client.getInstance().getApiSecret();
+    UserTokenFactory tokenFactory = new UserTokenFactory(apiSecret);
+    Date issuedAt = new Date(1690000000999L);
+    Date expiresAt = new Date(1700000000123L);
+
+    List<String> userIds =
+        Arrays.asList(
+            RandomStringUtils.randomAlphabetic(10), "quote\"back\\slash\n", "\u00e9\ud83d\ude00");
+    for (String userId : userIds) {
+      Assertions.assertEquals(
+          createToken(apiSecret, userId, null, issuedAt),
+          tokenFactory.createToken(userId, null, issuedAt));
+      Assertions.assertEquals(
+          createToken(apiSecret, userId, expiresAt, issuedAt),
+          tokenFactory.createToken(userId, expiresAt, issuedAt));
+    }
+    Assertions.assertEquals(
+        197, tokenFactory.createToken(RandomStringUtils.randomAlphabetic(10)).length());
+  }
 }